@@ -5,6 +5,8 @@ import me.nlt.bavm.files.AutoSave;
 import me.nlt.bavm.files.FileManager;
 import me.nlt.bavm.game.Match;
 import me.nlt.bavm.game.MatchManager;
+import me.nlt.bavm.generator.LeagueRandom;
+import me.nlt.bavm.generator.WorldGenerator;
 import me.nlt.bavm.season.Season;
 import me.nlt.bavm.season.Week;
 import me.nlt.bavm.teams.TeamAI;
@@ -23,6 +25,7 @@ import java.awt.*;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BAVM
 {
@@ -35,6 +38,8 @@ public class BAVM
     private static MatchManager<Match> matchManager;
     private static CoachManager<Coach> coachManager;
     private static Season season;
+    private static WorldGenerator worldGenerator;
+    private static final ReentrantLock gameLock = new ReentrantLock();
 
     /**
      * Main method
@@ -82,14 +87,7 @@ public class BAVM
         // Eigenlijk lieg ik bij het eerste bericht maar anders kan het niet
         display.appendText("Thread locked, aan het wachten op een unlock", "Thread ge-unlocked", "Spelers en teams worden geladen\n");
 
-        fileManager = new FileManager();
-        playerManager = new PlayerManager<>(fileManager.firstStart);
-        coachManager = new CoachManager<>(fileManager.firstStart);
-        teamManager = new TeamManager<>(fileManager.firstStart);
-        matchManager = new MatchManager<>();
-        Week.weekNumber = fileManager.getDateNumber("week");
-        Week.seasonNumber = fileManager.getDateNumber("season");
-        season = new Season(true);
+        loadGame(new FileManager());
 
         // Iedere 5 minuten een autosave starten
         new AutoSave(5 * 60);
@@ -101,11 +99,59 @@ public class BAVM
         this.initGame();
     }
 
+    /**
+     * Laadt alle managers en het seizoen uit het databestand, of maakt ze als het bestand nieuw is
+     *
+     * @param newFileManager De FileManager met het databestand
+     */
+    private static void loadGame(FileManager newFileManager)
+    {
+        fileManager = newFileManager;
+        LeagueRandom.setSeed(fileManager.getLeagueSeed());
+
+        // Bij een nieuw databestand wordt de hele wereld in 1 keer gegenereerd, de managers maken daar de objecten van
+        if (fileManager.firstStart)
+        {
+            worldGenerator = new WorldGenerator(WorldGenerator.STANDARD_PLAYERS, WorldGenerator.STANDARD_COACHES, WorldGenerator.STANDARD_TEAMS).generate();
+        }
+
+        playerManager = new PlayerManager<>(fileManager.firstStart);
+        coachManager = new CoachManager<>(fileManager.firstStart);
+        teamManager = new TeamManager<>(fileManager.firstStart);
+        worldGenerator = null;
+        matchManager = new MatchManager<>();
+        Week.weekNumber = fileManager.getDateNumber("week");
+        Week.seasonNumber = fileManager.getDateNumber("season");
+        season = new Season(true);
+
+        // Objecten uit records die nog tekst waren zijn bij het laden gemarkeerd, die worden nu meteen binair opgeslagen
+        if (fileManager.hasLegacyRecords())
+        {
+            fileManager.saveAll();
+        }
+    }
+
+    /**
+     * Laadt het spel zonder venster, conversaties en autosave, bijvoorbeeld voor de benchmarks
+     * Als het databestand nog niet bestaat wordt er een nieuwe competitie gemaakt
+     *
+     * @param storageFile Het databestand
+     */
+    public static void loadHeadless(File storageFile)
+    {
+        display = new Display();
+        loadGame(new FileManager(storageFile));
+        fileManager.firstStart = false;
+    }
+
     /**
      * Deze wordt aangeroepen nadat de thread ge-unlocked is zodat alles kan laden
      */
     private void initGame()
     {
+        // De game thread houdt de lock vast, behalve als er op de gebruiker gewacht wordt
+        gameLock.lock();
+
         if (fileManager.firstStart)
         {
             new StartingConversation().startConversation(display);
@@ -231,6 +277,16 @@ public class BAVM
         return season;
     }
 
+    public static WorldGenerator getWorldGenerator()
+    {
+        return worldGenerator;
+    }
+
+    public static ReentrantLock getGameLock()
+    {
+        return gameLock;
+    }
+
     /**
      * Deze wordt op het eind gebruikt om de credits te laten zien
      */
@@ -23,6 +23,7 @@ public class Display
     private DefaultCaret defaultCaret;
 
     private Object lockObject;
+    private boolean headless;
 
     /**
      * Display constructor
@@ -39,6 +40,14 @@ public class Display
         this.initDisplay();
     }
 
+    /**
+     * Display constructor zonder venster, alle tekst wordt weggegooid en fouten gaan naar System.err
+     */
+    public Display()
+    {
+        this.headless = true;
+    }
+
     /**
      * Methode die een exception in onze console print
      *
@@ -46,6 +55,12 @@ public class Display
      */
     public void printException(Exception exception)
     {
+        if (headless)
+        {
+            exception.printStackTrace();
+            return;
+        }
+
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         PrintStream printStream = new PrintStream(byteArrayOutputStream);
         String string;
@@ -162,7 +177,7 @@ public class Display
                         !BAVM.getMatchManager().dataLoaded))
         {
             System.out.println("Bestanden en managers zijn nog niet geladen tijdens aanmaken objecten, alles is verwijderd!");
-            BAVM.getFileManager().storageFile.delete();
+            BAVM.getFileManager().deleteData();
         }
 
         System.exit(1);
@@ -173,6 +188,11 @@ public class Display
      */
     public void clearText()
     {
+        if (headless)
+        {
+            return;
+        }
+
         clear = true;
         textArea.setText("");
     }
@@ -195,6 +215,11 @@ public class Display
      */
     public void appendText(boolean newLine, String... strings)
     {
+        if (headless)
+        {
+            return;
+        }
+
         // Op EDT uitvoeren
         EventQueue.invokeLater(() -> {
             // Door alle strings lopen en die printen in het actie venster
@@ -297,6 +322,14 @@ public class Display
         // Ga verder op EDT en wacht op het punt dat de gebruiker de 'enter' toets indrukt
         EventQueue.invokeLater(() -> jTextField.addActionListener(actionListener));
 
+        // Tijdens het wachten mag er opgeslagen worden, er verandert dan toch niks
+        int holdCount = BAVM.getGameLock().getHoldCount();
+
+        for (int i = 0; i < holdCount; i++)
+        {
+            BAVM.getGameLock().unlock();
+        }
+
         // Lock het lockObject zodat deze moet wachten tot de gebruiker iets heeft ingetypt
         synchronized (inputLine)
         {
@@ -309,6 +342,11 @@ public class Display
             }
         }
 
+        for (int i = 0; i < holdCount; i++)
+        {
+            BAVM.getGameLock().lock();
+        }
+
         // Reset de waarden weer
         jTextField.removeActionListener(actionListener);
         jTextField.setText("Input box");
@@ -1,6 +1,9 @@
 package me.nlt.bavm;
 
+import me.nlt.bavm.files.RecordTokenizer;
 import me.nlt.bavm.game.Match;
+import me.nlt.bavm.game.MatchEvents;
+import me.nlt.bavm.game.MatchSummary;
 import me.nlt.bavm.teams.coach.Coach;
 import me.nlt.bavm.teams.exceptions.FactoryException;
 import me.nlt.bavm.teams.exceptions.InvalidPlayerException;
@@ -10,7 +13,6 @@ import me.nlt.bavm.teams.player.Position;
 import me.nlt.bavm.teams.team.Team;
 
 import java.util.ArrayList;
-import java.util.List;
 
 public class Factory
 {
@@ -29,87 +31,71 @@ public class Factory
         double[] playerStats = new double[PlayerStats.Stat.values().length];
         double checkSum = 0;
 
-        // Randen van de string strippen
-        playerString = playerString.trim().substring(7, playerString.trim().length() - 1);
-
-        // String in stukjes 'hakken' op de plekken van de komma's
-        String[] rawPlayerData = playerString.split(",");
-
-        // Door de stukjes loopen
-        for (String string : rawPlayerData)
+        try
         {
-            // Losse stukjes maken met een datatype en de data zelf
-            String dataType = string.split("=")[0];
-            String data = string.split("=")[1];
+            RecordTokenizer tokenizer = new RecordTokenizer(playerString, "Player");
 
-            switch (dataType)
+            // Door de velden loopen
+            while (tokenizer.next())
             {
-                case "playerstats":
-                    data = data.substring(12, data.length());
-
-                    for (String stats : data.split(">"))
-                    {
-                        // Stat verkrijgen
-                        String stat = stats.split(":")[0];
-                        PlayerStats.Stat playerStat = PlayerStats.getSkill(stat.toUpperCase());
-                        double value = 0;
+                switch (tokenizer.getKey())
+                {
+                    case "playerstats":
+                        String record = tokenizer.getRecord();
+                        int open = RecordTokenizer.indexOf(record, '{', tokenizer.getValueStart(), tokenizer.getValueEnd()) + 1;
+                        int close = tokenizer.getValueEnd() - 1;
+                        int percent = RecordTokenizer.indexOf(record, '%', open, close);
+
+                        // De stats staan als naam:waarde met een > ertussen, daarna komt na de % het controlegetal
+                        for (int start = open; start < percent; )
+                        {
+                            int end = RecordTokenizer.indexOf(record, '>', start, percent);
+                            int colon = RecordTokenizer.indexOf(record, ':', start, end);
+                            PlayerStats.Stat playerStat = getStat(record, start, colon);
+
+                            // Juiste waarde in de array zetten mits de huidige stat een bestaande is
+                            if (playerStat == null || colon == end)
+                            {
+                                throw new InvalidPlayerException(playerName);
+                            }
+
+                            playerStats[playerStat.getLocation()] = RecordTokenizer.parseDouble(record, colon + 1, end);
+                            start = end + 1;
+                        }
 
-                        // Double proberen maken uit string
+                        checkSum = RecordTokenizer.parseDouble(record, percent + 1, close);
+                        break;
+                    case "name":
+                        // _'s worden vervangen met een spatie en dan wordt de waarde opgeslagen in de variabele playerName
+                        playerName = tokenizer.getName();
+                        break;
+                    case "id":
+                        // Integer proberen maken uit string
                         try
                         {
-                            value = Double.parseDouble(stats.split(":")[1].split("%", 2)[0].replaceAll("}", ""));
+                            playerID = tokenizer.getInt();
                         } catch (NumberFormatException e)
                         {
-                            throw new InvalidPlayerException(playerName);
-                        }
-
-                        // Juiste waarde in de array zetten mits de huidige stat een bestaande is
-                        if (playerStat == null)
-                        {
-                            throw new InvalidPlayerException(playerName);
+                            break;
                         }
-
-                        playerStats[playerStat.getLocation()] = value;
-                    }
-
-                    // Proberen het controlegetal te parsen
-                    try
-                    {
-                        checkSum = Double.parseDouble(data.split("%")[1].replace("}", ""));
-                    } catch (NumberFormatException e)
-                    {
-                        throw new InvalidPlayerException(playerName);
-                    }
-                    break;
-                case "name":
-                    // _'s worden vervangen met een spatie en dan wordt de waarde opgeslagen in de variabele playerName
-                    playerName = data.replaceAll("_", " ");
-                    break;
-                case "id":
-                    int value = 0;
-
-                    // Integer proberen maken uit string
-                    try
-                    {
-                        value = Integer.parseInt(data);
-                    } catch (NumberFormatException e)
-                    {
                         break;
-                    }
-
-                    playerID = value;
-                    break;
-                case "position":
-                    for (Position positions : Position.values())
-                    {
-                        if (positions.name().equalsIgnoreCase(data))
+                    case "position":
+                        for (Position positions : Position.values())
                         {
-                            position = positions;
+                            if (positions.name().equalsIgnoreCase(tokenizer.getString()))
+                            {
+                                position = positions;
+                            }
                         }
-                    }
-                default:
-                    break;
+                        break;
+                    default:
+                        break;
+                }
             }
+        } catch (IllegalArgumentException e)
+        {
+            // Ook een NumberFormatException van de stats of het controlegetal
+            throw new InvalidPlayerException(playerName);
         }
 
         // Speler met de verkregen gegevens maken
@@ -126,6 +112,27 @@ public class Factory
         return player;
     }
 
+    /**
+     * Zoekt de stat met een naam die in een stuk van een string staat, hoofdletters maken niet uit
+     *
+     * @param string De string
+     * @param start  Index van het eerste teken van de naam
+     * @param end    Index na het laatste teken van de naam
+     * @return De stat, of null als er geen stat met die naam is
+     */
+    private static PlayerStats.Stat getStat(String string, int start, int end)
+    {
+        for (PlayerStats.Stat stat : PlayerStats.Stat.values())
+        {
+            if (stat.name().length() == end - start && string.regionMatches(true, start, stat.name(), 0, end - start))
+            {
+                return stat;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Deze methode maakt een coach-object uit een string met data
      *
@@ -138,39 +145,62 @@ public class Factory
         String coachName = null;
         int coachID = -1;
         double[] coachStats = null;
+        RecordTokenizer tokenizer;
 
-        coachString = coachString.trim().substring(6).replaceAll("}", "");
+        try
+        {
+            tokenizer = new RecordTokenizer(coachString, "Coach");
+        } catch (IllegalArgumentException e)
+        {
+            throw new FactoryException("coach", -1, e.getMessage());
+        }
 
-        for (String coachData : coachString.split(","))
+        while (tokenizer.next())
         {
-            switch (coachData.split("=")[0])
+            switch (tokenizer.getKey())
             {
                 case "name":
-                    coachName = coachData.split("=")[1].replaceAll("_", " ");
+                    coachName = tokenizer.getName();
                     break;
                 case "id":
                     try
                     {
-                        coachID = Integer.parseInt(coachData.split("=")[1]);
+                        coachID = tokenizer.getInt();
                     } catch (NumberFormatException e)
                     {
                         throw new FactoryException("coach", -1, "Kon ID niet laden");
                     }
                     break;
                 case "coachstats":
-                    List<Double> cStats = new ArrayList<>();
-                    String[] stats = coachData.split("=")[1].substring(11).replaceAll("}", "").split(">");
+                    String record = tokenizer.getRecord();
+                    int open = RecordTokenizer.indexOf(record, '{', tokenizer.getValueStart(), tokenizer.getValueEnd()) + 1;
+                    int close = tokenizer.getValueEnd() - 1;
+                    int count = 1;
 
-                    for (String stat : stats)
+                    for (int i = open; i < close; i++)
                     {
-                        cStats.add(Double.parseDouble(stat.split(":")[1]));
+                        if (record.charAt(i) == '>')
+                        {
+                            count++;
+                        }
                     }
 
-                    coachStats = new double[cStats.size()];
+                    // De stats staan in de volgorde van CStat, alleen de waardes na de : zijn nodig
+                    coachStats = new double[count];
 
-                    for (int i = 0; i < cStats.size(); i++)
+                    for (int start = open, i = 0; start < close; i++)
                     {
-                        coachStats[i] = cStats.get(i);
+                        int end = RecordTokenizer.indexOf(record, '>', start, close);
+
+                        try
+                        {
+                            coachStats[i] = RecordTokenizer.parseDouble(record, RecordTokenizer.indexOf(record, ':', start, end) + 1, end);
+                        } catch (NumberFormatException e)
+                        {
+                            throw new FactoryException("coach", coachID, "Kon niet alle stats laden");
+                        }
+
+                        start = end + 1;
                     }
                     break;
             }
@@ -200,56 +230,78 @@ public class Factory
         int teamID = -2, coachID = -1, currentGeld = -1, weeklyIncome = -1;
         int[] playerIDs = null;
         double teamTalent = -1;
+        RecordTokenizer tokenizer;
 
-        teamString = teamString.trim().substring(5).replaceAll("}", "");
-
-        for (String teamData : teamString.split(","))
+        try
+        {
+            tokenizer = new RecordTokenizer(teamString, "Team");
+        } catch (IllegalArgumentException e)
         {
-            String data = teamData.split("=")[1];
+            throw new FactoryException("team", -1, e.getMessage());
+        }
 
-            switch (teamData.split("=")[0])
+        while (tokenizer.next())
+        {
+            switch (tokenizer.getKey())
             {
                 case "name":
-                    teamName = data.replaceAll("_", " ");
+                    teamName = tokenizer.getName();
                     break;
                 case "id":
                     try
                     {
-                        teamID = Integer.parseInt(data);
+                        teamID = tokenizer.getInt();
                     } catch (NumberFormatException e)
                     {
                         throw new FactoryException("team", -1, "Kon ID niet laden");
                     }
                     break;
                 case "info":
-                    for (String infoString : data.split("<"))
+                    String record = tokenizer.getRecord();
+
+                    // De info bestaat uit stukken naam;data met een < ertussen
+                    for (int start = tokenizer.getValueStart(); start < tokenizer.getValueEnd(); )
                     {
-                        String infoData = infoString.split(";")[1];
+                        int end = RecordTokenizer.indexOf(record, '<', start, tokenizer.getValueEnd());
+                        int semicolon = RecordTokenizer.indexOf(record, ';', start, end);
+                        int dataStart = Math.min(semicolon + 1, end);
 
-                        switch (infoString.split(";")[0])
+                        switch (record.substring(start, semicolon))
                         {
                             case "teamtalent":
                                 try
                                 {
-                                    teamTalent = Double.parseDouble(infoData);
+                                    teamTalent = RecordTokenizer.parseDouble(record, dataStart, end);
                                 } catch (NumberFormatException e)
                                 {
                                     throw new FactoryException("team", teamID, "Kon talent niet laden");
                                 }
                                 break;
                             case "players":
-                                ArrayList<Integer> ids = new ArrayList<>();
+                                int count = (dataStart == end ? 0 : 1);
 
-                                for (String id : infoData.split(">"))
+                                for (int i = dataStart; i < end; i++)
                                 {
-                                    ids.add(Integer.parseInt(id));
+                                    if (record.charAt(i) == '>')
+                                    {
+                                        count++;
+                                    }
                                 }
 
-                                playerIDs = new int[ids.size()];
+                                playerIDs = new int[count];
+
+                                try
+                                {
+                                    for (int idStart = dataStart, i = 0; i < count; i++)
+                                    {
+                                        int idEnd = RecordTokenizer.indexOf(record, '>', idStart, end);
 
-                                for (int i = 0; i < ids.size(); i++)
+                                        playerIDs[i] = RecordTokenizer.parseInt(record, idStart, idEnd);
+                                        idStart = idEnd + 1;
+                                    }
+                                } catch (NumberFormatException e)
                                 {
-                                    playerIDs[i] = ids.get(i);
+                                    throw new FactoryException("team", teamID, "Kon spelers niet laden");
                                 }
 
                                 if (playerIDs.length == 0)
@@ -261,33 +313,39 @@ public class Factory
                             case "coach":
                                 try
                                 {
-                                    coachID = Integer.parseInt(infoData);
+                                    coachID = RecordTokenizer.parseInt(record, dataStart, end);
                                 } catch (NumberFormatException e)
                                 {
                                     throw new FactoryException("team", teamID, "Kon ID van coach niet laden");
                                 }
                                 break;
                             case "geld":
+                                // In de vorm geld!huidig!wekelijks
+                                int firstMark = RecordTokenizer.indexOf(record, '!', dataStart, end);
+                                int secondMark = RecordTokenizer.indexOf(record, '!', Math.min(firstMark + 1, end), end);
+
                                 try
                                 {
-                                    currentGeld = Integer.parseInt(infoData.split("!")[1]);
-                                    weeklyIncome = Integer.parseInt(infoData.split("!")[2]);
+                                    currentGeld = RecordTokenizer.parseInt(record, Math.min(firstMark + 1, end), secondMark);
+                                    weeklyIncome = RecordTokenizer.parseInt(record, Math.min(secondMark + 1, end), RecordTokenizer.indexOf(record, '!', Math.min(secondMark + 1, end), end));
                                 } catch (NumberFormatException e)
                                 {
                                     throw new FactoryException("team", teamID, "Kon geld niet laden");
                                 }
                                 break;
                             case "placement":
-                                placement = infoData;
+                                placement = record.substring(dataStart, end);
                                 break;
                             case "scores":
-                                scores = infoData;
+                                scores = record.substring(dataStart, end);
                                 break;
                         }
+
+                        start = end + 1;
                     }
                     break;
                 case "directorName":
-                    directorName = data.replaceAll("_", " ");
+                    directorName = tokenizer.getName();
             }
         }
 
@@ -316,18 +374,29 @@ public class Factory
         int matchID = -1, homeID = -1, visitorID = -1;
         int[] matchResult = new int[2];
         ArrayList<String> matchLog = new ArrayList<>();
-        matchString = matchString.trim().substring(6).replaceAll("}", "");
+        MatchEvents matchEvents = null;
+        MatchSummary matchSummary = null;
+        RecordTokenizer tokenizer;
 
-        for (String matchData : matchString.split(","))
+        try
+        {
+            tokenizer = new RecordTokenizer(matchString, "Match");
+        } catch (IllegalArgumentException e)
         {
-            String data = matchData.split("=")[1];
+            throw new FactoryException("match", -1, e.getMessage());
+        }
+
+        while (tokenizer.next())
+        {
+            String record = tokenizer.getRecord();
+            int colon = RecordTokenizer.indexOf(record, ':', tokenizer.getValueStart(), tokenizer.getValueEnd());
 
-            switch (matchData.split("=")[0])
+            switch (tokenizer.getKey())
             {
                 case "id":
                     try
                     {
-                        matchID = Integer.parseInt(data);
+                        matchID = tokenizer.getInt();
                     } catch (NumberFormatException e)
                     {
                         throw new FactoryException("match", -1, "Kon ID niet laden");
@@ -336,8 +405,8 @@ public class Factory
                 case "teams":
                     try
                     {
-                        homeID = Integer.parseInt(data.split(":")[0]);
-                        visitorID = Integer.parseInt(data.split(":")[1]);
+                        homeID = RecordTokenizer.parseInt(record, tokenizer.getValueStart(), colon);
+                        visitorID = RecordTokenizer.parseInt(record, Math.min(colon + 1, tokenizer.getValueEnd()), tokenizer.getValueEnd());
                     } catch (NumberFormatException e)
                     {
                         throw new FactoryException("match", matchID, "Kon teams niet laden");
@@ -346,27 +415,80 @@ public class Factory
                 case "score":
                     try
                     {
-                        matchResult[0] = Integer.parseInt(data.split(":")[0]);
-                        matchResult[1] = Integer.parseInt(data.split(":")[1]);
+                        matchResult[0] = RecordTokenizer.parseInt(record, tokenizer.getValueStart(), colon);
+                        matchResult[1] = RecordTokenizer.parseInt(record, Math.min(colon + 1, tokenizer.getValueEnd()), tokenizer.getValueEnd());
                     } catch (NumberFormatException e)
                     {
                         throw new FactoryException("match", matchID, "Kon score niet laden");
                     }
                     break;
                 case "logs":
-                    for (String logMessage : data.split("@"))
+                    matchLog = parseLogs(record, tokenizer.getValueStart(), tokenizer.getValueEnd());
+                    break;
+                case "events":
+                    try
+                    {
+                        matchEvents = MatchEvents.parse(record, tokenizer.getValueStart(), tokenizer.getValueEnd());
+                    } catch (NumberFormatException e)
+                    {
+                        throw new FactoryException("match", matchID, "Kon de events niet laden");
+                    }
+                    break;
+                case "summary":
+                    try
+                    {
+                        matchSummary = MatchSummary.parse(record, tokenizer.getValueStart(), tokenizer.getValueEnd());
+                    } catch (NumberFormatException e)
                     {
-                        matchLog.add(logMessage.replaceAll("_", " ").replaceAll("%", ",").replaceAll("~", "="));
+                        throw new FactoryException("match", matchID, "Kon de samenvatting niet laden");
                     }
                     break;
             }
         }
 
+        // Dezelfde naam als bij het registreren van de match, alleen de namen van de teams
+        String matchName = BAVM.getTeamManager().getTeam(homeID).getTeamName() + " - " + BAVM.getTeamManager().getTeam(visitorID).getTeamName();
+
+        if (matchEvents != null || matchSummary != null)
+        {
+            return new Match(matchName, matchID, homeID, visitorID, matchResult, matchEvents, matchSummary);
+        }
+
         if (matchLog.isEmpty())
         {
             throw new FactoryException("match", matchID, "Kon de logs niet laden");
         }
 
-        return new Match(BAVM.getTeamManager().getTeam(homeID) + " - " + BAVM.getTeamManager().getTeam(visitorID), matchID, homeID, visitorID, matchResult, matchLog);
+        return new Match(matchName, matchID, homeID, visitorID, matchResult, matchLog);
+    }
+
+    /**
+     * Maakt de tekst van een oude match uit de logs in een record
+     * De berichten staan met een @ ertussen, met _ voor een spatie, % voor een komma en ~ voor een =
+     *
+     * @param record Het record
+     * @param start  Index van het eerste teken van de logs
+     * @param end    Index na het laatste teken van de logs
+     * @return De berichten
+     */
+    public static ArrayList<String> parseLogs(String record, int start, int end)
+    {
+        ArrayList<String> matchLog = new ArrayList<>();
+
+        for (int messageStart = start; messageStart <= end; )
+        {
+            int messageEnd = RecordTokenizer.indexOf(record, '@', messageStart, end);
+
+            matchLog.add(record.substring(messageStart, messageEnd).replace('_', ' ').replace('%', ',').replace('~', '='));
+            messageStart = messageEnd + 1;
+        }
+
+        // Net als bij split vallen lege berichten aan het eind weg
+        while (matchLog.size() > 1 && matchLog.get(matchLog.size() - 1).isEmpty())
+        {
+            matchLog.remove(matchLog.size() - 1);
+        }
+
+        return matchLog;
     }
 }
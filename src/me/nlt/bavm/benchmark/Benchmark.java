@@ -0,0 +1,59 @@
+package me.nlt.bavm.benchmark;
+
+import java.util.function.IntSupplier;
+
+public class Benchmark
+{
+    private static long sink;
+
+    /*
+     * Benchmark is een kleine meetopstelling zonder externe libraries,
+     * eerst wordt er opgewarmd zodat de JIT klaar is en daarna wordt er een paar keer gemeten
+     */
+
+    /**
+     * Meet hoe lang een operatie gemiddeld duurt en print het resultaat
+     *
+     * @param name       Naam van de meting
+     * @param operations Hoeveel keer de operatie per ronde uitgevoerd wordt
+     * @param rounds     Hoeveel rondes er gemeten worden, er wordt net zo vaak opgewarmd
+     * @param operation  De operatie, het resultaat wordt bewaard zodat de JIT de operatie niet kan weghalen
+     * @return De snelste gemeten tijd per operatie in nanoseconden
+     */
+    public static double measure(String name, int operations, int rounds, IntSupplier operation)
+    {
+        double best = Double.MAX_VALUE;
+
+        for (int round = 0; round < rounds * 2; round++)
+        {
+            long start = System.nanoTime();
+
+            for (int i = 0; i < operations; i++)
+            {
+                sink += operation.getAsInt();
+            }
+
+            double nanosPerOperation = (double) (System.nanoTime() - start) / operations;
+
+            // De eerste helft is opwarmen
+            if (round >= rounds)
+            {
+                best = Math.min(best, nanosPerOperation);
+            }
+        }
+
+        System.out.println(String.format("%-40s %12.1f ns/op", name, best));
+
+        return best;
+    }
+
+    /**
+     * Returnt de som van alle resultaten, alleen zodat de resultaten ergens gebruikt worden
+     *
+     * @return De som
+     */
+    public static long getSink()
+    {
+        return sink;
+    }
+}
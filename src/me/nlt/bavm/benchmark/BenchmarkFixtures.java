@@ -0,0 +1,84 @@
+package me.nlt.bavm.benchmark;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.game.MatchManager;
+import me.nlt.bavm.season.MatchWeek;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class BenchmarkFixtures
+{
+    private static File storageFile;
+
+    /*
+     * BenchmarkFixtures maakt 1 keer een complete competitie zonder venster: 750 spelers, 20 teams
+     * en een heel gespeeld seizoen van 380 wedstrijden, in een tijdelijk databestand
+     */
+
+    /**
+     * Laadt de competitie als dat nog niet gebeurd is
+     *
+     * @param seed De seed van de competitie, met dezelfde seed komt dezelfde competitie eruit
+     */
+    public static synchronized void load(long seed)
+    {
+        if (storageFile != null)
+        {
+            return;
+        }
+
+        try
+        {
+            File directory = Files.createTempDirectory("bavm-benchmark").toFile();
+
+            storageFile = new File(directory, "data.db");
+
+            // Naast data.db komen ook archieven, seizoenen en tijdelijke bestanden, de map wordt dus helemaal leeggemaakt
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                File[] files = directory.listFiles();
+
+                if (files != null)
+                {
+                    for (File file : files)
+                    {
+                        file.delete();
+                    }
+                }
+
+                directory.delete();
+            }));
+        } catch (IOException e)
+        {
+            throw new IllegalStateException("Kon geen tijdelijk databestand maken", e);
+        }
+
+        System.setProperty("bavm.seed", seed + "");
+        BAVM.loadHeadless(storageFile);
+
+        MatchManager<?> matchManager = BAVM.getMatchManager();
+
+        // Een heel seizoen spelen zodat er 380 wedstrijden zijn
+        for (MatchWeek matchWeek : BAVM.getSeason().getSeasonWeeks())
+        {
+            matchManager.simulateMatches(matchWeek.getMatchesInWeek());
+        }
+
+        BAVM.getFileManager().saveAll();
+
+        System.out.println("Competitie geladen: " + BAVM.getPlayerManager().getLoadedPlayers().size() + " spelers, "
+                + BAVM.getTeamManager().getLoadedTeams().size() + " teams, "
+                + BAVM.getMatchManager().manageables.size() + " wedstrijden");
+    }
+
+    /**
+     * Returnt het tijdelijke databestand
+     *
+     * @return Het databestand
+     */
+    public static File getStorageFile()
+    {
+        return storageFile;
+    }
+}
@@ -0,0 +1,18 @@
+package me.nlt.bavm.benchmark;
+
+public class BenchmarkSuite
+{
+    /*
+     * Voert alle benchmarks uit op dezelfde competitie, zodat de getallen tussen versies te vergelijken zijn
+     * Starten met: java -cp <classes> me.nlt.bavm.benchmark.BenchmarkSuite [seed]
+     */
+
+    public static void main(String[] args)
+    {
+        BenchmarkFixtures.load(args.length > 0 ? Long.parseLong(args[0]) : 20);
+
+        GameBenchmark.run();
+        PersistenceBenchmark.run();
+        MarketBenchmark.run();
+    }
+}
@@ -0,0 +1,88 @@
+package me.nlt.bavm.benchmark;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.game.Game;
+import me.nlt.bavm.game.TeamSnapshot;
+import me.nlt.bavm.teams.team.Team;
+
+import java.util.SplittableRandom;
+
+public class GameBenchmark
+{
+    /*
+     * Meet het simuleren van wedstrijden, in beide modussen en de losse formules,
+     * en het berekenen van de statcoefficienten van een team en het lezen van stats
+     * Starten met: java -cp <classes> me.nlt.bavm.benchmark.GameBenchmark
+     */
+
+    public static void main(String[] args)
+    {
+        BenchmarkFixtures.load(20);
+        run();
+    }
+
+    /**
+     * Voert alle metingen uit, de competitie moet al geladen zijn
+     */
+    public static void run()
+    {
+        TeamSnapshot[] snapshots = new TeamSnapshot[20];
+
+        for (int i = 0; i < snapshots.length; i++)
+        {
+            snapshots[i] = TeamSnapshot.of(BAVM.getTeamManager().getTeam(i));
+        }
+
+        int[] counter = new int[1];
+
+        double full = Benchmark.measure("Game (FULL)", 20000, 5, () -> {
+            int match = counter[0]++;
+            return new Game(snapshots[match % 20], snapshots[(match + 1 + (match / 20) % 19) % 20], match, Game.SimulationMode.FULL).getGameResult()[0];
+        });
+
+        counter[0] = 0;
+
+        double results = Benchmark.measure("Game (RESULTS)", 20000, 5, () -> {
+            int match = counter[0]++;
+            return new Game(snapshots[match % 20], snapshots[(match + 1 + (match / 20) % 19) % 20], match, Game.SimulationMode.RESULTS).getGameResult()[0];
+        });
+
+        System.out.println(String.format("RESULTS is %.2fx zo snel als FULL", full / results));
+
+        // De formules krijgen waardes zoals die in een wedstrijd ook voorkomen
+        SplittableRandom random = new SplittableRandom(20);
+        double[][] values = new double[64][6];
+
+        for (double[] teamValues : values)
+        {
+            for (int i = 0; i < teamValues.length; i++)
+            {
+                teamValues[i] = 10 * ((1.2 * (30 + random.nextDouble() * 40) / 100) + (0.8 * (0.35 + random.nextDouble() * 0.5) + 0.5));
+            }
+        }
+
+        Benchmark.measure("Game.getConflictResult", 1000000, 5, () -> {
+            int index = counter[0]++ & 63;
+            return Game.getConflictResult(values[index], values[(index + 1) & 63], index & 1, random);
+        });
+
+        Benchmark.measure("Game.getAttemptResult", 1000000, 5, () -> {
+            int index = counter[0]++ & 63;
+            return Game.getAttemptResult(values[index], values[(index + 1) & 63], index & 1, random);
+        });
+
+        Benchmark.measure("TeamInfo.getStatCoefficients", 20000, 5, () -> {
+            Team team = BAVM.getTeamManager().getTeam(counter[0]++ % 20);
+            return team.getTeamInfo().getStatCoefficients().size();
+        });
+
+        int players = BAVM.getPlayerManager().getLoadedPlayers().size();
+
+        Benchmark.measure("PlayerManager.getPlayer", 1000000, 5, () -> BAVM.getPlayerManager().getPlayer(counter[0]++ % players).getID());
+
+        Benchmark.measure("PlayerStats.getValue", 1000000, 5, () -> {
+            int index = counter[0]++;
+            return (int) BAVM.getPlayerManager().getPlayer(index % players).getPlayerStats().getValue(index % 6);
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package me.nlt.bavm.benchmark;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.season.AllScores;
+import me.nlt.bavm.teams.Market;
+import me.nlt.bavm.teams.Market.MarketFilter;
+import me.nlt.bavm.teams.MarketQuery;
+import me.nlt.bavm.teams.player.PlayerStats;
+
+import java.util.ArrayList;
+
+public class MarketBenchmark
+{
+    /*
+     * Meet het tonen van de markt met ieder filter, zoekopdrachten, het opnieuw maken van de marktindex, vrije spelers zoeken, trainen en het tonen van de competitiestand
+     * Starten met: java -cp <classes> me.nlt.bavm.benchmark.MarketBenchmark
+     */
+
+    public static void main(String[] args)
+    {
+        BenchmarkFixtures.load(20);
+        run();
+    }
+
+    /**
+     * Voert alle metingen uit, de competitie moet al geladen zijn
+     */
+    public static void run()
+    {
+        for (MarketFilter marketFilter : MarketFilter.values())
+        {
+            ArrayList<MarketFilter> marketFilters = new ArrayList<>();
+
+            // Een sorteerfilter doet alleen iets samen met een positiefilter
+            if (marketFilter.getFilterType() == 1)
+            {
+                marketFilters.add(MarketFilter.ALL);
+            }
+
+            marketFilters.add(marketFilter);
+
+            Benchmark.measure("Market.listPlayers (" + marketFilter.name() + ")", 50, 5, () -> Market.listPlayers(marketFilters).length);
+        }
+
+        // Scouten: een grens op 1 stat, gesorteerd op een andere stat, en een grens op de prijs gesorteerd op skill
+        MarketQuery statQuery = new MarketQuery().setStatRange(PlayerStats.Stat.AFMAKEN, 60, 100).setSorting(PlayerStats.Stat.CONDITIE, true);
+        MarketQuery priceQuery = new MarketQuery().setPriceRange(100000, 150000).setSorting(null, false);
+
+        Benchmark.measure("MarketQuery.getPage (stat)", 20000, 5, () -> statQuery.getPage(0, 20).getMatchCount());
+        Benchmark.measure("MarketQuery.getTop (prijs)", 20000, 5, () -> priceQuery.getTop(10).size());
+
+        // Na een transfer wordt de index opnieuw gemaakt
+        Benchmark.measure("new MarketIndex (transfer)", 200, 5, () -> {
+            Market.marketChanged = true;
+            return Market.getMarketIndex().isIndexOf(BAVM.getTeamManager().marketTeam) ? 1 : 0;
+        });
+
+        // Vrije spelers komen uit de index met het team van iedere speler
+        Benchmark.measure("PlayerManager.getFreePlayers", 2000, 5, () -> BAVM.getPlayerManager().getFreePlayers(BAVM.getTeamManager()).length);
+
+        // Als een speler van een team traint verandert de totale skill, dan moeten de prijzen in de lijst opnieuw gemaakt worden
+        PlayerStats trainingStats = BAVM.getTeamManager().getTeam(0).getTeamInfo().getPlayers().get(0).getPlayerStats();
+        ArrayList<MarketFilter> priceFilters = new ArrayList<>();
+        int[] counter = new int[1];
+
+        priceFilters.add(MarketFilter.ALL);
+        priceFilters.add(MarketFilter.PRICE_HIGH_LOW);
+
+        Benchmark.measure("PlayerStats.increaseSkill", 100000, 5, () -> {
+            trainingStats.increaseSkill(PlayerStats.Stat.CONDITIE, (counter[0]++ & 1) == 0 ? 0.01 : -0.01);
+            return counter[0];
+        });
+
+        Benchmark.measure("Market.listPlayers (na training)", 50, 5, () -> {
+            trainingStats.increaseSkill(PlayerStats.Stat.CONDITIE, (counter[0]++ & 1) == 0 ? 0.01 : -0.01);
+            return Market.listPlayers(priceFilters).length;
+        });
+
+        Benchmark.measure("AllScores.displayScores", 2000, 5, AllScores::displayScores);
+    }
+}
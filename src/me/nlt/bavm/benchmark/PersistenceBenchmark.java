@@ -0,0 +1,183 @@
+package me.nlt.bavm.benchmark;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.Factory;
+import me.nlt.bavm.files.FileManager;
+import me.nlt.bavm.files.RecordCodec;
+import me.nlt.bavm.game.Match;
+import me.nlt.bavm.teams.exceptions.FactoryException;
+import me.nlt.bavm.teams.exceptions.InvalidPlayerException;
+
+import java.nio.charset.StandardCharsets;
+
+public class PersistenceBenchmark
+{
+    /*
+     * Meet het lezen en schrijven van records in het databestand en het maken van objecten uit die records
+     * Starten met: java -cp <classes> me.nlt.bavm.benchmark.PersistenceBenchmark
+     */
+
+    public static void main(String[] args)
+    {
+        BenchmarkFixtures.load(20);
+        run();
+    }
+
+    /**
+     * Voert alle metingen uit, de competitie moet al geladen zijn
+     */
+    public static void run()
+    {
+        FileManager fileManager = BAVM.getFileManager();
+        int players = BAVM.getPlayerManager().getLoadedPlayers().size();
+        int matches = BAVM.getMatchManager().manageables.size();
+        int[] counter = new int[1];
+
+        String[] playerStrings = new String[players];
+        String[] teamStrings = new String[20];
+        String[] matchStrings = new String[matches];
+        byte[][] playerRecords = new byte[players][];
+        byte[][] teamRecords = new byte[20][];
+        byte[][] matchRecords = new byte[matches][];
+
+        // De tekst wordt gemaakt met toString, zoals die vroeger in het databestand stond
+        for (int i = 0; i < players; i++)
+        {
+            playerRecords[i] = fileManager.readRecord("player", i);
+            playerStrings[i] = BAVM.getPlayerManager().getPlayer(i).toString();
+        }
+
+        for (int i = 0; i < teamStrings.length; i++)
+        {
+            teamRecords[i] = fileManager.readRecord("team", i);
+            teamStrings[i] = BAVM.getTeamManager().getTeam(i).toString();
+        }
+
+        // In het databestand staat alleen de uitslag, de volledige matches komen uit het archief
+        for (int i = 0; i < matches; i++)
+        {
+            Match match = fileManager.readMatch(((Match) BAVM.getMatchManager().manageables.get(i)).getID());
+
+            matchRecords[i] = RecordCodec.encodeMatch(match);
+            matchStrings[i] = match.toString();
+        }
+
+        printSizes("player", playerStrings, playerRecords);
+        printSizes("team", teamStrings, teamRecords);
+        printSizes("match", matchStrings, matchRecords);
+
+        Benchmark.measure("Factory.createPlayer", 20000, 5, () -> {
+            try
+            {
+                return Factory.createPlayer(playerStrings[counter[0]++ % players]).getID();
+            } catch (InvalidPlayerException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("RecordCodec.decodePlayer", 20000, 5, () -> {
+            try
+            {
+                return RecordCodec.decodePlayer(playerRecords[counter[0]++ % players]).getID();
+            } catch (InvalidPlayerException | FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("Factory.createTeam", 2000, 5, () -> {
+            try
+            {
+                return Factory.createTeam(teamStrings[counter[0]++ % 20]).getID();
+            } catch (FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("RecordCodec.decodeTeam", 2000, 5, () -> {
+            try
+            {
+                return RecordCodec.decodeTeam(teamRecords[counter[0]++ % 20]).getID();
+            } catch (FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("Factory.createMatch", 2000, 5, () -> {
+            try
+            {
+                return Factory.createMatch(matchStrings[counter[0]++ % matches]).getID();
+            } catch (FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("RecordCodec.decodeMatch", 2000, 5, () -> {
+            try
+            {
+                return RecordCodec.decodeMatch(matchRecords[counter[0]++ % matches]).getID();
+            } catch (FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("RecordCodec.encodeMatch", 2000, 5, () -> {
+            try
+            {
+                return RecordCodec.encodeMatch(RecordCodec.decodeMatch(matchRecords[counter[0]++ % matches])).length;
+            } catch (FactoryException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Benchmark.measure("FileManager.readRecord (player)", 20000, 5, () -> fileManager.readRecord("player", counter[0]++ % players).length);
+
+        Benchmark.measure("FileManager.readRecord (match)", 20000, 5, () -> fileManager.readRecord("match", counter[0]++ % matches).length);
+
+        Benchmark.measure("FileManager.readMatch", 2000, 5, () -> fileManager.readMatch(((Match) BAVM.getMatchManager().manageables.get(counter[0]++ % matches)).getID()).getID());
+
+        Benchmark.measure("FileManager.getMatchLog", 2000, 5, () -> fileManager.getMatchLog(((Match) BAVM.getMatchManager().manageables.get(counter[0]++ % matches)).getID()).size());
+
+        // Steeds dezelfde 10 recente wedstrijden bekijken, zoals in het wedstrijdcentrum
+        Benchmark.measure("MatchManager.getMatchLog (10 recent)", 2000, 5, () -> BAVM.getMatchManager().getMatchLog(matches - 1 - counter[0]++ % 10).size());
+
+        System.out.println("Matchlog cache: " + BAVM.getMatchManager().getMatchLogCache().getSize() + " logs, " + BAVM.getMatchManager().getMatchLogCache().getUsedBytes() + " van " + BAVM.getMatchManager().getMatchLogCache().getBudget() + " bytes");
+
+        Benchmark.measure("FileManager.readAllRecords (players)", 50, 5, () -> fileManager.readAllRecords("players").length);
+
+        Benchmark.measure("FileManager.readAllRecords (matches)", 50, 5, () -> fileManager.readAllRecords("matches").length);
+
+        Benchmark.measure("FileManager.writeRecord (player)", 20000, 5, () -> {
+            int playerID = counter[0]++ % players;
+            fileManager.writeRecord("player", playerRecords[playerID], playerID);
+            return playerID;
+        });
+    }
+
+    /**
+     * Print hoeveel bytes alle records samen als tekst en binair zijn
+     *
+     * @param tag     De tag van de records
+     * @param strings De records als tekst
+     * @param records De binaire records
+     */
+    private static void printSizes(String tag, String[] strings, byte[][] records)
+    {
+        long textBytes = 0;
+        long binaryBytes = 0;
+
+        for (int i = 0; i < records.length; i++)
+        {
+            textBytes += strings[i].getBytes(StandardCharsets.UTF_8).length;
+            binaryBytes += records[i].length;
+        }
+
+        System.out.println(String.format("%-40s %12d bytes tekst, %d bytes binair (%.1fx kleiner)", tag + " records", textBytes, binaryBytes, (double) textBytes / binaryBytes));
+    }
+}
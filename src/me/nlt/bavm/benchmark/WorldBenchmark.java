@@ -0,0 +1,45 @@
+package me.nlt.bavm.benchmark;
+
+import me.nlt.bavm.files.RecordCodec;
+import me.nlt.bavm.generator.LeagueRandom;
+import me.nlt.bavm.generator.WorldGenerator;
+
+public class WorldBenchmark
+{
+    /*
+     * Meet het genereren van een nieuwe wereld, de standaard wereld en grotere werelden, zonder databestand
+     * Starten met: java -cp <classes> me.nlt.bavm.benchmark.WorldBenchmark
+     */
+
+    public static void main(String[] args)
+    {
+        LeagueRandom.setSeed(20);
+        run();
+    }
+
+    /**
+     * Voert alle metingen uit
+     */
+    public static void run()
+    {
+        Benchmark.measure("WorldGenerator (standaard)", 20, 5, () -> new WorldGenerator(WorldGenerator.STANDARD_PLAYERS, WorldGenerator.STANDARD_COACHES, WorldGenerator.STANDARD_TEAMS).generate().getTeamPlayers(0).length);
+
+        Benchmark.measure("WorldGenerator (10000 spelers)", 2, 3, () -> new WorldGenerator(10000, 1000, 400).generate().getTeamPlayers(0).length);
+
+        Benchmark.measure("WorldGenerator (50000 spelers)", 1, 3, () -> new WorldGenerator(50000, 5000, 2000).generate().getTeamPlayers(0).length);
+
+        // Spelers maken en coderen zoals bij het opslaan van een nieuwe wereld
+        WorldGenerator worldGenerator = new WorldGenerator(50000, 5000, 2000).generate();
+
+        Benchmark.measure("Spelers maken en coderen (50000)", 1, 3, () -> {
+            int bytes = 0;
+
+            for (int i = 0; i < worldGenerator.getPlayerAmount(); i++)
+            {
+                bytes += RecordCodec.encodePlayer(worldGenerator.createPlayer(i)).length;
+            }
+
+            return bytes;
+        });
+    }
+}
@@ -142,6 +142,7 @@ public class ManagementConversation implements Conversation
                                             // Opstelling veranderen en een leuk berichtje sturen
                                             display.clearText();
                                             team.getTeamInfo().getPlayerPlacement().exchangePlayers(playerInPlacement, transferPlayer, position);
+                                            team.unsavedChanges = true;
                                             display.appendText("Je hebt de speler " + transferPlayer.getPlayerName() + " op het veld gezet als een " + position.getDutchAlias().toLowerCase());
 
                                             break backMenu;
@@ -3,16 +3,22 @@ package me.nlt.bavm.conversation;
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.Display;
 import me.nlt.bavm.teams.Market;
+import me.nlt.bavm.teams.MarketQuery;
 import me.nlt.bavm.teams.coach.Coach;
 import me.nlt.bavm.teams.player.Player;
+import me.nlt.bavm.teams.player.PlayerStats;
+import me.nlt.bavm.teams.player.Position;
 import me.nlt.bavm.teams.team.TransferResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
 public class MarketConversation implements Conversation
 {
+    private static final int PAGE_SIZE = 20;
+
     @Override
     /**
      * Starten van conversatie voor de markt
@@ -43,7 +49,8 @@ public class MarketConversation implements Conversation
                     "Typ '-3' om je filters aan te passen",
                     "Typ '-4' om te zoeken met de actieve filters",
                     "Typ '-5' om spelers te verkopen",
-                    "Typ '-6' om een coach aan te nemen"
+                    "Typ '-6' om een coach aan te nemen",
+                    "Typ '-7' om te scouten met grenzen per stat"
             );
 
             int mainNumber = (int) display.readDouble(false);
@@ -295,6 +302,92 @@ public class MarketConversation implements Conversation
                 }
             }
 
+            // Checken of de gebruiker wilt scouten
+            if (mainNumber == -7)
+            {
+                display.clearText();
+                display.appendText("\t\t- - - - - - - - - - - - - - [ Scouten ] - - - - - - - - - - - - - - ",
+                        "Typ grenzen met een spatie ertussen, bijvoorbeeld 'aanvaller afmaken>60 conditie>50 prijs<150000'",
+                        "Een grens is een stat of 'prijs' met > of < en een waarde, de waarde zelf hoort erbij",
+                        "Typ een positie (keeper, verdediger, middenvelder, aanvaller) om alleen die positie te zoeken, of typ 'alles' om geen grenzen te gebruiken");
+
+                MarketQuery marketQuery = null;
+
+                while (marketQuery == null)
+                {
+                    String line = display.readLine(true, "");
+
+                    if (line.equals("-1"))
+                    {
+                        break;
+                    }
+
+                    if (line.equals("-2"))
+                    {
+                        break backToMain;
+                    }
+
+                    marketQuery = this.parseQuery(display, line);
+                }
+
+                if (marketQuery == null)
+                {
+                    continue;
+                }
+
+                // Een onbekende stat sorteert op totale skill
+                PlayerStats.Stat sortingStat = PlayerStats.getSkill(display.readLine(true, "Typ de stat waarop gesorteerd moet worden, of 'skill' om op totale skill en prijs te sorteren").trim().toUpperCase());
+                marketQuery.setSorting(sortingStat, true);
+
+                int pageNumber = 0;
+
+                // Page loop
+                while (true)
+                {
+                    MarketQuery.Page page = marketQuery.getPage(pageNumber, PAGE_SIZE);
+
+                    display.clearText();
+                    display.appendText("\t\t- - - - - - - - - - - - - - [ Scouten ] - - - - - - - - - - - - - - ",
+                            "Pagina " + (page.getPageNumber() + 1) + " van " + page.getPageCount() + " (" + page.getMatchCount() + " spelers)");
+
+                    int counter = pageNumber * PAGE_SIZE + 1;
+
+                    for (Player player : page.getPlayers())
+                    {
+                        display.appendText(counter + ": " + player.getPlayerName()
+                                + " - Positie: " + player.getPosition().getDutchAlias().toLowerCase()
+                                + " - Skill: " + decimalFormat.format(player.getPlayerStats().getTotalSkill())
+                                + (sortingStat != null ? " - " + sortingStat.name().toLowerCase() + ": " + decimalFormat.format(player.getPlayerStats().getValue(sortingStat)) : "")
+                                + " - Prijs: $" + decimalFormat.format(player.getMarketValue())
+                                + " - ID: " + player.getPlayerID());
+                        counter++;
+                    }
+
+                    display.appendText("\nTyp '1' voor de volgende pagina, '2' voor de vorige pagina of '-1' om terug te gaan naar de markt.",
+                            "Spelers kopen kan met '-4' in de markt.");
+
+                    int number = (int) display.readDouble(false);
+
+                    if (number == -1)
+                    {
+                        break;
+                    }
+
+                    if (number == -2)
+                    {
+                        break backToMain;
+                    }
+
+                    if (number == 1 && pageNumber + 1 < page.getPageCount())
+                    {
+                        pageNumber++;
+                    } else if (number == 2 && pageNumber > 0)
+                    {
+                        pageNumber--;
+                    }
+                }
+            }
+
             // Checken of de gebruiker een coach wilt aannemen
             if (mainNumber == -6)
             {
@@ -350,4 +443,98 @@ public class MarketConversation implements Conversation
             }
         }
     }
+
+    /**
+     * Maakt een zoekopdracht van de grenzen die de gebruiker getypt heeft
+     *
+     * @param display De display om fouten op te laten zien
+     * @param line    De grenzen met een spatie ertussen, zoals 'aanvaller afmaken>60 prijs<150000'
+     * @return De zoekopdracht, of null als er iets niet klopt
+     */
+    private MarketQuery parseQuery(Display display, String line)
+    {
+        MarketQuery marketQuery = new MarketQuery();
+        double[] minStats = new double[PlayerStats.Stat.values().length];
+        double[] maxStats = new double[PlayerStats.Stat.values().length];
+        double minPrice = Double.NEGATIVE_INFINITY;
+        double maxPrice = Double.POSITIVE_INFINITY;
+
+        Arrays.fill(minStats, Double.NEGATIVE_INFINITY);
+        Arrays.fill(maxStats, Double.POSITIVE_INFINITY);
+
+        for (String part : line.trim().toLowerCase().split("\\s+"))
+        {
+            if (part.equals("alles"))
+            {
+                continue;
+            }
+
+            Position position = null;
+
+            for (Position value : Position.values())
+            {
+                if (value.getDutchAlias().toLowerCase().equals(part))
+                {
+                    position = value;
+                }
+            }
+
+            if (position != null)
+            {
+                marketQuery.setPosition(position);
+                continue;
+            }
+
+            int split = Math.max(part.indexOf('>'), part.indexOf('<'));
+            double value;
+
+            try
+            {
+                value = Double.parseDouble(part.substring(split + 1).replace("=", ""));
+            } catch (NumberFormatException e)
+            {
+                display.appendText("'" + part + "' is geen grens!");
+                return null;
+            }
+
+            boolean minimum = (split > 0 && part.charAt(split) == '>');
+            String name = (split > 0 ? part.substring(0, split) : "");
+
+            if (name.equals("prijs"))
+            {
+                if (minimum)
+                {
+                    minPrice = value;
+                } else
+                {
+                    maxPrice = value;
+                }
+
+                continue;
+            }
+
+            PlayerStats.Stat stat = PlayerStats.getSkill(name.toUpperCase());
+
+            if (stat == null)
+            {
+                display.appendText("'" + part + "' is geen grens!");
+                return null;
+            }
+
+            if (minimum)
+            {
+                minStats[stat.getLocation()] = value;
+            } else
+            {
+                maxStats[stat.getLocation()] = value;
+            }
+        }
+
+        for (PlayerStats.Stat stat : PlayerStats.Stat.values())
+        {
+            marketQuery.setStatRange(stat, minStats[stat.getLocation()], maxStats[stat.getLocation()]);
+        }
+
+        return marketQuery.setPriceRange(minPrice, maxPrice);
+    }
 }
@@ -3,9 +3,12 @@ package me.nlt.bavm.conversation;
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.Display;
 import me.nlt.bavm.game.Match;
+import me.nlt.bavm.game.MatchManager;
 import me.nlt.bavm.season.MatchWeek;
 import me.nlt.bavm.season.PlannedMatch;
 
+import java.util.List;
+
 public class MatchConversation implements Conversation
 {
     /**
@@ -125,8 +128,11 @@ public class MatchConversation implements Conversation
                         display.appendText("Die wedstrijd bestaat niet!");
                     } else
                     {
-                        match.loadLogs();
-                        match.getMatchLog().forEach(display::appendText);
+                        // De log komt uit de cache als de wedstrijd net al bekeken is
+                        MatchManager<?> matchManager = BAVM.getMatchManager();
+                        List<String> matchLog = matchManager.getMatchLog(matchID);
+
+                        matchLog.forEach(display::appendText);
                         display.readLine(false, "Typ iets om terug te keren naar het wedstrijdcentrum.");
                     }
                 }
@@ -3,9 +3,13 @@ package me.nlt.bavm.conversation;
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.Display;
 import me.nlt.bavm.season.AllScores;
+import me.nlt.bavm.season.SeasonForecast;
+import me.nlt.bavm.season.SeasonRecord;
 import me.nlt.bavm.teams.team.Team;
 import me.nlt.bavm.teams.team.TeamInfo;
 
+import java.util.ArrayList;
+
 public class SeasonConversation implements Conversation
 {
     /**
@@ -22,7 +26,9 @@ public class SeasonConversation implements Conversation
             display.appendText("\t\t- - - - - - - - - [ Het seizoenscentrum ] - - - - - - - - -",
                     "Typ altijd '-1' om terug te keren naar de vorige setting en typ altijd '-2' om terug te keren naar het hoofdmenu",
                     "Typ -3 om de competitiestand te bekijken",
-                    "Typ -4 om de stand van een team te bekijken"
+                    "Typ -4 om de stand van een team te bekijken",
+                    "Typ -5 om een voorspelling van de eindstand te bekijken",
+                    "Typ -6 om een vorig seizoen te bekijken"
             );
 
             int mainNumber = (int) display.readDouble(false);
@@ -73,6 +79,153 @@ public class SeasonConversation implements Conversation
 
                 BAVM.getDisplay().appendText(toDisplay + "\n");
             }
+
+            if (mainNumber == -5)
+            {
+                int simulations = 10000;
+
+                display.clearText();
+                display.appendText("\t\t- - - - - - - - - - [ Voorspelling eindstand ] - - - - - - - - - - ",
+                        "Het seizoen wordt " + simulations + " keer nagespeeld, dit kan even duren ...");
+
+                SeasonForecast seasonForecast = SeasonForecast.fromCurrentSeason();
+                long startTime = System.currentTimeMillis();
+
+                seasonForecast.simulate(simulations, System.nanoTime());
+
+                display.appendText(seasonForecast.getRemainingMatches() + " wedstrijden per seizoen nagespeeld in " + (System.currentTimeMillis() - startTime) + "ms\n");
+
+                for (int i = 0; i < seasonForecast.getTeamCount(); i++)
+                {
+                    StringBuilder stringBuilder = new StringBuilder();
+
+                    // Alleen de plekken laten zien waar het team ook echt kan eindigen
+                    for (int position = 0; position < seasonForecast.getTeamCount(); position++)
+                    {
+                        double chance = seasonForecast.getPositionChance(i, position);
+
+                        if (chance > 0)
+                        {
+                            stringBuilder.append((position + 1) + ": " + decimalFormat.format(chance * 100) + "%  ");
+                        }
+                    }
+
+                    display.appendText(seasonForecast.getSnapshot(i).getTeamName() + " (ID: " + seasonForecast.getSnapshot(i).getTeamID() + ")" + (seasonForecast.getSnapshot(i).getTeamID() == BAVM.getTeamManager().playerTeam.getID() ? " (Dit ben jij)" : "")
+                                    + " - Kampioen: " + decimalFormat.format(seasonForecast.getTitleChance(i) * 100) + "%"
+                                    + " - Degradatie: " + decimalFormat.format(seasonForecast.getRelegationChance(i, BAVM.getSeason().getRelegationPlaces()) * 100) + "%"
+                                    + " - Gemiddelde plek: " + decimalFormat.format(seasonForecast.getExpectedPosition(i)),
+                            "\t" + stringBuilder.toString().trim());
+                }
+
+                BAVM.getDisplay().appendText("\n");
+            }
+
+            if (mainNumber == -6)
+            {
+                ArrayList<Integer> seasons = BAVM.getFileManager().getArchivedSeasons();
+                SeasonRecord seasonRecord;
+
+                display.clearText();
+                display.appendText("\t\t- - - - - - - - - - [ Vorige seizoenen ] - - - - - - - - - - ");
+
+                if (seasons.isEmpty())
+                {
+                    display.readLine(false, "Er zijn nog geen seizoenen afgelopen, typ iets om terug te keren naar het seizoenscentrum.");
+                    continue;
+                }
+
+                for (int seasonNumber : seasons)
+                {
+                    SeasonRecord record = BAVM.getFileManager().readSeason(seasonNumber);
+
+                    if (record != null)
+                    {
+                        display.appendText("Seizoen " + (seasonNumber + 1) + " - Kampioen: " + record.getTeamName(0) + " (ID: " + record.getTeamID(0) + ")");
+                    }
+                }
+
+                while (true)
+                {
+                    int seasonNumber = (int) display.readDouble(false, "Typ het nummer van het seizoen dat je wilt bekijken.");
+
+                    if (seasonNumber == -1)
+                    {
+                        seasonRecord = null;
+                        break;
+                    } else if (seasonNumber == -2)
+                    {
+                        break backToMain;
+                    }
+
+                    seasonRecord = (seasons.contains(seasonNumber - 1) ? BAVM.getFileManager().readSeason(seasonNumber - 1) : null);
+
+                    if (seasonRecord == null)
+                    {
+                        display.appendText("Dat seizoen bestaat niet!");
+                    } else
+                    {
+                        break;
+                    }
+                }
+
+                if (seasonRecord == null)
+                {
+                    continue;
+                }
+
+                display.clearText();
+                display.appendText("\t\t- - - - - - - - - - [ Eindstand seizoen " + (seasonRecord.getSeasonNumber() + 1) + " ] - - - - - - - - - - ",
+                        "\tPts\tW\tD\tL\tF\tA");
+
+                for (int position = 0; position < seasonRecord.getTeamCount(); position++)
+                {
+                    String toDisplay = (position + 1) + ": " + seasonRecord.getTeamName(position) + " (ID: " + seasonRecord.getTeamID(position) + ")" + (seasonRecord.getTeamID(position) == BAVM.getTeamManager().playerTeam.getID() ? " (Dit ben jij)" : "") + ":\n\t";
+
+                    for (TeamInfo.Score score : TeamInfo.Score.values())
+                    {
+                        toDisplay = toDisplay + seasonRecord.getScore(position, score) + "\t";
+                    }
+
+                    display.appendText(toDisplay);
+                }
+
+                // Er worden geen doelpunten per speler bijgehouden, dus de topscorers zijn de teams met de meeste doelpunten
+                display.appendText("\nMeeste doelpunten:");
+
+                int[] topScorers = seasonRecord.getTopScorers();
+
+                for (int i = 0; i < Math.min(5, topScorers.length); i++)
+                {
+                    display.appendText((i + 1) + ": " + seasonRecord.getTeamName(topScorers[i]) + " - " + seasonRecord.getScore(topScorers[i], TeamInfo.Score.GOALSFOR) + " doelpunten");
+                }
+
+                while (true)
+                {
+                    int teamID = (int) display.readDouble(false, "\nTyp het ID van een team om de uitslagen van dat team in dit seizoen te bekijken.");
+
+                    if (teamID == -1)
+                    {
+                        break;
+                    } else if (teamID == -2)
+                    {
+                        break backToMain;
+                    } else if (seasonRecord.getPosition(teamID) == -1)
+                    {
+                        display.appendText("Dat team bestaat niet!");
+                        continue;
+                    }
+
+                    for (int i = 0; i < seasonRecord.getMatchCount(); i++)
+                    {
+                        int[] result = seasonRecord.getMatchResult(i);
+
+                        if (result[0] == teamID || result[1] == teamID)
+                        {
+                            display.appendText(seasonRecord.getTeamName(seasonRecord.getPosition(result[0])) + " - " + seasonRecord.getTeamName(seasonRecord.getPosition(result[1])) + ": " + result[2] + "-" + result[3]);
+                        }
+                    }
+                }
+            }
         }
     }
 }
@@ -35,7 +35,7 @@ public class AutoSave
             @Override
             public void run()
             {
-                // Wat berichten printen en dingen opslaan
+                // Wat berichten printen en dingen opslaan, saveAll wacht zelf tot de game thread op de gebruiker wacht
                 System.out.println("Starting autosave ...");
                 BAVM.getDisplay().appendText("\n  -> Automatisch aan het opslaan ...");
                 BAVM.getFileManager().saveAll();
@@ -1,194 +1,285 @@
 package me.nlt.bavm.files;
 
 import me.nlt.bavm.BAVM;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import me.nlt.bavm.game.Match;
+import me.nlt.bavm.season.SeasonRecord;
+import me.nlt.bavm.teams.exceptions.FactoryException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.net.URISyntaxException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.SplittableRandom;
 
 public class FileManager
 {
     public File storageFile = null;
 
-    private Document document;
-    private Element players;
-    private Element teams;
-    private Element coaches;
-    private Element matches;
+    private RecordStore recordStore;
+
+    private volatile MatchArchive matchArchive;
 
     public boolean firstStart = false;
 
+    private boolean legacyRecords = false;
+
     /**
-     * FileManager constructor
+     * FileManager constructor, het databestand staat in de map BAVM naast de jar
      */
     public FileManager()
     {
+        this(null);
+    }
+
+    /**
+     * FileManager constructor met een eigen databestand
+     *
+     * @param storageFile Het databestand, null voor het standaard bestand naast de jar
+     */
+    public FileManager(File storageFile)
+    {
+        this.storageFile = storageFile;
         this.checkFiles();
     }
 
     /**
      * Wordt bij opstarten aangeroepen
-     * Controleerd of het databestand al bestaat en maakt deze als het nodig is
+     * Controleerd of het databestand al bestaat en maakt deze als het nodig is, een oud data.xml wordt 1 keer omgezet
      */
     private void checkFiles()
     {
         try
         {
-            // Huidige directory krijgen en een nieuw bestand maken
-            String mainDir = new File(FileManager.class.getProtectionDomain().getCodeSource().getLocation().toURI().getPath()).getParentFile().getPath().replace('\\', '/') + "/BAVM";
-            storageFile = new File(mainDir + "/data.xml/");
+            // Huidige directory krijgen en een nieuw bestand maken, als er geen eigen bestand is
+            if (storageFile == null)
+            {
+                String mainDir = new File(FileManager.class.getProtectionDomain().getCodeSource().getLocation().toURI().getPath()).getParentFile().getPath().replace('\\', '/') + "/BAVM";
+                storageFile = new File(mainDir + "/data.db");
+            }
 
             storageFile.getParentFile().mkdirs();
 
-            // Document builder aanroepen (We gebruiken DOM, achteraf blee SAX misschien handiger)
-            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+            File legacyFile = new File(storageFile.getParentFile(), "data.xml");
+            boolean exists = storageFile.exists() && storageFile.length() > 0;
 
-            // Controleren of het bestand al bestaat
-            if (!storageFile.exists())
+            if (!exists)
+            {
+                // Archieven en seizoenen zonder databestand horen bij een oude competitie
+                for (File historyFile : getHistoryFiles())
+                {
+                    historyFile.delete();
+                }
+            }
+
+            recordStore = new RecordStore(storageFile);
+
+            if (!exists && legacyFile.exists())
+            {
+                // Oude saves omzetten naar het nieuwe bestand, data.xml blijft als backup bestaan
+                BAVM.getDisplay().appendText("Oude bestanden aan het omzetten ...");
+                this.migrateLegacyFile(legacyFile);
+            } else if (!exists)
             {
-                // Flag firstStart omzetten naar try en bestanden maken
+                // Flag firstStart omzetten naar true en de datums neerzetten
                 BAVM.getDisplay().appendText("Bestanden aan het maken ...");
                 firstStart = true;
 
-                document = docBuilder.newDocument();
-
-                // Elementen maken
-                Element rootElement = document.createElement("data");
-                players = document.createElement("players");
-                teams = document.createElement("teams");
-                coaches = document.createElement("coaches");
-                matches = document.createElement("matches");
-                Element player = document.createElement("player");
-                Element team = document.createElement("team");
-                Element coach = document.createElement("coach");
-                Element match = document.createElement("match");
-
-                // Elementen vullen
-                document.appendChild(rootElement);
-                rootElement.appendChild(players);
-                rootElement.appendChild(teams);
-                rootElement.appendChild(coaches);
-                rootElement.appendChild(matches);
-                players.appendChild(player);
-                players.setAttribute("amount", "0");
-                teams.appendChild(team);
-                teams.setAttribute("amount", "0");
-                coaches.setAttribute("amount", "0");
-                coaches.appendChild(coach);
-                matches.setAttribute("amount", "0");
-                matches.setAttribute("week", "0");
-                matches.setAttribute("season", "0");
-                matches.appendChild(match);
-                player.setAttribute("id", "-1");
-                team.setAttribute("id", "-1");
-                coach.setAttribute("id", "-1");
-                match.setAttribute("id", "-1");
-
-                // Placeholders neerzetten
-                Element playerString = document.createElement("dataString");
-                Element teamString = document.createElement("dataString");
-                Element coachString = document.createElement("dataString");
-                Element matchString = document.createElement("dataString");
-
-                playerString.appendChild(document.createTextNode("NULL <-> PH"));
-                teamString.appendChild(document.createTextNode("NULL <-> PH"));
-                coachString.appendChild(document.createTextNode("NULL <-> PH"));
-                matchString.appendChild(document.createTextNode("NULL <-> PH"));
-
-                // Children aan parents koppeleen
-                player.appendChild(playerString);
-                team.appendChild(teamString);
-                coach.appendChild(coachString);
-                match.appendChild(matchString);
-
-                // Naar XML bestand schrijven
-                TransformerFactory transformerFactory = TransformerFactory.newInstance();
-                Transformer transformer = transformerFactory.newTransformer();
-                DOMSource source = new DOMSource(document);
-                StreamResult result = new StreamResult(storageFile);
-
-                transformer.transform(source, result);
-            } else
+                recordStore.setAttribute("week", "0");
+                recordStore.setAttribute("season", "0");
+                recordStore.commit();
+            }
+
+            String season = recordStore.getAttribute("season");
+            File archiveFile = getArchiveFile(season == null ? 0 : Integer.parseInt(season));
+            File legacyArchive = new File(storageFile.getParentFile(), getBaseName() + ".matches");
+
+            // Het archief had eerst geen seizoen in de naam, dat archief hoort bij het huidige seizoen
+            if (legacyArchive.exists() && !archiveFile.exists())
             {
-                // Bestaande document parsen
-                document = docBuilder.parse(storageFile);
+                Files.move(legacyArchive.toPath(), archiveFile.toPath());
+            }
 
-                // Alle nodes verkrijgen
-                NodeList nodeList = document.getElementsByTagName("data");
+            matchArchive = new MatchArchive(archiveFile);
+            this.deleteOldArchives();
+        } catch (Exception e)
+        {
+            // Error printen in eigen console
+            BAVM.getDisplay().printException(e);
+        }
+    }
+
+    /**
+     * Returnt de naam van het databestand zonder extensie, de archieven krijgen dezelfde naam
+     *
+     * @return De naam, data voor data.db
+     */
+    private String getBaseName()
+    {
+        String name = storageFile.getName();
+        int extension = name.lastIndexOf('.');
+
+        return (extension > 0 ? name.substring(0, extension) : name);
+    }
 
-                // Door de nodeList loopen
-                for (int i = 0; i < nodeList.getLength(); i++)
+    /**
+     * Returnt het archief met de matches van een seizoen, voor data.db en seizoen 3 is dat data.s3.matches
+     *
+     * @param seasonNumber Nummer van het seizoen
+     * @return Het archief
+     */
+    private File getArchiveFile(int seasonNumber)
+    {
+        return new File(storageFile.getParentFile(), getBaseName() + ".s" + seasonNumber + ".matches");
+    }
+
+    /**
+     * Returnt het bestand met de samenvatting van een seizoen, voor data.db en seizoen 3 is dat data.s3.season
+     *
+     * @param seasonNumber Nummer van het seizoen
+     * @return Het bestand
+     */
+    private File getSeasonFile(int seasonNumber)
+    {
+        return new File(storageFile.getParentFile(), getBaseName() + ".s" + seasonNumber + ".season");
+    }
+
+    /**
+     * Returnt alle archieven en samenvattingen van seizoenen die bij het databestand horen
+     *
+     * @return De bestanden
+     */
+    private ArrayList<File> getHistoryFiles()
+    {
+        ArrayList<File> historyFiles = new ArrayList<>();
+        File[] files = storageFile.getParentFile().listFiles();
+        String prefix = getBaseName() + ".";
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                String name = file.getName();
+
+                if (name.startsWith(prefix) && (name.endsWith(".matches") || name.endsWith(".season")))
                 {
-                    // ChildNodes verkrijgen
-                    NodeList list = nodeList.item(i).getChildNodes();
+                    historyFiles.add(file);
+                }
+            }
+        }
+
+        return historyFiles;
+    }
+
+    /**
+     * Zet een oud data.xml bestand om, het bestand wordt met StAX 1 keer van voor naar achter gelezen
+     * zonder dat het hele document in het geheugen komt
+     * De dataStrings komen eerst als tekst in het databestand, na het laden worden ze binair opgeslagen
+     *
+     * Het oude bestand ziet er zo uit: data > groep (players, teams, coaches, matches) > record met id > dataString
+     *
+     * @param legacyFile Het oude bestand
+     * @throws Exception Als het oude bestand niet gelezen kan worden
+     */
+    private void migrateLegacyFile(File legacyFile) throws Exception
+    {
+        try (InputStream inputStream = new FileInputStream(legacyFile))
+        {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+            int depth = 0;
+            String recordTag = null;
+            int recordID = -1;
+
+            while (reader.hasNext())
+            {
+                int event = reader.next();
 
-                    // Door alle children loopen
-                    for (int j = 0; j < list.getLength(); j++)
+                if (event == XMLStreamConstants.END_ELEMENT)
+                {
+                    depth--;
+                    continue;
+                } else if (event != XMLStreamConstants.START_ELEMENT)
+                {
+                    continue;
+                }
+
+                depth++;
+
+                if (depth == 2 && reader.getLocalName().equals("matches"))
+                {
+                    // De datums en de seed staan als attributen op matches
+                    for (String attribute : new String[]{"week", "season", "seed"})
                     {
-                        // Node verkrijgen
-                        Node node = list.item(j);
+                        String value = reader.getAttributeValue(null, attribute);
 
-                        // Checken of de huidige node een element node is
-                        if (node.getNodeType() == Node.ELEMENT_NODE)
+                        if (value != null)
                         {
-                            // Node 'omzetten' naar een element
-                            Element element = (Element) node;
-
-                            // Checken welke node dit is en dan koppelen aan de juiste globale variable
-                            switch (element.getNodeName())
-                            {
-                                case "players":
-                                    players = element;
-                                    break;
-                                case "teams":
-                                    teams = element;
-                                    break;
-                                case "coaches":
-                                    coaches = element;
-                                    break;
-                                case "matches":
-                                    matches = element;
-                                    break;
-                            }
+                            recordStore.setAttribute(attribute, value);
                         }
                     }
+                } else if (depth == 3)
+                {
+                    String ID = reader.getAttributeValue(null, "id");
+
+                    recordTag = reader.getLocalName();
+                    recordID = (ID == null ? -1 : Integer.parseInt(ID));
+                } else if (depth == 4 && reader.getLocalName().equals("dataString"))
+                {
+                    // getElementText leest tot en met het eind van de dataString
+                    String dataString = reader.getElementText();
+                    depth--;
+
+                    // De placeholders met ID -1 zijn niet meer nodig
+                    if (recordID >= 0)
+                    {
+                        recordStore.write(recordTag, recordID, dataString.getBytes(StandardCharsets.UTF_8));
+                    }
                 }
             }
-        } catch (URISyntaxException | ParserConfigurationException | TransformerException | SAXException | IOException e)
-        {
-            // Error printen in eigen console
-            BAVM.getDisplay().printException(e);
+
+            reader.close();
         }
+
+        recordStore.commit();
     }
 
     /**
-     * Data uit geheugen naar XML-bestand schrijven
+     * Alle veranderingen naar het databestand schrijven
      */
     public void saveData()
+    {
+        MatchArchive archive = matchArchive;
+
+        this.saveData(archive, archive.prepareCommit(), recordStore.prepareCommit());
+    }
+
+    /**
+     * Schrijft de batches van een snapshot naar het archief en het databestand
+     * Het archief gaat eerst, zo verwijst het databestand nooit naar een match die nog niet in het archief staat
+     *
+     * @param archive     Het archief waar de batch van de matches bij hoort
+     * @param matchBatch  De matches van de snapshot
+     * @param recordBatch De records van de snapshot
+     */
+    private void saveData(MatchArchive archive, MatchArchive.CommitBatch matchBatch, RecordStore.CommitBatch recordBatch)
     {
         try
         {
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            DOMSource source = new DOMSource(document);
-            StreamResult result = new StreamResult(storageFile);
+            int archived = archive.commit(matchBatch);
+            int written = recordStore.commit(recordBatch);
 
-            transformer.transform(source, result);
+            System.out.println((archived == 0 ? "Geen" : archived) + " matches naar " + archive.getFile().getName() + " geschreven");
+            System.out.println((written == 0 ? "Geen" : written) + " records naar " + recordStore.getFile().getName() + " geschreven");
+            this.deleteOldArchives();
         } catch (Exception e)
         {
             BAVM.getDisplay().printException(e);
@@ -196,7 +287,7 @@ public class FileManager
     }
 
     /**
-     * Data naar geheugen schrijven
+     * Data naar geheugen schrijven, bij de volgende save komt het in het bestand
      *
      * @param tag        De naam van de juiste node
      * @param dataString De string die alle data over het object bevast
@@ -204,107 +295,185 @@ public class FileManager
      */
     public void writeData(String tag, String dataString, int ID)
     {
-        // Lijst met nodes krijgen die horen bij de gegeven tag
-        NodeList nodeList = document.getElementsByTagName(tag);
-        Node node = null;
+        recordStore.write(tag, ID, dataString.getBytes(StandardCharsets.UTF_8));
+    }
 
-        // Door de nodeList loopen
-        for (int i = 0; i < nodeList.getLength(); i++)
-        {
-            // Subnode verkrijgen
-            Node subNode = nodeList.item(i);
+    /**
+     * Een binair record naar geheugen schrijven, bij de volgende save komt het in het bestand
+     *
+     * @param tag    De naam van de juiste node
+     * @param record Het record, gemaakt door RecordCodec
+     * @param ID     De ID van het object
+     */
+    public void writeRecord(String tag, byte[] record, int ID)
+    {
+        recordStore.write(tag, ID, record);
+    }
 
-            // Checken of de subnode een element is
-            if (subNode.getNodeType() == Node.ELEMENT_NODE)
-            {
-                // Subnode 'omzetten' naar een element
-                Element element = (Element) subNode;
+    /**
+     * Alle records van een tag verwijderen, bij de volgende save gaat dat ook in het bestand
+     *
+     * @param tag De naam van de juiste node
+     */
+    public void clearRecords(String tag)
+    {
+        recordStore.clear(getRecordTag(tag));
+    }
 
-                // Checken of het gegeven ID overeenkomt met die van het huidige element
-                if (Integer.parseInt(element.getAttribute("id")) == ID)
-                {
-                    node = subNode;
-                }
-            }
+    /**
+     * Het volledige record van een gespeelde match naar het archief schrijven, bij de volgende save komt het in het bestand
+     *
+     * @param record Het record, gemaakt door RecordCodec.encodeMatch
+     * @param ID     De ID van de match
+     */
+    public void archiveMatch(byte[] record, int ID)
+    {
+        matchArchive.write(ID, record);
+    }
+
+    /**
+     * Begint een nieuw archief voor de matches van een seizoen, wat nog in het oude archief moest komen wordt eerst weggeschreven
+     * Het oude archief blijft bestaan tot het nieuwe seizoen in het databestand staat, zie deleteOldArchives
+     *
+     * @param seasonNumber Nummer van het nieuwe seizoen
+     */
+    public void startSeasonArchive(int seasonNumber)
+    {
+        try
+        {
+            MatchArchive oldArchive = matchArchive;
 
+            oldArchive.commit();
+            matchArchive = new MatchArchive(getArchiveFile(seasonNumber));
+            oldArchive.close();
+        } catch (IOException e)
+        {
+            BAVM.getDisplay().printException(e);
         }
+    }
 
-        // Geen node gevonden, dus er bestaat nog geen node met dit ID
-        if (node == null)
+    /**
+     * Verwijdert de archieven van seizoenen die al afgelopen zijn, de uitslagen daarvan staan in de samenvatting van het seizoen
+     * Alleen als het databestand zelf al in een later seizoen is, anders zijn na een crash de logs van het huidige seizoen weg
+     */
+    private void deleteOldArchives()
+    {
+        String committedSeason = recordStore.getCommittedAttribute("season");
+
+        if (committedSeason == null)
         {
-            // Element maken met de gegeven tag
-            Element element = document.createElement(tag);
-            Element dataElement = document.createElement("dataString");
+            return;
+        }
 
-            // ID voor het element koppelen
-            element.setAttribute("id", ID + "");
+        for (int seasonNumber = 0; seasonNumber < Integer.parseInt(committedSeason); seasonNumber++)
+        {
+            File archiveFile = getArchiveFile(seasonNumber);
 
-            // Data in element zetten
-            dataElement.appendChild(document.createTextNode(dataString));
+            if (archiveFile.exists() && getSeasonFile(seasonNumber).exists() && !archiveFile.delete())
+            {
+                System.out.println(archiveFile.getName() + " kon niet verwijderd worden");
+            }
+        }
+    }
 
-            // Data aan element koppelen
-            element.appendChild(dataElement);
+    /**
+     * Schrijft de samenvatting van een afgelopen seizoen naar een eigen bestand
+     * Eerst naar een tijdelijk bestand, zodat er nooit een half geschreven seizoen staat
+     *
+     * @param seasonRecord De samenvatting
+     */
+    public void archiveSeason(SeasonRecord seasonRecord)
+    {
+        File seasonFile = getSeasonFile(seasonRecord.getSeasonNumber());
+        File tempFile = new File(seasonFile.getPath() + ".tmp");
 
-            int newAmount;
+        try
+        {
+            Files.write(tempFile.toPath(), RecordCodec.encodeSeason(seasonRecord));
 
-            // Checken in welke nodeList we zitten zodat we het attribuut 'amount' kunnen aanpassen
-            switch (tag)
+            try
             {
-                case "player":
-                    players.appendChild(element);
-
-                    newAmount = Integer.parseInt(players.getAttribute("amount")) + 1;
-                    players.removeAttribute("amount");
-                    players.setAttribute("amount", newAmount + "");
-                    break;
-                case "team":
-                    teams.appendChild(element);
-
-                    newAmount = Integer.parseInt(teams.getAttribute("amount")) + 1;
-                    teams.removeAttribute("amount");
-                    teams.setAttribute("amount", newAmount + "");
-                    break;
-                case "coach":
-                    coaches.appendChild(element);
-
-                    newAmount = Integer.parseInt(coaches.getAttribute("amount")) + 1;
-                    coaches.removeAttribute("amount");
-                    coaches.setAttribute("amount", newAmount + "");
-                    break;
-                case "match":
-                    matches.appendChild(element);
-
-                    newAmount = Integer.parseInt(matches.getAttribute("amount")) + 1;
-                    matches.removeAttribute("amount");
-                    matches.setAttribute("amount", newAmount + "");
+                Files.move(tempFile.toPath(), seasonFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tempFile.toPath(), seasonFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
-        } else
+        } catch (IOException e)
         {
-            // Childnodes verkrijgen
-            NodeList nodeChildren = node.getChildNodes();
+            BAVM.getDisplay().printException(e);
+        }
+    }
 
-            // Door de childnodes loopen
-            for (int i = 0; i < nodeChildren.getLength(); i++)
-            {
-                // Childnode verkrijgen
-                Node child = nodeChildren.item(i);
+    /**
+     * Leest de samenvatting van een afgelopen seizoen
+     *
+     * @param seasonNumber Nummer van het seizoen
+     * @return De samenvatting, of null als het seizoen niet bewaard is
+     */
+    public SeasonRecord readSeason(int seasonNumber)
+    {
+        File seasonFile = getSeasonFile(seasonNumber);
 
-                // Checken of dit de dataString node is
-                if (child.getNodeName().equals("dataString"))
+        if (!seasonFile.exists())
+        {
+            return null;
+        }
+
+        try
+        {
+            return RecordCodec.decodeSeason(Files.readAllBytes(seasonFile.toPath()));
+        } catch (IOException | FactoryException e)
+        {
+            BAVM.getDisplay().printException(e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returnt de nummers van alle seizoenen waarvan een samenvatting bewaard is
+     *
+     * @return De nummers, van oud naar nieuw
+     */
+    public ArrayList<Integer> getArchivedSeasons()
+    {
+        ArrayList<Integer> seasons = new ArrayList<>();
+        String prefix = getBaseName() + ".s";
+
+        for (File file : getHistoryFiles())
+        {
+            String name = file.getName();
+
+            if (name.startsWith(prefix) && name.endsWith(".season"))
+            {
+                try
+                {
+                    seasons.add(Integer.parseInt(name.substring(prefix.length(), name.length() - ".season".length())));
+                } catch (NumberFormatException e)
                 {
-                    // Mocht dit zo zijn wordt de data van die node vervangen met de gegeven dataString
-                    child.setTextContent(dataString);
+                    // Geen bestand van een seizoen
                 }
             }
         }
+
+        Collections.sort(seasons);
+
+        return seasons;
     }
 
     /**
-     * Methode om het bestand te verwijderen
+     * Methode om het bestand te verwijderen, samen met de archieven en seizoenen
      */
     public void deleteData()
     {
+        recordStore.close();
+        matchArchive.close();
         storageFile.delete();
+
+        for (File historyFile : getHistoryFiles())
+        {
+            historyFile.delete();
+        }
     }
 
     /**
@@ -315,12 +484,10 @@ public class FileManager
      */
     public void addDate(String tag, boolean newSeason)
     {
-        // Nieuwe waarde maken
-        int newWeek = Integer.parseInt(matches.getAttribute(tag)) + 1;
+        // Nieuwe waarde maken en naar geheugen schrijven
+        int newWeek = this.getDateNumber(tag) + 1;
 
-        // Nieuwe waarde naar geheugen schrijven
-        matches.removeAttribute(tag);
-        matches.setAttribute(tag, (newSeason ? 0 : newWeek) + "");
+        recordStore.setAttribute(tag, (newSeason ? 0 : newWeek) + "");
     }
 
     /**
@@ -333,28 +500,7 @@ public class FileManager
     {
         try
         {
-            // Betand normalizen
-            document.getDocumentElement().normalize();
-
-            // Nodelist van matches verkijgen
-            NodeList nodeList = document.getElementsByTagName("matches");
-
-            // Door de nodeList loopen
-            for (int i = 0; i < nodeList.getLength(); i++)
-            {
-                // Node verkrijgen
-                Node node = nodeList.item(i);
-
-                // Checken of de huidige node een element is
-                if (node.getNodeType() == Node.ELEMENT_NODE)
-                {
-                    // Node 'omzetten' naar een element
-                    Element element = (Element) node;
-
-                    // Integer parsen en returnen
-                    return Integer.parseInt(element.getAttribute(tag));
-                }
-            }
+            return Integer.parseInt(recordStore.getAttribute(tag));
         } catch (Exception e)
         {
             // Error printen
@@ -364,6 +510,35 @@ public class FileManager
         return -1;
     }
 
+    /**
+     * Methode om de seed van de competitie te lezen, als er nog geen seed is wordt er een gemaakt en opgeslagen
+     * Met -Dbavm.seed=... kan een nieuwe competitie met een vaste seed gestart worden
+     *
+     * @return De seed van de competitie
+     */
+    public long getLeagueSeed()
+    {
+        String storedSeed = recordStore.getAttribute("seed");
+
+        if (storedSeed != null && !storedSeed.isEmpty())
+        {
+            try
+            {
+                return Long.parseLong(storedSeed);
+            } catch (NumberFormatException e)
+            {
+                // Error printen, daarna wordt er een nieuwe seed gemaakt
+                BAVM.getDisplay().printException(e);
+            }
+        }
+
+        long seed = Long.getLong("bavm.seed", new SplittableRandom().nextLong());
+
+        recordStore.setAttribute("seed", seed + "");
+
+        return seed;
+    }
+
     /**
      * Methode om het 'amount'-attribuut te lezen
      *
@@ -372,37 +547,69 @@ public class FileManager
      */
     public int readAmount(String tag)
     {
-        try
+        return recordStore.getAmount(getRecordTag(tag));
+    }
+
+    /**
+     * Zet de oude namen van de groepen om naar de tag van de records
+     *
+     * @param tag Naam van de groep of tag
+     * @return De tag van de records
+     */
+    private static String getRecordTag(String tag)
+    {
+        switch (tag)
         {
-            // Betand normalizen
-            document.getDocumentElement().normalize();
+            case "players":
+                return "player";
+            case "teams":
+                return "team";
+            case "coaches":
+                return "coach";
+            case "matches":
+                return "match";
+            default:
+                return tag;
+        }
+    }
 
-            // Nodelist verkijgen
-            NodeList nodeList = document.getElementsByTagName(tag);
+    /**
+     * Methode om de records van alle elementen met een tag in 1 keer te lezen, voor het laden bij het opstarten
+     * Hier wordt ook gekeken of er nog records als tekst of matches met logs in het bestand staan
+     *
+     * @param tag Naam van de node
+     * @return Array met op iedere plek het record van het element met dat ID, null als dat element er niet is
+     */
+    public byte[][] readAllRecords(String tag)
+    {
+        try
+        {
+            byte[][] records = recordStore.readAll(getRecordTag(tag));
 
-            // Door de nodeList loopen
-            for (int i = 0; i < nodeList.getLength(); i++)
+            for (byte[] record : records)
             {
-                // Node verkrijgen
-                Node node = nodeList.item(i);
-
-                // Checken of de huidige node een element is
-                if (node.getNodeType() == Node.ELEMENT_NODE)
-                {
-                    // Node 'omzetten' naar een element
-                    Element element = (Element) node;
-
-                    // Integer parsen en returnen
-                    return Integer.parseInt(element.getAttribute("amount"));
-                }
+                legacyRecords |= RecordCodec.isLegacy(record) || RecordCodec.hasMatchLog(record);
             }
-        } catch (Exception e)
+
+            return records;
+        } catch (IOException e)
         {
             // Error printen
             BAVM.getDisplay().printException(e);
         }
 
-        return -1;
+        return new byte[0][];
+    }
+
+    /**
+     * Returnt of er bij het laden records gevonden zijn die nog als tekst zijn opgeslagen, of matches met logs
+     * De objecten van die records zijn gemarkeerd, dus een save zet ze om naar binaire records en het archief
+     *
+     * @return Boolean die aangeeft of er oude records zijn
+     */
+    public boolean hasLegacyRecords()
+    {
+        return legacyRecords;
     }
 
     /**
@@ -414,36 +621,47 @@ public class FileManager
      */
     public String readData(String tag, int ID)
     {
-        try
-        {
-            // Betand normalizen
-            document.getDocumentElement().normalize();
+        byte[] record = this.readRecord(tag, ID);
 
-            // Nodelist verkijgen
-            NodeList nodeList = document.getElementsByTagName(tag);
+        return (record == null ? null : new String(record, StandardCharsets.UTF_8));
+    }
 
-            // Door de nodeList loopen
-            for (int i = 0; i < nodeList.getLength(); i++)
-            {
-                // Node verkrijgen
-                Node node = nodeList.item(i);
+    /**
+     * Methode om het record van een element te lezen
+     *
+     * @param tag Naam van de node
+     * @param ID  ID van het object
+     * @return Het record dat bij het element hoort, binair of als tekst
+     */
+    public byte[] readRecord(String tag, int ID)
+    {
+        try
+        {
+            return recordStore.read(tag, ID);
+        } catch (IOException e)
+        {
+            // Error printen
+            BAVM.getDisplay().printException(e);
+        }
 
-                // Checken of de huidige node een element is
-                if (node.getNodeType() == Node.ELEMENT_NODE)
-                {
-                    // Node 'omzetten' naar een element
-                    Element element = (Element) node;
+        return null;
+    }
 
-                    // Checken of het 'ID'-attribuut overeenkomt met het gegeven ID
-                    if (Integer.parseInt(element.getAttribute("id")) == ID)
-                    {
-                        // Integer parsen en returnen
-                        return element.getElementsByTagName("dataString").item(0).getTextContent();
-                    }
-                }
+    /**
+     * Methode om een match met alle data te lezen, uit het gemapte archief zonder de data eerst te kopieren
+     * Een match die niet in het archief staat wordt uit het databestand gelezen
+     *
+     * @param matchID Het ID van de match
+     * @return De match met events, samenvatting of logs, of null als de match niet bestaat
+     */
+    public Match readMatch(int matchID)
+    {
+        try
+        {
+            ByteBuffer record = matchArchive.read(matchID);
 
-            }
-        } catch (Exception e)
+            return (record != null ? RecordCodec.decodeMatch(record) : RecordCodec.decodeMatch(this.readRecord("match", matchID)));
+        } catch (FactoryException e)
         {
             // Error printen
             BAVM.getDisplay().printException(e);
@@ -460,39 +678,46 @@ public class FileManager
      */
     public ArrayList<String> getMatchLog(int matchID)
     {
-        // Data lezen van de desbtreffende match
-        ArrayList<String> matchLog = new ArrayList<>();
-        String matchString = this.readData("match", matchID).trim().substring(6).replaceAll("}", "");
+        // De tekst van de events wordt pas bij getMatchLog gemaakt
+        Match match = this.readMatch(matchID);
+
+        return (match != null ? match.getMatchLog() : new ArrayList<>());
+    }
+
+    /**
+     * Methode om alle data naar het geheugen en daarna naar het databestand te schrijven
+     * Dit mag vanaf iedere thread, alleen het maken van de snapshot wacht tot de game thread niks aan het doen is
+     */
+    public void saveAll()
+    {
+        MatchArchive archive;
+        MatchArchive.CommitBatch matchBatch;
+        RecordStore.CommitBatch recordBatch;
+
+        BAVM.getGameLock().lock();
 
-        // Door de dataString loopen
-        for (String matchData : matchString.split(","))
+        try
         {
-            String data = matchData.split("=")[1];
+            this.snapshotChanges();
 
-            // Kijken of de huidige sectie de logs bevat
-            switch (matchData.split("=")[0])
-            {
-                case "logs":
-                    // Door de logs loopen
-                    for (String logMessage : data.split("@"))
-                    {
-                        // Bepaalde tekens vervangen en dan in de arrayList doen
-                        matchLog.add(logMessage.replaceAll("_", " ").replaceAll("%", ",").replaceAll("~", "="));
-                    }
-                    break;
-                default:
-                    break;
-            }
+            // De wachtrijen worden nog met de lock vastgelegd, wat de game daarna schrijft komt pas bij de volgende save
+            archive = matchArchive;
+            matchBatch = archive.prepareCommit();
+            recordBatch = recordStore.prepareCommit();
+        } finally
+        {
+            BAVM.getGameLock().unlock();
         }
 
-        // Matchlogs returnen
-        return matchLog;
+        // Data van het geheugen naar het databestand schrijven, de game kan intussen gewoon verder
+        this.saveData(archive, matchBatch, recordBatch);
     }
 
     /**
-     * Methode om alle data naar het geheugen schrijven
+     * Schrijft alles wat veranderd is als binaire records naar het geheugen, dit is de snapshot die daarna opgeslagen wordt
+     * Alleen aanroepen met de game lock, anders kan een object half veranderd zijn
      */
-    public void saveAll()
+    private void snapshotChanges()
     {
         // Eerst controleren of er data is en dan naar het geheugen schrijven
         if (BAVM.getTeamManager() != null && BAVM.getTeamManager().dataLoaded)
@@ -503,8 +728,5 @@ public class FileManager
             BAVM.getCoachManager().saveManageables(false);
         if (BAVM.getMatchManager() != null && BAVM.getMatchManager().dataLoaded)
             BAVM.getMatchManager().saveManageables(false);
-
-        // Data van het geheugen naar het databestand schrijven
-        this.saveData();
     }
 }
@@ -0,0 +1,391 @@
+package me.nlt.bavm.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class MatchArchive
+{
+    private static final int MAGIC = 0x42414D41;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int ENTRY_HEADER_SIZE = 12;
+
+    private final File file;
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer mappedBuffer;
+    private long fileEnd;
+
+    private long[] offsets = new long[0];
+    private int[] lengths = new int[0];
+    private LinkedHashMap<Integer, byte[]> pendingMatches = new LinkedHashMap<>();
+    private final ArrayDeque<CommitBatch> preparedBatches = new ArrayDeque<>();
+
+    private final Object commitLock = new Object();
+
+    /*
+     * MatchArchive bewaart de volledige records van gespeelde matches (met events, samenvatting of logs) in een eigen bestand,
+     * zo blijft het databestand klein en worden de logs alleen gelezen als iemand een wedstrijd bekijkt
+     *
+     * Het bestand begint met MAGIC en VERSION, daarna komen alleen nog entries die achteraan bijgeschreven worden
+     *   entry: int ID, int lengte, int CRC32 van de data, data (een record van RecordCodec)
+     * Ieder seizoen heeft een eigen archief, een ID dat toch opnieuw geschreven wordt gebruikt de nieuwste entry
+     * Een entry die niet helemaal of niet goed geschreven is wordt bij het openen weggegooid, samen met alles erna
+     *
+     * Het bestand wordt read-only in het geheugen gemapt, read geeft een stuk van die map terug zonder te kopieren
+     * Na iedere commit wordt het bestand opnieuw gemapt, buffers van de oude map blijven gewoon geldig
+     */
+
+    /**
+     * MatchArchive constructor, opent het archief of maakt een nieuw archief
+     *
+     * @param file Het bestand
+     * @throws IOException Als het bestand niet gelezen of gemaakt kan worden
+     */
+    public MatchArchive(File file) throws IOException
+    {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+
+        if (randomAccessFile.length() < HEADER_SIZE)
+        {
+            this.randomAccessFile.setLength(0);
+            this.randomAccessFile.writeInt(MAGIC);
+            this.randomAccessFile.writeInt(VERSION);
+            this.fileEnd = HEADER_SIZE;
+        } else
+        {
+            this.readFile();
+        }
+
+        this.mapFile();
+    }
+
+    /**
+     * Loopt 1 keer langs alle entries, controleert de CRC en bouwt de index op
+     * Dit gebeurt zonder map, een bestand dat gemapt is kan op sommige systemen niet korter gemaakt worden
+     *
+     * @throws IOException Als het bestand geen archief is
+     */
+    private void readFile() throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        if (buffer.getInt() != MAGIC)
+        {
+            throw new IOException(file.getName() + " is geen BAVM archief");
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION)
+        {
+            throw new IOException(file.getName() + " heeft versie " + version + ", deze versie kan alleen versie " + VERSION + " lezen");
+        }
+
+        long validEnd = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+
+        while (buffer.remaining() >= ENTRY_HEADER_SIZE)
+        {
+            int entryStart = buffer.position();
+            int ID = buffer.getInt();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+
+            if (ID < 0 || length < 0 || length > buffer.remaining())
+            {
+                break;
+            }
+
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+
+            if ((int) crc.getValue() != checksum)
+            {
+                break;
+            }
+
+            putMatch(ID, entryStart + ENTRY_HEADER_SIZE, length);
+            buffer.position(entryStart + ENTRY_HEADER_SIZE + length);
+            validEnd = buffer.position();
+        }
+
+        if (validEnd < randomAccessFile.length())
+        {
+            System.out.println("Onvolledige entry in " + file.getName() + " op " + validEnd + " genegeerd");
+            this.randomAccessFile.setLength(validEnd);
+        }
+
+        this.fileEnd = validEnd;
+    }
+
+    /**
+     * Mapt het hele bestand opnieuw, nadat er iets bijgeschreven is
+     *
+     * @throws IOException Als het bestand niet gemapt kan worden
+     */
+    private void mapFile() throws IOException
+    {
+        mappedBuffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, fileEnd);
+    }
+
+    /**
+     * Zet de plek van een match in de index
+     *
+     * @param ID     ID van de match
+     * @param offset De plek van de data in het bestand
+     * @param length De lengte van de data
+     */
+    private void putMatch(int ID, long offset, int length)
+    {
+        if (ID >= offsets.length)
+        {
+            int oldLength = offsets.length;
+            int newLength = Math.max(ID + 1, oldLength * 2);
+
+            offsets = Arrays.copyOf(offsets, newLength);
+            lengths = Arrays.copyOf(lengths, newLength);
+            Arrays.fill(offsets, oldLength, newLength, -1);
+        }
+
+        offsets[ID] = offset;
+        lengths[ID] = length;
+    }
+
+    /**
+     * Returnt het record van een match, zonder het te kopieren als het al in het bestand staat
+     * De buffer is read-only en begint op positie 0
+     *
+     * @param ID ID van de match
+     * @return Het record, of null als de match niet in het archief staat
+     */
+    public synchronized ByteBuffer read(int ID)
+    {
+        byte[] record = pendingMatches.get(ID);
+        Iterator<CommitBatch> iterator = preparedBatches.descendingIterator();
+
+        while (record == null && iterator.hasNext())
+        {
+            record = iterator.next().matches.get(ID);
+        }
+
+        if (record != null)
+        {
+            return ByteBuffer.wrap(record).asReadOnlyBuffer();
+        }
+
+        if (ID < 0 || ID >= offsets.length || offsets[ID] == -1)
+        {
+            return null;
+        }
+
+        ByteBuffer buffer = mappedBuffer.duplicate();
+
+        buffer.position((int) offsets[ID]);
+        buffer.limit((int) offsets[ID] + lengths[ID]);
+
+        return buffer.slice();
+    }
+
+    /**
+     * Zet een match in het archief, dit komt pas in het bestand bij de volgende commit
+     *
+     * @param ID     ID van de match, mag niet negatief zijn
+     * @param record Het record van de match, gemaakt door RecordCodec
+     */
+    public synchronized void write(int ID, byte[] record)
+    {
+        if (ID < 0)
+        {
+            throw new IllegalArgumentException("ID " + ID + " van match is negatief");
+        }
+
+        pendingMatches.put(ID, record);
+    }
+
+    /**
+     * Legt vast welke matches er in de volgende commit komen, net als RecordStore.prepareCommit
+     *
+     * @return De laatste batch die klaarstaat, of null als er niks te schrijven is
+     */
+    public synchronized CommitBatch prepareCommit()
+    {
+        if (!pendingMatches.isEmpty())
+        {
+            preparedBatches.addLast(new CommitBatch(pendingMatches));
+            pendingMatches = new LinkedHashMap<>();
+        }
+
+        return preparedBatches.peekLast();
+    }
+
+    /**
+     * Schrijft alle nieuwe matches achteraan het bestand
+     *
+     * @return Hoeveel matches er geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    public int commit() throws IOException
+    {
+        return this.commit(this.prepareCommit());
+    }
+
+    /**
+     * Schrijft de batches die klaarstaan tot en met een batch van prepareCommit achteraan het bestand en mapt het bestand daarna opnieuw
+     * Net als bij RecordStore gebeurt alleen het aanpassen van de index met de lock op het archief
+     *
+     * @param batch De batch van prepareCommit, null als er niks te schrijven is
+     * @return Hoeveel matches er geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    public int commit(CommitBatch batch) throws IOException
+    {
+        synchronized (commitLock)
+        {
+            int written = 0;
+            CommitBatch next;
+
+            do
+            {
+                synchronized (this)
+                {
+                    // Een batch die niet meer klaarstaat is al door een andere commit geschreven
+                    if (batch == null || !preparedBatches.contains(batch))
+                    {
+                        break;
+                    }
+
+                    next = preparedBatches.peekFirst();
+                }
+
+                written += this.writeEntries(next);
+            } while (next != batch);
+
+            return written;
+        }
+    }
+
+    /**
+     * Schrijft de matches van de eerste batch achteraan het bestand, alleen aanroepen vanuit commit
+     *
+     * @param batch De eerste batch die klaarstaat
+     * @return Hoeveel matches er geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    private int writeEntries(CommitBatch batch) throws IOException
+    {
+        LinkedHashMap<Integer, byte[]> matches = batch.matches;
+        int size = 0;
+
+        for (byte[] record : matches.values())
+        {
+            size += ENTRY_HEADER_SIZE + record.length;
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(size);
+        long[] newOffsets = new long[matches.size()];
+        int counter = 0;
+        CRC32 crc = new CRC32();
+
+        for (Map.Entry<Integer, byte[]> entry : matches.entrySet())
+        {
+            crc.reset();
+            crc.update(entry.getValue());
+
+            block.putInt(entry.getKey());
+            block.putInt(entry.getValue().length);
+            block.putInt((int) crc.getValue());
+            newOffsets[counter++] = fileEnd + block.position();
+            block.put(entry.getValue());
+        }
+
+        block.flip();
+
+        FileChannel channel = randomAccessFile.getChannel();
+
+        while (block.hasRemaining())
+        {
+            channel.write(block, fileEnd + block.position());
+        }
+
+        channel.force(false);
+
+        synchronized (this)
+        {
+            // Pas als alles op de schijf staat de index aanpassen
+            counter = 0;
+
+            for (Map.Entry<Integer, byte[]> entry : matches.entrySet())
+            {
+                putMatch(entry.getKey(), newOffsets[counter++], entry.getValue().length);
+            }
+
+            fileEnd += size;
+            this.mapFile();
+            preparedBatches.removeFirst();
+        }
+
+        return counter;
+    }
+
+    /**
+     * Sluit het archief, een commit die bezig is wordt eerst afgemaakt, wat nog niet gecommit is gaat verloren
+     */
+    public void close()
+    {
+        synchronized (commitLock)
+        {
+            synchronized (this)
+            {
+                try
+                {
+                    mappedBuffer = null;
+                    randomAccessFile.close();
+                } catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returnt het bestand
+     *
+     * @return Het bestand
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    public static class CommitBatch
+    {
+        private final LinkedHashMap<Integer, byte[]> matches;
+
+        /*
+         * De matches van 1 commit, zoals ze in de wachtrij stonden bij prepareCommit
+         */
+
+        /**
+         * CommitBatch constructor
+         *
+         * @param matches De matches
+         */
+        private CommitBatch(LinkedHashMap<Integer, byte[]> matches)
+        {
+            this.matches = matches;
+        }
+    }
+}
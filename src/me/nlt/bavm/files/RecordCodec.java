@@ -0,0 +1,926 @@
+package me.nlt.bavm.files;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.Factory;
+import me.nlt.bavm.game.Match;
+import me.nlt.bavm.game.MatchEvents;
+import me.nlt.bavm.game.MatchSummary;
+import me.nlt.bavm.season.SeasonRecord;
+import me.nlt.bavm.teams.coach.Coach;
+import me.nlt.bavm.teams.coach.CoachStats;
+import me.nlt.bavm.teams.exceptions.FactoryException;
+import me.nlt.bavm.teams.exceptions.InvalidPlayerException;
+import me.nlt.bavm.teams.player.Player;
+import me.nlt.bavm.teams.player.PlayerStats;
+import me.nlt.bavm.teams.player.Position;
+import me.nlt.bavm.teams.team.PlayerPlacement;
+import me.nlt.bavm.teams.team.Team;
+import me.nlt.bavm.teams.team.TeamInfo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class RecordCodec
+{
+    public static final int VERSION = 1;
+
+    private static final byte MARKER = 0;
+
+    private static final byte PLAYER = 1;
+    private static final byte COACH = 2;
+    private static final byte TEAM = 3;
+    private static final byte MATCH = 4;
+    private static final byte SEASON = 5;
+
+    private static final byte LOGS = 0;
+    private static final byte EVENTS = 1;
+    private static final byte SUMMARY = 2;
+    private static final byte ARCHIVED = 3;
+
+    private static final int SAME_MINUTE = 0;
+    private static final int NEXT_MINUTE = 1 << 5;
+    private static final int NEW_MINUTE = 2 << 5;
+    private static final int HAS_VALUES = 1 << 7;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final MatchEvents.EventType[] EVENT_TYPES = MatchEvents.EventType.values();
+    private static final byte[] LEGACY_PLACEHOLDER = "NULL <-> PH".getBytes(StandardCharsets.UTF_8);
+
+    /*
+     * RecordCodec zet spelers, coaches, teams en matches om naar bytes en terug, in plaats van de tekst van toString
+     *
+     * Ieder record begint met byte 0, de versie en het type, een tekstrecord begint nooit met byte 0
+     * Zo kunnen oude tekstrecords (uit data.xml of een oud databestand) nog gewoon gelezen worden via de Factory,
+     * die objecten worden gemarkeerd zodat ze bij de volgende save binair geschreven worden
+     *
+     * Getallen die meestal klein zijn (ID's, geld, scores, events) worden als zigzag varint geschreven,
+     * stats en geluk als 8 bytes double en namen als varint lengte met UTF-8 bytes
+     *
+     *   player: id, naam, positie, 6 stats, controlegetal
+     *   coach:  id, naam, 3 stats
+     *   team:   id, naam, directeur, talent, coach, geld, inkomen, spelers, opstelling, scores
+     *   match:  id, thuis, uit, score, soort (logs, events of samenvatting) met de data
+     *   season: nummer, per plek in de eindstand id, naam en scores, daarna per wedstrijd thuis, uit en score
+     *
+     * In het databestand staat van een match alleen id, thuis, uit, score en de soort ARCHIVED,
+     * het volledige record met de data staat in het MatchArchive
+     *
+     * Een event begint met 1 byte: type (4 bits), kant (1 bit), minuut (2 bits) en of er waardes komen (1 bit)
+     * De minuut is dezelfde als bij het vorige event, 1 hoger, of staat in de byte erna
+     * Alleen als a of b niet 0 is komen ze daarna als varint, zo zijn de meeste events maar 1 byte
+     */
+
+    /**
+     * Checkt of een record binair is
+     *
+     * @param record Het record
+     * @return Boolean die aangeeft of het record met deze codec geschreven is
+     */
+    public static boolean isBinary(byte[] record)
+    {
+        return record != null && record.length > 0 && record[0] == MARKER;
+    }
+
+    /**
+     * Checkt of een record nog als tekst is opgeslagen en dus omgezet moet worden, lege placeholders tellen niet mee
+     *
+     * @param record Het record
+     * @return Boolean die aangeeft of het record nog tekst is
+     */
+    public static boolean isLegacy(byte[] record)
+    {
+        return record != null && record.length > 0 && record[0] != MARKER && !Arrays.equals(record, LEGACY_PLACEHOLDER);
+    }
+
+    /**
+     * Checkt of een binair matchrecord nog de data van de wedstrijd bevat, in plaats van alleen een verwijzing naar het archief
+     *
+     * @param record Het record
+     * @return Boolean die aangeeft of het record een match met data is
+     */
+    public static boolean hasMatchLog(byte[] record)
+    {
+        if (!isBinary(record) || record.length < 3 || record[2] != MATCH)
+        {
+            return false;
+        }
+
+        try
+        {
+            ByteBuffer buffer = ByteBuffer.wrap(record, 3, record.length - 3);
+
+            // ID, thuis, uit en de score overslaan
+            for (int i = 0; i < 5; i++)
+            {
+                readVarInt(buffer);
+            }
+
+            return buffer.get() != ARCHIVED;
+        } catch (RuntimeException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Zet een speler om naar bytes
+     *
+     * @param player De speler
+     * @return Het record
+     */
+    public static byte[] encodePlayer(Player player)
+    {
+        RecordOutput output = new RecordOutput(PLAYER, 96);
+        PlayerStats playerStats = player.getPlayerStats();
+
+        output.writeVarInt(player.getID());
+        output.writeString(player.getPlayerName());
+        output.writeByte(player.getPosition().ordinal());
+
+        for (int i = 0; i < PlayerStats.Stat.values().length; i++)
+        {
+            output.writeDouble(playerStats.getValue(i));
+        }
+
+        output.writeDouble(playerStats.getCheckSum());
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Maakt een speler uit een record, een tekstrecord gaat naar de Factory
+     *
+     * @param record Het record
+     * @return De speler
+     * @throws InvalidPlayerException Als de speler onjuiste gegevens of een onjuist controlegetal heeft
+     * @throws FactoryException       Als het record van een onbekende versie of een ander type is
+     */
+    public static Player decodePlayer(byte[] record) throws InvalidPlayerException, FactoryException
+    {
+        if (!isBinary(record))
+        {
+            Player player = Factory.createPlayer(new String(record, StandardCharsets.UTF_8));
+
+            player.unsavedChanges = true;
+
+            return player;
+        }
+
+        ByteBuffer buffer = openRecord(record, PLAYER, "player");
+        String playerName = "";
+
+        try
+        {
+            int playerID = readVarInt(buffer);
+            playerName = readString(buffer);
+            Position position = POSITIONS[buffer.get()];
+            double[] playerStats = new double[PlayerStats.Stat.values().length];
+
+            for (int i = 0; i < playerStats.length; i++)
+            {
+                playerStats[i] = buffer.getDouble();
+            }
+
+            double checkSum = buffer.getDouble();
+            Player player = new Player(playerName, playerID, position, playerStats);
+
+            // Net als bij de tekst, als het controlegetal niet klopt is er met het bestand geknoeid
+            if (player.getPlayerStats().getCheckSum() != checkSum)
+            {
+                throw new InvalidPlayerException(playerName, checkSum);
+            }
+
+            return player;
+        } catch (RuntimeException e)
+        {
+            throw new InvalidPlayerException(playerName);
+        }
+    }
+
+    /**
+     * Zet een coach om naar bytes
+     *
+     * @param coach De coach
+     * @return Het record
+     */
+    public static byte[] encodeCoach(Coach coach)
+    {
+        RecordOutput output = new RecordOutput(COACH, 64);
+
+        output.writeVarInt(coach.getID());
+        output.writeString(coach.getCoachName());
+
+        for (int i = 0; i < CoachStats.CStat.values().length; i++)
+        {
+            output.writeDouble(coach.getCoachStats().getValue(i));
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Maakt een coach uit een record, een tekstrecord gaat naar de Factory
+     *
+     * @param record Het record
+     * @return De coach
+     * @throws FactoryException Als het record niet gelezen kan worden
+     */
+    public static Coach decodeCoach(byte[] record) throws FactoryException
+    {
+        if (!isBinary(record))
+        {
+            Coach coach = Factory.createCoach(new String(record, StandardCharsets.UTF_8));
+
+            coach.unsavedChanges = true;
+
+            return coach;
+        }
+
+        ByteBuffer buffer = openRecord(record, COACH, "coach");
+
+        try
+        {
+            int coachID = readVarInt(buffer);
+            String coachName = readString(buffer);
+            double[] coachStats = new double[CoachStats.CStat.values().length];
+
+            for (int i = 0; i < coachStats.length; i++)
+            {
+                coachStats[i] = buffer.getDouble();
+            }
+
+            return new Coach(coachName, coachID, coachStats);
+        } catch (RuntimeException e)
+        {
+            throw new FactoryException("coach", -1, "Onvolledig record");
+        }
+    }
+
+    /**
+     * Zet een team om naar bytes
+     *
+     * @param team Het team
+     * @return Het record
+     */
+    public static byte[] encodeTeam(Team team)
+    {
+        RecordOutput output = new RecordOutput(TEAM, 256);
+        TeamInfo teamInfo = team.getTeamInfo();
+        PlayerPlacement placement = teamInfo.getPlayerPlacement();
+        HashMap<TeamInfo.Score, Integer> teamScores = teamInfo.getTeamScores();
+        ArrayList<Player> players = new ArrayList<>(teamInfo.getPlayers());
+
+        // Net als bij de tekst worden spelers die niet bestaan overgeslagen
+        players.removeIf(player -> player == null);
+
+        output.writeVarInt(team.getID());
+        output.writeString(team.getTeamName());
+        output.writeString(team.getDirectorName());
+        output.writeDouble(teamInfo.getTeamTalent());
+        output.writeVarInt(teamInfo.getTeamCoach() != null ? teamInfo.getTeamCoach().getCoachID() : -1);
+        output.writeVarInt(teamInfo.getTeamGeld().getCurrentGeld());
+        output.writeVarInt(teamInfo.getTeamGeld().getWeeklyIncome());
+        writePlayers(output, players);
+
+        output.writeByte(placement != null ? 1 : 0);
+
+        if (placement != null)
+        {
+            output.writeVarInt(placement.getKeeper() != null ? placement.getKeeper().getPlayerID() : -1);
+            writePlayers(output, placement.getDefenders());
+            writePlayers(output, placement.getAttackers());
+            writePlayers(output, placement.getMidfielders());
+        }
+
+        output.writeVarInt(TeamInfo.Score.values().length);
+
+        for (TeamInfo.Score score : TeamInfo.Score.values())
+        {
+            output.writeVarInt(teamScores.get(score));
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Maakt een team uit een record, een tekstrecord gaat naar de Factory
+     * De spelers en coaches moeten al geladen zijn
+     *
+     * @param record Het record
+     * @return Het team
+     * @throws FactoryException Als het record niet gelezen kan worden
+     */
+    public static Team decodeTeam(byte[] record) throws FactoryException
+    {
+        if (!isBinary(record))
+        {
+            Team team = Factory.createTeam(new String(record, StandardCharsets.UTF_8));
+
+            team.unsavedChanges = true;
+
+            return team;
+        }
+
+        ByteBuffer buffer = openRecord(record, TEAM, "team");
+        int teamID = -1;
+
+        try
+        {
+            teamID = readVarInt(buffer);
+            String teamName = readString(buffer);
+            String directorName = readString(buffer);
+            double teamTalent = buffer.getDouble();
+            int coachID = readVarInt(buffer);
+            int currentGeld = readVarInt(buffer);
+            int weeklyIncome = readVarInt(buffer);
+            int[] playerIDs = readPlayers(buffer);
+            int[][] placement = null;
+
+            if (buffer.get() != 0)
+            {
+                placement = new int[][]{{readVarInt(buffer)}, readPlayers(buffer), readPlayers(buffer), readPlayers(buffer)};
+            }
+
+            int[] scores = new int[readVarInt(buffer)];
+
+            for (int i = 0; i < scores.length; i++)
+            {
+                scores[i] = readVarInt(buffer);
+            }
+
+            return new Team(teamName, directorName, teamID, playerIDs, coachID, teamTalent, currentGeld, weeklyIncome, placement, scores);
+        } catch (RuntimeException e)
+        {
+            throw new FactoryException("team", teamID, "Onvolledig record");
+        }
+    }
+
+    /**
+     * Zet een match om naar bytes, de logs moeten geladen zijn
+     *
+     * @param match De match
+     * @return Het record
+     */
+    public static byte[] encodeMatch(Match match)
+    {
+        MatchEvents matchEvents = match.getMatchEvents();
+        MatchSummary matchSummary = match.getMatchSummary();
+        RecordOutput output = new RecordOutput(MATCH, (matchEvents != null ? matchEvents.getSize() * 2 + 64 : 256));
+
+        output.writeVarInt(match.getID());
+        output.writeVarInt(match.getTeamIDs()[0]);
+        output.writeVarInt(match.getTeamIDs()[1]);
+        output.writeVarInt(match.getMatchGoals()[0]);
+        output.writeVarInt(match.getMatchGoals()[1]);
+
+        if (matchEvents != null)
+        {
+            output.writeByte(EVENTS);
+            output.writeDouble(matchEvents.getHomeLuck());
+            output.writeDouble(matchEvents.getVisitorLuck());
+            output.writeVarInt(matchEvents.getSize());
+
+            for (int i = 0, minute = 0; i < matchEvents.getSize(); i++)
+            {
+                int side = matchEvents.getSide(i);
+                int a = matchEvents.getA(i);
+                int b = matchEvents.getB(i);
+
+                if (side > 1)
+                {
+                    throw new IllegalArgumentException("Kant " + side + " van event " + i + " past niet in een record");
+                }
+
+                int header = matchEvents.getType(i).ordinal() | (side << 4) | (a != 0 || b != 0 ? HAS_VALUES : 0);
+
+                if (matchEvents.getMinute(i) == minute)
+                {
+                    output.writeByte(header | SAME_MINUTE);
+                } else if (matchEvents.getMinute(i) == minute + 1)
+                {
+                    output.writeByte(header | NEXT_MINUTE);
+                } else
+                {
+                    output.writeByte(header | NEW_MINUTE);
+                    output.writeByte(matchEvents.getMinute(i));
+                }
+
+                if ((header & HAS_VALUES) != 0)
+                {
+                    output.writeVarInt(a);
+                    output.writeVarInt(b);
+                }
+
+                minute = matchEvents.getMinute(i);
+            }
+        } else if (matchSummary != null)
+        {
+            output.writeByte(SUMMARY);
+            output.writeVarInt(matchSummary.getPossession(0));
+            output.writeVarInt(matchSummary.getPossession(1));
+            output.writeVarInt(matchSummary.getAttempts(0));
+            output.writeVarInt(matchSummary.getAttempts(1));
+            output.writeVarInt(matchSummary.getGoalCount());
+
+            for (int i = 0; i < matchSummary.getGoalCount(); i++)
+            {
+                output.writeVarInt(matchSummary.getGoalMinute(i) * 2 + matchSummary.getGoalSide(i));
+            }
+        } else
+        {
+            // Oude matches hebben alleen nog tekst
+            ArrayList<String> matchLog = match.getMatchLog();
+
+            output.writeByte(LOGS);
+            output.writeVarInt(matchLog.size());
+
+            for (String logMessage : matchLog)
+            {
+                output.writeString(logMessage);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Zet alleen de uitslag van een match om naar bytes, voor het databestand
+     * De data van de wedstrijd staat dan in het archief, de logs hoeven hiervoor niet geladen te zijn
+     *
+     * @param match De match
+     * @return Het record
+     */
+    public static byte[] encodeMatchHeader(Match match)
+    {
+        RecordOutput output = new RecordOutput(MATCH, 16);
+
+        output.writeVarInt(match.getID());
+        output.writeVarInt(match.getTeamIDs()[0]);
+        output.writeVarInt(match.getTeamIDs()[1]);
+        output.writeVarInt(match.getMatchGoals()[0]);
+        output.writeVarInt(match.getMatchGoals()[1]);
+        output.writeByte(ARCHIVED);
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Maakt een match uit een record, een tekstrecord gaat naar de Factory
+     * De teams moeten al geladen zijn
+     *
+     * @param record Het record
+     * @return De match, of null als het record een lege plek is
+     * @throws FactoryException Als het record niet gelezen kan worden
+     */
+    public static Match decodeMatch(byte[] record) throws FactoryException
+    {
+        if (record == null || record.length == 0)
+        {
+            return null;
+        }
+
+        if (!isBinary(record))
+        {
+            Match match = Factory.createMatch(new String(record, StandardCharsets.UTF_8));
+
+            if (match != null)
+            {
+                match.unsavedChanges = true;
+            }
+
+            return match;
+        }
+
+        return decodeMatch(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Maakt een match uit een binair record in een buffer, bijvoorbeeld een stuk van het gemapte archief
+     * De teams moeten al geladen zijn
+     *
+     * @param record Het record, van de positie tot het limiet van de buffer
+     * @return De match
+     * @throws FactoryException Als het record niet gelezen kan worden
+     */
+    public static Match decodeMatch(ByteBuffer record) throws FactoryException
+    {
+        ByteBuffer buffer = openRecord(record, MATCH, "match");
+        int matchID = -1;
+
+        try
+        {
+            matchID = readVarInt(buffer);
+            int homeID = readVarInt(buffer);
+            int visitorID = readVarInt(buffer);
+            int[] matchResult = new int[]{readVarInt(buffer), readVarInt(buffer)};
+            byte kind = buffer.get();
+
+            // Dezelfde naam als bij het registreren van de match, alleen de namen van de teams
+            String matchName = BAVM.getTeamManager().getTeam(homeID).getTeamName() + " - " + BAVM.getTeamManager().getTeam(visitorID).getTeamName();
+
+            switch (kind)
+            {
+                case EVENTS:
+                    MatchEvents matchEvents = new MatchEvents(buffer.getDouble(), buffer.getDouble());
+                    int size = readVarInt(buffer);
+
+                    for (int i = 0, minute = 0; i < size; i++)
+                    {
+                        int header = buffer.get() & 0xFF;
+
+                        switch (header & (NEW_MINUTE | NEXT_MINUTE))
+                        {
+                            case NEXT_MINUTE:
+                                minute++;
+                                break;
+                            case NEW_MINUTE:
+                                minute = buffer.get() & 0xFF;
+                                break;
+                            case SAME_MINUTE:
+                                break;
+                            default:
+                                throw new IllegalArgumentException("Onbekende minuut in event " + i);
+                        }
+
+                        if ((header & HAS_VALUES) != 0)
+                        {
+                            matchEvents.add(EVENT_TYPES[header & 0x0F], minute, (header >> 4) & 1, readVarInt(buffer), readVarInt(buffer));
+                        } else
+                        {
+                            matchEvents.add(EVENT_TYPES[header & 0x0F], minute, (header >> 4) & 1, 0, 0);
+                        }
+                    }
+
+                    return new Match(matchName, matchID, homeID, visitorID, matchResult, matchEvents, null);
+                case SUMMARY:
+                    int[] possession = new int[]{readVarInt(buffer), readVarInt(buffer)};
+                    int[] attempts = new int[]{readVarInt(buffer), readVarInt(buffer)};
+                    int[] goals = new int[readVarInt(buffer)];
+
+                    for (int i = 0; i < goals.length; i++)
+                    {
+                        goals[i] = readVarInt(buffer);
+                    }
+
+                    return new Match(matchName, matchID, homeID, visitorID, matchResult, null, new MatchSummary(possession, attempts, goals));
+                case LOGS:
+                    ArrayList<String> matchLog = new ArrayList<>();
+
+                    for (int i = readVarInt(buffer); i > 0; i--)
+                    {
+                        matchLog.add(readString(buffer));
+                    }
+
+                    return new Match(matchName, matchID, homeID, visitorID, matchResult, matchLog);
+                case ARCHIVED:
+                    // De data staat in het archief en wordt pas bij MatchManager.getMatchLog gelezen
+                    return new Match(matchName, matchID, homeID, visitorID, matchResult, new ArrayList<>());
+                default:
+                    throw new FactoryException("match", matchID, "Onbekende soort " + kind);
+            }
+        } catch (RuntimeException e)
+        {
+            throw new FactoryException("match", matchID, "Onvolledig record");
+        }
+    }
+
+    /**
+     * Zet de samenvatting van een seizoen om naar bytes
+     *
+     * @param seasonRecord De samenvatting
+     * @return Het record
+     */
+    public static byte[] encodeSeason(SeasonRecord seasonRecord)
+    {
+        RecordOutput output = new RecordOutput(SEASON, 64 + seasonRecord.getTeamCount() * 32 + seasonRecord.getMatchCount() * 4);
+
+        output.writeVarInt(seasonRecord.getSeasonNumber());
+        output.writeVarInt(seasonRecord.getTeamCount());
+
+        for (int position = 0; position < seasonRecord.getTeamCount(); position++)
+        {
+            output.writeVarInt(seasonRecord.getTeamID(position));
+            output.writeString(seasonRecord.getTeamName(position));
+
+            for (TeamInfo.Score score : TeamInfo.Score.values())
+            {
+                output.writeVarInt(seasonRecord.getScore(position, score));
+            }
+        }
+
+        output.writeVarInt(seasonRecord.getMatchCount());
+
+        for (int i = 0; i < seasonRecord.getMatchCount(); i++)
+        {
+            for (int value : seasonRecord.getMatchResult(i))
+            {
+                output.writeVarInt(value);
+            }
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * Maakt de samenvatting van een seizoen uit een record
+     *
+     * @param record Het record
+     * @return De samenvatting
+     * @throws FactoryException Als het record niet gelezen kan worden
+     */
+    public static SeasonRecord decodeSeason(byte[] record) throws FactoryException
+    {
+        ByteBuffer buffer = openRecord(record, SEASON, "season");
+        int seasonNumber = -1;
+
+        try
+        {
+            seasonNumber = readVarInt(buffer);
+            int teamCount = readVarInt(buffer);
+            int[] teamIDs = new int[teamCount];
+            String[] teamNames = new String[teamCount];
+            int[][] teamScores = new int[teamCount][TeamInfo.Score.values().length];
+
+            for (int position = 0; position < teamCount; position++)
+            {
+                teamIDs[position] = readVarInt(buffer);
+                teamNames[position] = readString(buffer);
+
+                for (int i = 0; i < teamScores[position].length; i++)
+                {
+                    teamScores[position][i] = readVarInt(buffer);
+                }
+            }
+
+            int[][] matchResults = new int[readVarInt(buffer)][];
+
+            for (int i = 0; i < matchResults.length; i++)
+            {
+                matchResults[i] = new int[]{readVarInt(buffer), readVarInt(buffer), readVarInt(buffer), readVarInt(buffer)};
+            }
+
+            return new SeasonRecord(seasonNumber, teamIDs, teamNames, teamScores, matchResults);
+        } catch (RuntimeException e)
+        {
+            throw new FactoryException("season", seasonNumber, "Onvolledig record");
+        }
+    }
+
+    /**
+     * Controleert de header van een record en returnt een buffer die direct na de header staat
+     *
+     * @param record Het record
+     * @param type   Het type dat verwacht wordt
+     * @param name   Naam van het type, voor de foutmelding
+     * @return De buffer
+     * @throws FactoryException Als de versie onbekend is of het record een ander type heeft
+     */
+    private static ByteBuffer openRecord(byte[] record, byte type, String name) throws FactoryException
+    {
+        return openRecord(ByteBuffer.wrap(record), type, name);
+    }
+
+    /**
+     * Controleert de header van een record in een buffer en returnt een nieuwe buffer die direct na de header staat
+     * De positie van de gegeven buffer verandert niet
+     *
+     * @param record Het record, van de positie tot het limiet van de buffer
+     * @param type   Het type dat verwacht wordt
+     * @param name   Naam van het type, voor de foutmelding
+     * @return De buffer
+     * @throws FactoryException Als het record niet binair is, de versie onbekend is of het record een ander type heeft
+     */
+    private static ByteBuffer openRecord(ByteBuffer record, byte type, String name) throws FactoryException
+    {
+        if (record.remaining() < 3)
+        {
+            throw new FactoryException(name, -1, "Onvolledig record");
+        }
+
+        ByteBuffer buffer = record.duplicate();
+        byte marker = buffer.get();
+        byte version = buffer.get();
+        byte recordType = buffer.get();
+
+        if (marker != MARKER)
+        {
+            throw new FactoryException(name, -1, "Record is niet binair");
+        }
+
+        // Nieuwere versies moeten hier eerst omgezet worden, op dit moment is er alleen versie 1
+        if (version < 1 || version > VERSION)
+        {
+            throw new FactoryException(name, -1, "Record heeft versie " + version + ", deze versie kan alleen versie " + VERSION + " lezen");
+        }
+
+        if (recordType != type)
+        {
+            throw new FactoryException(name, -1, "Record heeft type " + recordType);
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Schrijft het aantal spelers en daarna hun ID's
+     *
+     * @param output  De output
+     * @param players De spelers
+     */
+    private static void writePlayers(RecordOutput output, ArrayList<Player> players)
+    {
+        output.writeVarInt(players.size());
+
+        for (Player player : players)
+        {
+            output.writeVarInt(player.getPlayerID());
+        }
+    }
+
+    /**
+     * Leest ID's van spelers die geschreven zijn door writePlayers
+     *
+     * @param buffer De buffer
+     * @return De ID's
+     */
+    private static int[] readPlayers(ByteBuffer buffer)
+    {
+        int[] playerIDs = new int[readVarInt(buffer)];
+
+        for (int i = 0; i < playerIDs.length; i++)
+        {
+            playerIDs[i] = readVarInt(buffer);
+        }
+
+        return playerIDs;
+    }
+
+    /**
+     * Leest een zigzag varint, 7 bits per byte met het hoogste bit als teken dat er nog een byte komt
+     *
+     * @param buffer De buffer
+     * @return De int
+     */
+    private static int readVarInt(ByteBuffer buffer)
+    {
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7)
+        {
+            byte part = buffer.get();
+
+            value |= (part & 0x7F) << shift;
+
+            if (part >= 0)
+            {
+                break;
+            } else if (shift >= 28)
+            {
+                throw new IllegalArgumentException("Varint is langer dan 5 bytes");
+            }
+        }
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Leest een string die geschreven is door RecordOutput.writeString
+     * Een buffer zonder array (een stuk van het gemapte archief) wordt eerst naar een array gekopieerd
+     *
+     * @param buffer De buffer
+     * @return De string, of null
+     */
+    private static String readString(ByteBuffer buffer)
+    {
+        int length = readVarInt(buffer);
+
+        if (length == -1)
+        {
+            return null;
+        }
+
+        if (!buffer.hasArray())
+        {
+            byte[] bytes = new byte[length];
+
+            buffer.get(bytes);
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+
+        buffer.position(buffer.position() + length);
+
+        return string;
+    }
+
+    private static class RecordOutput
+    {
+        private byte[] bytes;
+        private int size;
+
+        /*
+         * Een groeiende array met bytes, zonder de IOException van een DataOutputStream
+         */
+
+        /**
+         * RecordOutput constructor, schrijft meteen de header
+         *
+         * @param type     Het type record
+         * @param capacity Hoeveel bytes er waarschijnlijk nodig zijn
+         */
+        private RecordOutput(byte type, int capacity)
+        {
+            this.bytes = new byte[Math.max(capacity, 16)];
+
+            this.writeByte(MARKER);
+            this.writeByte(VERSION);
+            this.writeByte(type);
+        }
+
+        /**
+         * Schrijft 1 byte
+         *
+         * @param value De byte, alleen de laagste 8 bits worden gebruikt
+         */
+        private void writeByte(int value)
+        {
+            if (size == bytes.length)
+            {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Schrijft een int als zigzag varint, kleine getallen (ook negatieve) kosten zo maar 1 of 2 bytes
+         *
+         * @param value De int
+         */
+        private void writeVarInt(int value)
+        {
+            int zigzag = (value << 1) ^ (value >> 31);
+
+            while ((zigzag & ~0x7F) != 0)
+            {
+                writeByte((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+
+            writeByte(zigzag);
+        }
+
+        /**
+         * Schrijft een double als 8 bytes, net als ByteBuffer.putDouble
+         *
+         * @param value De double
+         */
+        private void writeDouble(double value)
+        {
+            long bits = Double.doubleToRawLongBits(value);
+
+            for (int shift = 56; shift >= 0; shift -= 8)
+            {
+                writeByte((int) (bits >>> shift));
+            }
+        }
+
+        /**
+         * Schrijft een string als varint lengte en UTF-8 bytes, null wordt lengte -1
+         *
+         * @param string De string
+         */
+        private void writeString(String string)
+        {
+            if (string == null)
+            {
+                writeVarInt(-1);
+                return;
+            }
+
+            byte[] stringBytes = string.getBytes(StandardCharsets.UTF_8);
+
+            writeVarInt(stringBytes.length);
+
+            for (byte stringByte : stringBytes)
+            {
+                writeByte(stringByte);
+            }
+        }
+
+        /**
+         * Returnt de geschreven bytes
+         *
+         * @return De bytes
+         */
+        private byte[] toByteArray()
+        {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,1117 @@
+package me.nlt.bavm.files;
+
+import me.nlt.bavm.BAVM;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class RecordStore
+{
+    private static final int MAGIC = 0x4241564D;
+    private static final int VERSION = 3;
+    private static final int MIN_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final long COMPACT_THRESHOLD = 1 << 20;
+    private static final int READ_RUN_SIZE = 1 << 20;
+
+    private static final byte RECORD = 1;
+    private static final byte ATTRIBUTE = 2;
+    private static final byte COMMIT = 3;
+    private static final byte CLEAR = 4;
+
+    private final File file;
+    private RandomAccessFile randomAccessFile;
+    private long fileEnd;
+    private long liveBytes;
+
+    private final HashMap<String, RecordIndex> indexes = new HashMap<>();
+    private final HashMap<String, String> attributes = new HashMap<>();
+    private LinkedHashMap<String, LinkedHashMap<Integer, byte[]>> pendingRecords = new LinkedHashMap<>();
+    private LinkedHashMap<String, String> pendingAttributes = new LinkedHashMap<>();
+    private LinkedHashSet<String> pendingCleared = new LinkedHashSet<>();
+    private final ArrayDeque<CommitBatch> preparedBatches = new ArrayDeque<>();
+
+    private final Object commitLock = new Object();
+
+    /*
+     * RecordStore slaat alle records op in 1 bestand waar alleen aan het eind iets bijgeschreven wordt
+     * In het geheugen staat per tag een array met voor ieder ID de plek van de nieuwste versie in het bestand,
+     * zo is lezen en schrijven van 1 record altijd even snel, hoe groot het bestand ook is
+     *
+     * Het bestand begint met MAGIC en VERSION, daarna komen blokken met entries die eindigen met een COMMIT
+     * In versie 1 was de data van ieder record tekst, vanaf versie 2 mag de data ook binair zijn (zie RecordCodec)
+     * Vanaf versie 3 kan een blok ook een CLEAR hebben, die staat altijd voor de records van het blok
+     * De andere entries zijn niet veranderd, dus een ouder bestand wordt bij het openen alleen een nieuwe versie gegeven
+     *   RECORD:    byte 1, tag, int ID, data
+     *   ATTRIBUTE: byte 2, naam, waarde
+     *   COMMIT:    byte 3, long CRC32 van het blok
+     *   CLEAR:     byte 4, tag, alle records met die tag van voor dit blok bestaan niet meer
+     * Strings worden opgeslagen als int lengte en UTF-8 bytes
+     * Een blok zonder geldige COMMIT aan het eind van het bestand is niet helemaal weggeschreven en wordt bij het openen weggegooid
+     * Is een blok eerder in het bestand beschadigd, dan wordt het bestand eerst bewaard als .corrupt voordat er iets weggegooid wordt
+     *
+     * Een record dat niet veranderd is wordt niet opnieuw geschreven, en als er meer oude dan nieuwe versies
+     * in het bestand staan wordt het bestand opnieuw geschreven met alleen de nieuwste versies
+     *
+     * Een commit mag op een andere thread draaien dan de game, tijdens het schrijven naar de schijf kan er gewoon
+     * gelezen en geschreven worden, wat dan geschreven wordt gaat mee met de volgende commit
+     * Met prepareCommit wordt vastgelegd wat er in een commit komt, die batch kan daarna op een ander moment geschreven worden
+     * Batches worden altijd geschreven in de volgorde waarin ze klaargezet zijn, ook het opnieuw schrijven van het bestand
+     * gebeurt zonder lock op de store, alleen het omwisselen van het bestand en de index niet
+     */
+
+    /**
+     * RecordStore constructor, opent het bestand of maakt een nieuw bestand
+     *
+     * @param file Het bestand
+     * @throws IOException Als het bestand niet gelezen of gemaakt kan worden
+     */
+    public RecordStore(File file) throws IOException
+    {
+        this.file = file;
+
+        if (file.exists() && file.length() > 0)
+        {
+            this.readFile();
+        } else
+        {
+            this.randomAccessFile = new RandomAccessFile(file, "rw");
+            this.randomAccessFile.setLength(0);
+            this.randomAccessFile.writeInt(MAGIC);
+            this.randomAccessFile.writeInt(VERSION);
+            this.fileEnd = HEADER_SIZE;
+        }
+    }
+
+    /**
+     * Leest het hele bestand 1 keer van voor naar achter en bouwt de index op
+     *
+     * @throws IOException Als het bestand niet gelezen kan worden
+     */
+    private void readFile() throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC)
+        {
+            throw new IOException(file.getName() + " is geen BAVM databestand");
+        }
+
+        int version = buffer.getInt();
+
+        if (version < MIN_VERSION || version > VERSION)
+        {
+            throw new IOException(file.getName() + " heeft versie " + version + ", deze versie kan alleen versie " + MIN_VERSION + " tot en met " + VERSION + " lezen");
+        }
+
+        long committedEnd = HEADER_SIZE;
+        HashMap<String, HashMap<Integer, long[]>> blockRecords = new HashMap<>();
+        HashMap<String, String> blockAttributes = new HashMap<>();
+        HashSet<String> blockCleared = new HashSet<>();
+
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                int entryStart = buffer.position();
+                byte type = buffer.get();
+
+                switch (type)
+                {
+                    case RECORD:
+                        String tag = readString(buffer);
+                        int ID = buffer.getInt();
+                        long offset = buffer.position();
+                        int length = buffer.getInt();
+                        CRC32 recordCrc = new CRC32();
+
+                        recordCrc.update(buffer.array(), buffer.position(), length);
+                        buffer.position(buffer.position() + length);
+                        blockRecords.computeIfAbsent(tag, key -> new HashMap<>()).put(ID, new long[]{offset, buffer.position() - entryStart, recordCrc.getValue()});
+                        break;
+                    case ATTRIBUTE:
+                        String name = readString(buffer);
+
+                        blockAttributes.put(name, readString(buffer));
+                        break;
+                    case CLEAR:
+                        String clearedTag = readString(buffer);
+
+                        blockRecords.remove(clearedTag);
+                        blockCleared.add(clearedTag);
+                        break;
+                    case COMMIT:
+                        CRC32 crc = new CRC32();
+
+                        crc.update(buffer.array(), (int) committedEnd, entryStart - (int) committedEnd);
+
+                        if (buffer.getLong() != crc.getValue())
+                        {
+                            throw new IOException("Blok na " + committedEnd + " is beschadigd");
+                        }
+
+                        // Het blok is compleet, dus pas nu in de index zetten
+                        for (String blockTag : blockCleared)
+                        {
+                            removeIndex(blockTag);
+                        }
+
+                        for (Map.Entry<String, HashMap<Integer, long[]>> entry : blockRecords.entrySet())
+                        {
+                            RecordIndex index = getIndex(entry.getKey());
+
+                            for (Map.Entry<Integer, long[]> record : entry.getValue().entrySet())
+                            {
+                                putRecord(index, record.getKey(), record.getValue());
+                            }
+                        }
+
+                        attributes.putAll(blockAttributes);
+                        blockRecords.clear();
+                        blockAttributes.clear();
+                        blockCleared.clear();
+                        committedEnd = buffer.position();
+                        break;
+                    default:
+                        throw new IOException("Onbekend type " + type + " op " + entryStart);
+                }
+            }
+        } catch (IOException | RuntimeException e)
+        {
+            // Een blok dat voorbij het einde gaat of waar alleen nullen na komen is bij het schrijven afgebroken
+            if (e instanceof BufferUnderflowException || e instanceof IndexOutOfBoundsException || isEmpty(buffer.array(), buffer.position()))
+            {
+                System.out.println("Onvolledig blok in " + file.getName() + " genegeerd: " + e.getMessage());
+            } else
+            {
+                // Na het beschadigde blok staan nog andere blokken, die zijn niet meer te vertrouwen maar worden wel bewaard
+                File corruptFile = new File(file.getPath() + ".corrupt");
+
+                Files.copy(file.toPath(), corruptFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                BAVM.getDisplay().printException(new IOException(file.getName() + " is beschadigd na " + committedEnd + ", alles daarna is weggegooid en het oude bestand is bewaard als " + corruptFile.getName(), e));
+            }
+        }
+
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.randomAccessFile.setLength(committedEnd);
+        this.fileEnd = committedEnd;
+
+        if (version < VERSION)
+        {
+            // De header valt buiten de CRC van de blokken, dus alleen het versienummer hoeft aangepast te worden
+            this.randomAccessFile.seek(4);
+            this.randomAccessFile.writeInt(VERSION);
+        }
+    }
+
+    /**
+     * Returnt of er vanaf een plek alleen nog nullen staan, zoals na een afgebroken schrijfactie
+     *
+     * @param bytes Het bestand
+     * @param from  De plek vanaf waar gekeken wordt
+     * @return True als er na die plek niks anders dan nullen staat
+     */
+    private static boolean isEmpty(byte[] bytes, int from)
+    {
+        for (int i = from; i < bytes.length; i++)
+        {
+            if (bytes[i] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Zet een record in de index en houdt bij hoeveel bytes er nog gebruikt worden
+     *
+     * @param index  De index
+     * @param ID     ID van het record
+     * @param record De plek, de grootte van de entry en de CRC32 van de data
+     */
+    private void putRecord(RecordIndex index, int ID, long[] record)
+    {
+        liveBytes += record[1] - index.put(ID, record[0], (int) record[1], (int) record[2]);
+    }
+
+    /**
+     * Haalt de index van een tag weg, de records van die tag worden dan niet meer gebruikt
+     *
+     * @param tag De tag
+     */
+    private void removeIndex(String tag)
+    {
+        RecordIndex index = indexes.remove(tag);
+
+        for (int ID = 0; index != null && ID < index.getCapacity(); ID++)
+        {
+            if (index.get(ID) != -1)
+            {
+                liveBytes -= index.getSize(ID);
+            }
+        }
+    }
+
+    /**
+     * Returnt de index van een tag en maakt die als die nog niet bestaat
+     *
+     * @param tag De tag
+     * @return De index
+     */
+    private RecordIndex getIndex(String tag)
+    {
+        return indexes.computeIfAbsent(tag, key -> new RecordIndex());
+    }
+
+    /**
+     * Leest een record
+     *
+     * @param tag De tag van het record
+     * @param ID  ID van het record
+     * @return De data, of null als het record niet bestaat
+     * @throws IOException Als het bestand niet gelezen kan worden
+     */
+    public synchronized byte[] read(String tag, int ID) throws IOException
+    {
+        ArrayList<CommitBatch> uncommitted = this.getUncommittedBatches();
+
+        // Eerst de nieuwste versie die nog niet in het bestand staat
+        for (int i = uncommitted.size() - 1; i >= 0; i--)
+        {
+            LinkedHashMap<Integer, byte[]> records = uncommitted.get(i).records.get(tag);
+
+            if (records != null && records.containsKey(ID))
+            {
+                return records.get(ID);
+            } else if (uncommitted.get(i).cleared.contains(tag))
+            {
+                return null;
+            }
+        }
+
+        RecordIndex index = indexes.get(tag);
+        long offset = (index == null ? -1 : index.get(ID));
+
+        if (offset == -1)
+        {
+            return null;
+        }
+
+        return readBytes(offset);
+    }
+
+    /**
+     * Leest alle records van een tag in 1 keer, bijvoorbeeld bij het opstarten
+     * Records die in het bestand direct achter elkaar staan worden samen gelezen, tot READ_RUN_SIZE bytes per keer
+     *
+     * @param tag De tag van de records
+     * @return Array met op iedere plek de data van het record met dat ID, null als er geen record met dat ID is
+     * @throws IOException Als het bestand niet gelezen kan worden
+     */
+    public synchronized byte[][] readAll(String tag) throws IOException
+    {
+        ArrayList<CommitBatch> uncommitted = this.getUncommittedBatches();
+
+        // Als de tag nog geleegd wordt hoeft er niks uit het bestand gelezen te worden
+        RecordIndex index = (uncommitted.stream().anyMatch(batch -> batch.cleared.contains(tag)) ? null : indexes.get(tag));
+        int headerSize = 1 + 4 + tag.getBytes(StandardCharsets.UTF_8).length + 4;
+        int capacity = (index == null ? 0 : index.getCapacity());
+        byte[][] fileRecords = new byte[capacity][];
+        ArrayList<Integer> IDs = new ArrayList<>(capacity);
+
+        for (int ID = 0; ID < capacity; ID++)
+        {
+            if (index.get(ID) != -1)
+            {
+                IDs.add(ID);
+            }
+        }
+
+        // Op volgorde van de plek in het bestand, zo staan records die samen geschreven zijn naast elkaar
+        IDs.sort(Comparator.comparingLong(ID -> index.get(ID)));
+
+        for (int first = 0; first < IDs.size(); )
+        {
+            long start = index.get(IDs.get(first)) - headerSize;
+            long end = start + index.getSize(IDs.get(first));
+            int last = first + 1;
+
+            while (last < IDs.size() && index.get(IDs.get(last)) - headerSize == end && end - start + index.getSize(IDs.get(last)) <= READ_RUN_SIZE)
+            {
+                end += index.getSize(IDs.get(last));
+                last++;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+
+            readFully(randomAccessFile.getChannel(), buffer, start);
+
+            for (int i = first; i < last; i++)
+            {
+                int position = (int) (index.get(IDs.get(i)) - start);
+
+                fileRecords[IDs.get(i)] = Arrays.copyOfRange(buffer.array(), position + 4, position + 4 + buffer.getInt(position));
+            }
+
+            first = last;
+        }
+
+        ArrayList<byte[]> records = new ArrayList<>(Arrays.asList(fileRecords));
+
+        // Wat nog niet gecommit is gaat voor wat in het bestand staat
+        for (CommitBatch batch : uncommitted)
+        {
+            if (batch.cleared.contains(tag))
+            {
+                records.clear();
+            }
+
+            if (!batch.records.containsKey(tag))
+            {
+                continue;
+            }
+
+            for (Map.Entry<Integer, byte[]> record : batch.records.get(tag).entrySet())
+            {
+                while (records.size() <= record.getKey())
+                {
+                    records.add(null);
+                }
+
+                records.set(record.getKey(), record.getValue());
+            }
+        }
+
+        // Lege plekken aan het eind zijn niet nodig
+        while (!records.isEmpty() && records.get(records.size() - 1) == null)
+        {
+            records.remove(records.size() - 1);
+        }
+
+        return records.toArray(new byte[records.size()][]);
+    }
+
+    /**
+     * Returnt alles wat nog niet in het bestand staat, eerst de batches van oud naar nieuw en als laatste de wachtrij
+     *
+     * @return De batches, wat later komt gaat voor
+     */
+    private ArrayList<CommitBatch> getUncommittedBatches()
+    {
+        ArrayList<CommitBatch> uncommitted = new ArrayList<>(preparedBatches);
+
+        uncommitted.add(new CommitBatch(pendingRecords, pendingAttributes, pendingCleared));
+
+        return uncommitted;
+    }
+
+    /**
+     * Leest de data van een record op een plek in het bestand
+     * Er wordt met de plek in het bestand gelezen in plaats van seek, zo kunnen een commit en de game tegelijk lezen
+     *
+     * @param offset De plek van het record
+     * @return De data
+     * @throws IOException Als het bestand niet gelezen kan worden
+     */
+    private byte[] readBytes(long offset) throws IOException
+    {
+        FileChannel channel = randomAccessFile.getChannel();
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+
+        readFully(channel, lengthBuffer, offset);
+
+        ByteBuffer dataBuffer = ByteBuffer.allocate(lengthBuffer.getInt(0));
+
+        readFully(channel, dataBuffer, offset + 4);
+
+        return dataBuffer.array();
+    }
+
+    /**
+     * Vult een buffer helemaal vanaf een plek in het bestand
+     *
+     * @param channel  Het bestand
+     * @param buffer   De buffer
+     * @param position De plek in het bestand
+     * @throws IOException Als het bestand eerder ophoudt
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new EOFException("Record op " + position + " gaat voorbij het einde van het bestand");
+            }
+        }
+    }
+
+    /**
+     * Schrijft een record, dit komt pas in het bestand bij de volgende commit
+     *
+     * @param tag  De tag van het record
+     * @param ID   ID van het record, mag niet negatief zijn
+     * @param data De data
+     */
+    public synchronized void write(String tag, int ID, byte[] data)
+    {
+        if (ID < 0)
+        {
+            throw new IllegalArgumentException("ID " + ID + " van " + tag + " is negatief");
+        }
+
+        pendingRecords.computeIfAbsent(tag, key -> new LinkedHashMap<>()).put(ID, data);
+    }
+
+    /**
+     * Returnt hoeveel verschillende ID's er zijn voor een tag
+     *
+     * @param tag De tag
+     * @return Hoeveelheid records
+     */
+    public synchronized int getAmount(String tag)
+    {
+        RecordIndex index = indexes.get(tag);
+        HashSet<Integer> newIDs = new HashSet<>();
+
+        for (CommitBatch batch : this.getUncommittedBatches())
+        {
+            if (batch.cleared.contains(tag))
+            {
+                // Wat hiervoor kwam telt niet meer mee
+                index = null;
+                newIDs.clear();
+            }
+
+            if (!batch.records.containsKey(tag))
+            {
+                continue;
+            }
+
+            for (int ID : batch.records.get(tag).keySet())
+            {
+                if (index == null || index.get(ID) == -1)
+                {
+                    newIDs.add(ID);
+                }
+            }
+        }
+
+        return (index == null ? 0 : index.getAmount()) + newIDs.size();
+    }
+
+    /**
+     * Leest een attribuut
+     *
+     * @param name Naam van het attribuut
+     * @return De waarde, of null als het attribuut niet bestaat
+     */
+    public synchronized String getAttribute(String name)
+    {
+        if (pendingAttributes.containsKey(name))
+        {
+            return pendingAttributes.get(name);
+        }
+
+        Iterator<CommitBatch> iterator = preparedBatches.descendingIterator();
+
+        while (iterator.hasNext())
+        {
+            CommitBatch batch = iterator.next();
+
+            if (batch.attributes.containsKey(name))
+            {
+                return batch.attributes.get(name);
+            }
+        }
+
+        return attributes.get(name);
+    }
+
+    /**
+     * Leest een attribuut zoals het nu in het bestand staat, zonder wat nog niet gecommit is
+     *
+     * @param name Naam van het attribuut
+     * @return De waarde, of null als het attribuut niet in het bestand staat
+     */
+    public synchronized String getCommittedAttribute(String name)
+    {
+        return attributes.get(name);
+    }
+
+    /**
+     * Zet een attribuut, dit komt pas in het bestand bij de volgende commit
+     *
+     * @param name  Naam van het attribuut
+     * @param value De waarde
+     */
+    public synchronized void setAttribute(String name, String value)
+    {
+        pendingAttributes.put(name, value);
+    }
+
+    /**
+     * Verwijdert alle records van een tag, dit komt pas in het bestand bij de volgende commit
+     * Records die daarna met dezelfde tag geschreven worden blijven gewoon bestaan
+     *
+     * @param tag De tag
+     */
+    public synchronized void clear(String tag)
+    {
+        pendingRecords.remove(tag);
+        pendingCleared.add(tag);
+    }
+
+    /**
+     * Legt vast wat er in de volgende commit komt, wat daarna geschreven wordt komt pas in een latere commit
+     * Zo kan dit met de game lock gebeuren en het schrijven zelf later, zonder dat er een half veranderde snapshot in komt
+     *
+     * @return De laatste batch die klaarstaat, of null als er niks te schrijven is
+     */
+    public synchronized CommitBatch prepareCommit()
+    {
+        if (!pendingRecords.isEmpty() || !pendingAttributes.isEmpty() || !pendingCleared.isEmpty())
+        {
+            preparedBatches.addLast(new CommitBatch(pendingRecords, pendingAttributes, pendingCleared));
+            pendingRecords = new LinkedHashMap<>();
+            pendingAttributes = new LinkedHashMap<>();
+            pendingCleared = new LinkedHashSet<>();
+        }
+
+        // Een batch die eerder niet geschreven kon worden staat er nog, die komt dan ook in deze commit
+        return preparedBatches.peekLast();
+    }
+
+    /**
+     * Schrijft alles wat veranderd is achteraan het bestand
+     *
+     * @return Hoeveel records er echt geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    public int commit() throws IOException
+    {
+        return this.commit(this.prepareCommit());
+    }
+
+    /**
+     * Schrijft de batches die klaarstaan tot en met een batch van prepareCommit, iedere batch als 1 blok achteraan het bestand
+     * Records die precies hetzelfde zijn als wat er al in het bestand staat worden overgeslagen
+     *
+     * Alleen het aanpassen van de index gebeurt met de lock op de store, het schrijven zelf niet
+     * Als het schrijven mislukt blijft de batch vooraan staan en wordt die bij de volgende commit opnieuw geschreven
+     *
+     * @param batch De batch van prepareCommit, null als er niks te schrijven is
+     * @return Hoeveel records er echt geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    public int commit(CommitBatch batch) throws IOException
+    {
+        synchronized (commitLock)
+        {
+            int written = 0;
+            CommitBatch next;
+
+            do
+            {
+                synchronized (this)
+                {
+                    // Een batch die niet meer klaarstaat is al door een andere commit geschreven
+                    if (batch == null || !preparedBatches.contains(batch))
+                    {
+                        break;
+                    }
+
+                    next = preparedBatches.peekFirst();
+                }
+
+                written += this.writeBlock(next);
+            } while (next != batch);
+
+            if (getDeadBytes() > liveBytes && getDeadBytes() > COMPACT_THRESHOLD)
+            {
+                this.rewriteFile();
+            }
+
+            return written;
+        }
+    }
+
+    /**
+     * Schrijft de records en attributen van de eerste batch als 1 blok, alleen aanroepen vanuit commit
+     *
+     * @param batch De eerste batch die klaarstaat
+     * @return Hoeveel records er echt geschreven zijn
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    private int writeBlock(CommitBatch batch) throws IOException
+    {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        DataOutputStream dataStream = new DataOutputStream(byteStream);
+        HashMap<String, HashMap<Integer, long[]>> newOffsets = new HashMap<>();
+        int written = 0;
+
+        // Eerst legen, de records van deze batch komen daarna
+        for (String tag : batch.cleared)
+        {
+            dataStream.writeByte(CLEAR);
+            writeString(dataStream, tag);
+        }
+
+        // De index wordt alleen binnen een commit aangepast, dus die kan hier zonder lock gelezen worden
+        for (Map.Entry<String, LinkedHashMap<Integer, byte[]>> entry : batch.records.entrySet())
+        {
+            HashMap<Integer, long[]> tagOffsets = new HashMap<>();
+            RecordIndex index = (batch.cleared.contains(entry.getKey()) ? null : indexes.get(entry.getKey()));
+
+            for (Map.Entry<Integer, byte[]> record : entry.getValue().entrySet())
+            {
+                byte[] data = record.getValue();
+                CRC32 recordCrc = new CRC32();
+
+                recordCrc.update(data);
+
+                // Alleen als de CRC gelijk is wordt de oude versie gelezen om zeker te weten dat er niks veranderd is
+                if (index != null && index.get(record.getKey()) != -1 && index.getChecksum(record.getKey()) == (int) recordCrc.getValue()
+                        && Arrays.equals(readBytes(index.get(record.getKey())), data))
+                {
+                    continue;
+                }
+
+                int entryStart = dataStream.size();
+
+                dataStream.writeByte(RECORD);
+                writeString(dataStream, entry.getKey());
+                dataStream.writeInt(record.getKey());
+
+                long offset = fileEnd + dataStream.size();
+
+                dataStream.writeInt(data.length);
+                dataStream.write(data);
+                tagOffsets.put(record.getKey(), new long[]{offset, dataStream.size() - entryStart, recordCrc.getValue()});
+                written++;
+            }
+
+            newOffsets.put(entry.getKey(), tagOffsets);
+        }
+
+        if (written == 0 && batch.attributes.isEmpty() && batch.cleared.isEmpty())
+        {
+            synchronized (this)
+            {
+                preparedBatches.removeFirst();
+            }
+
+            return 0;
+        }
+
+        for (Map.Entry<String, String> attribute : batch.attributes.entrySet())
+        {
+            dataStream.writeByte(ATTRIBUTE);
+            writeString(dataStream, attribute.getKey());
+            writeString(dataStream, attribute.getValue());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(byteStream.toByteArray());
+
+        dataStream.writeByte(COMMIT);
+        dataStream.writeLong(crc.getValue());
+        dataStream.flush();
+
+        FileChannel channel = randomAccessFile.getChannel();
+        ByteBuffer block = ByteBuffer.wrap(byteStream.toByteArray());
+
+        while (block.hasRemaining())
+        {
+            channel.write(block, fileEnd + block.position());
+        }
+
+        channel.force(true);
+
+        synchronized (this)
+        {
+            fileEnd += dataStream.size();
+
+            // Pas als alles op de schijf staat de index aanpassen
+            for (String tag : batch.cleared)
+            {
+                removeIndex(tag);
+            }
+
+            for (Map.Entry<String, HashMap<Integer, long[]>> entry : newOffsets.entrySet())
+            {
+                RecordIndex index = getIndex(entry.getKey());
+
+                for (Map.Entry<Integer, long[]> record : entry.getValue().entrySet())
+                {
+                    putRecord(index, record.getKey(), record.getValue());
+                }
+            }
+
+            attributes.putAll(batch.attributes);
+            preparedBatches.removeFirst();
+        }
+
+        return written;
+    }
+
+    /**
+     * Returnt hoeveel bytes in het bestand niet meer gebruikt worden, oude versies van records, attributen en commits
+     *
+     * @return Hoeveelheid ongebruikte bytes
+     */
+    public synchronized long getDeadBytes()
+    {
+        return fileEnd - HEADER_SIZE - liveBytes;
+    }
+
+    /**
+     * Schrijft het bestand opnieuw met alleen de nieuwste versie van ieder record
+     * Eerst wordt alles naar een tijdelijk bestand geschreven, dat daarna in 1 keer het oude bestand vervangt
+     *
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    public void compact() throws IOException
+    {
+        synchronized (commitLock)
+        {
+            this.rewriteFile();
+        }
+    }
+
+    /**
+     * Schrijft de nieuwste versie van ieder record naar een tijdelijk bestand en zet dat op de plek van het databestand
+     * Alleen aanroepen met de commitLock, de index verandert dan niet en het tijdelijke bestand kan zonder lock op de store
+     * geschreven worden, alleen het omwisselen van het bestand en de index gebeurt met de lock
+     *
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    private void rewriteFile() throws IOException
+    {
+        File tempFile = new File(file.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        HashMap<String, HashMap<Integer, long[]>> newOffsets = new HashMap<>();
+
+        try (FileOutputStream fileStream = new FileOutputStream(tempFile))
+        {
+            DataOutputStream dataStream = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileStream), crc));
+
+            dataStream.writeInt(MAGIC);
+            dataStream.writeInt(VERSION);
+            dataStream.flush();
+            crc.reset();
+
+            for (Map.Entry<String, RecordIndex> entry : indexes.entrySet())
+            {
+                HashMap<Integer, long[]> tagOffsets = new HashMap<>();
+                RecordIndex index = entry.getValue();
+
+                for (int ID = 0; ID < index.getCapacity(); ID++)
+                {
+                    if (index.get(ID) == -1)
+                    {
+                        continue;
+                    }
+
+                    byte[] data = readBytes(index.get(ID));
+                    int entryStart = dataStream.size();
+
+                    dataStream.writeByte(RECORD);
+                    writeString(dataStream, entry.getKey());
+                    dataStream.writeInt(ID);
+
+                    long offset = dataStream.size();
+
+                    dataStream.writeInt(data.length);
+                    dataStream.write(data);
+                    tagOffsets.put(ID, new long[]{offset, dataStream.size() - entryStart, index.getChecksum(ID)});
+                }
+
+                newOffsets.put(entry.getKey(), tagOffsets);
+            }
+
+            for (Map.Entry<String, String> attribute : attributes.entrySet())
+            {
+                dataStream.writeByte(ATTRIBUTE);
+                writeString(dataStream, attribute.getKey());
+                writeString(dataStream, attribute.getValue());
+            }
+
+            long blockCrc = crc.getValue();
+
+            dataStream.writeByte(COMMIT);
+            dataStream.writeLong(blockCrc);
+            dataStream.flush();
+            fileStream.getFD().sync();
+        }
+
+        // De nieuwe index al opbouwen, zodat het omwisselen zo kort mogelijk duurt
+        HashMap<String, RecordIndex> newIndexes = new HashMap<>();
+        long newLiveBytes = 0;
+
+        for (Map.Entry<String, HashMap<Integer, long[]>> entry : newOffsets.entrySet())
+        {
+            RecordIndex index = new RecordIndex();
+
+            for (Map.Entry<Integer, long[]> record : entry.getValue().entrySet())
+            {
+                index.put(record.getKey(), record.getValue()[0], (int) record.getValue()[1], (int) record.getValue()[2]);
+                newLiveBytes += record.getValue()[1];
+            }
+
+            newIndexes.put(entry.getKey(), index);
+        }
+
+        synchronized (this)
+        {
+            // Op Windows kan een open bestand niet vervangen worden, dus het oude bestand moet eerst dicht
+            randomAccessFile.close();
+
+            boolean moved = false;
+
+            try
+            {
+                try
+                {
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e)
+                {
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                moved = true;
+            } finally
+            {
+                // Als het vervangen mislukt is staat het oude bestand er nog en klopt de index daar nog mee
+                randomAccessFile = new RandomAccessFile(file, "rw");
+
+                if (!moved)
+                {
+                    tempFile.delete();
+                }
+            }
+
+            fileEnd = randomAccessFile.length();
+            liveBytes = newLiveBytes;
+            indexes.clear();
+            indexes.putAll(newIndexes);
+        }
+    }
+
+    /**
+     * Sluit het bestand, een commit die bezig is wordt eerst afgemaakt, wat nog niet gecommit is gaat verloren
+     */
+    public void close()
+    {
+        synchronized (commitLock)
+        {
+            synchronized (this)
+            {
+                try
+                {
+                    randomAccessFile.close();
+                } catch (IOException e)
+                {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returnt het bestand
+     *
+     * @return Het bestand
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Leest een string die geschreven is door writeString
+     *
+     * @param buffer De buffer
+     * @return De string
+     */
+    private static String readString(ByteBuffer buffer)
+    {
+        int length = buffer.getInt();
+        String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+
+        buffer.position(buffer.position() + length);
+
+        return string;
+    }
+
+    /**
+     * Schrijft een string als int lengte en UTF-8 bytes
+     *
+     * @param dataStream De stream
+     * @param string     De string
+     * @throws IOException Als er niet geschreven kan worden
+     */
+    private static void writeString(DataOutputStream dataStream, String string) throws IOException
+    {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        dataStream.writeInt(bytes.length);
+        dataStream.write(bytes);
+    }
+
+    public static class CommitBatch
+    {
+        private final LinkedHashMap<String, LinkedHashMap<Integer, byte[]>> records;
+        private final LinkedHashMap<String, String> attributes;
+        private final LinkedHashSet<String> cleared;
+
+        /*
+         * De records, attributen en geleegde tags van 1 commit, zoals ze in de wachtrij stonden bij prepareCommit
+         * Een tag wordt geleegd voordat de records van dezelfde batch geschreven worden
+         */
+
+        /**
+         * CommitBatch constructor
+         *
+         * @param records    De records per tag
+         * @param attributes De attributen
+         * @param cleared    De tags die geleegd worden
+         */
+        private CommitBatch(LinkedHashMap<String, LinkedHashMap<Integer, byte[]>> records, LinkedHashMap<String, String> attributes, LinkedHashSet<String> cleared)
+        {
+            this.records = records;
+            this.attributes = attributes;
+            this.cleared = cleared;
+        }
+    }
+
+    private static class RecordIndex
+    {
+        private long[] offsets = new long[0];
+        private int[] sizes = new int[0];
+        private int[] checksums = new int[0];
+        private int amount;
+
+        /*
+         * De plek in het bestand per ID, -1 als er geen record met dat ID is
+         * Daarnaast de grootte van de entry en de CRC32 van de data, om te zien of een record veranderd is
+         */
+
+        /**
+         * Returnt de plek van een record
+         *
+         * @param ID ID van het record
+         * @return De plek in het bestand, of -1
+         */
+        private long get(int ID)
+        {
+            return (ID >= 0 && ID < offsets.length ? offsets[ID] : -1);
+        }
+
+        /**
+         * Returnt de grootte van de hele entry van een record
+         *
+         * @param ID ID van het record
+         * @return De grootte in bytes
+         */
+        private int getSize(int ID)
+        {
+            return sizes[ID];
+        }
+
+        /**
+         * Returnt de CRC32 van de data van een record
+         *
+         * @param ID ID van het record
+         * @return De CRC32
+         */
+        private int getChecksum(int ID)
+        {
+            return checksums[ID];
+        }
+
+        /**
+         * Zet de plek van een record
+         *
+         * @param ID       ID van het record
+         * @param offset   De plek in het bestand
+         * @param size     De grootte van de hele entry
+         * @param checksum De CRC32 van de data
+         * @return De grootte van de entry die vervangen is, 0 als het record nieuw is
+         */
+        private int put(int ID, long offset, int size, int checksum)
+        {
+            if (ID >= offsets.length)
+            {
+                int oldLength = offsets.length;
+                int newLength = Math.max(ID + 1, oldLength * 2);
+
+                offsets = Arrays.copyOf(offsets, newLength);
+                sizes = Arrays.copyOf(sizes, newLength);
+                checksums = Arrays.copyOf(checksums, newLength);
+                Arrays.fill(offsets, oldLength, newLength, -1);
+            }
+
+            int oldSize = sizes[ID];
+
+            if (offsets[ID] == -1)
+            {
+                amount++;
+                oldSize = 0;
+            }
+
+            offsets[ID] = offset;
+            sizes[ID] = size;
+            checksums[ID] = checksum;
+
+            return oldSize;
+        }
+
+        /**
+         * Returnt tot welk ID er plek is in de index
+         *
+         * @return De grootte van de index
+         */
+        private int getCapacity()
+        {
+            return offsets.length;
+        }
+
+        /**
+         * Returnt de hoeveelheid records
+         *
+         * @return Hoeveelheid records
+         */
+        private int getAmount()
+        {
+            return amount;
+        }
+    }
+}
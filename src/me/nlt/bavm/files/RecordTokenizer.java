@@ -0,0 +1,320 @@
+package me.nlt.bavm.files;
+
+public class RecordTokenizer
+{
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final String record;
+    private final int end;
+    private int position;
+
+    private int keyStart, keyEnd;
+    private int valueStart, valueEnd;
+
+    /*
+     * RecordTokenizer loopt 1 keer door een record in de vorm Type{a=b,c=d} zonder split, replaceAll of regex
+     * Een waarde loopt tot de volgende komma die niet tussen { en } staat, zo kan een waarde zelf ook een record zijn
+     * Getallen worden direct uit het record gelezen, zonder eerst een losse string te maken
+     */
+
+    /**
+     * RecordTokenizer constructor
+     *
+     * @param record De string met het record
+     * @param type   Het type voor de {, bijvoorbeeld Player
+     * @throws IllegalArgumentException Als het record niet met het type begint of niet met een } eindigt
+     */
+    public RecordTokenizer(String record, String type) throws IllegalArgumentException
+    {
+        int start = 0;
+        int end = record.length();
+
+        // Hetzelfde als trim, maar zonder een nieuwe string
+        while (start < end && record.charAt(start) <= ' ')
+        {
+            start++;
+        }
+
+        while (end > start && record.charAt(end - 1) <= ' ')
+        {
+            end--;
+        }
+
+        if (!record.startsWith(type, start) || start + type.length() >= end || record.charAt(start + type.length()) != '{' || record.charAt(end - 1) != '}')
+        {
+            throw new IllegalArgumentException("Geen geldig " + type + " record");
+        }
+
+        this.record = record;
+        this.position = start + type.length() + 1;
+        this.end = end - 1;
+    }
+
+    /**
+     * Gaat naar het volgende veld
+     *
+     * @return Boolean die aangeeft of er nog een veld was
+     * @throws IllegalArgumentException Als een veld geen = heeft
+     */
+    public boolean next() throws IllegalArgumentException
+    {
+        if (position >= end)
+        {
+            return false;
+        }
+
+        keyStart = position;
+        keyEnd = indexOf(record, '=', position, end);
+
+        if (keyEnd == end)
+        {
+            throw new IllegalArgumentException("Veld zonder waarde op " + keyStart);
+        }
+
+        valueStart = keyEnd + 1;
+
+        int depth = 0;
+        int index = valueStart;
+
+        for (; index < end; index++)
+        {
+            char character = record.charAt(index);
+
+            if (character == '{')
+            {
+                depth++;
+            } else if (character == '}')
+            {
+                depth--;
+            } else if (character == ',' && depth == 0)
+            {
+                break;
+            }
+        }
+
+        valueEnd = index;
+        position = index + 1;
+
+        return true;
+    }
+
+    /**
+     * Returnt de naam van het huidige veld
+     *
+     * @return De naam
+     */
+    public String getKey()
+    {
+        return record.substring(keyStart, keyEnd);
+    }
+
+    /**
+     * Returnt de waarde van het huidige veld als string
+     *
+     * @return De waarde
+     */
+    public String getString()
+    {
+        return record.substring(valueStart, valueEnd);
+    }
+
+    /**
+     * Returnt de waarde van het huidige veld als naam, in namen staat _ voor een spatie
+     *
+     * @return De naam
+     */
+    public String getName()
+    {
+        return getString().replace('_', ' ');
+    }
+
+    /**
+     * Returnt de waarde van het huidige veld als int
+     *
+     * @return De waarde
+     * @throws NumberFormatException Als de waarde geen int is
+     */
+    public int getInt() throws NumberFormatException
+    {
+        return parseInt(record, valueStart, valueEnd);
+    }
+
+    /**
+     * Returnt de waarde van het huidige veld als double
+     *
+     * @return De waarde
+     * @throws NumberFormatException Als de waarde geen double is
+     */
+    public double getDouble() throws NumberFormatException
+    {
+        return parseDouble(record, valueStart, valueEnd);
+    }
+
+    /**
+     * Returnt het hele record, om zelf een waarde verder te lezen met getValueStart en getValueEnd
+     *
+     * @return Het record
+     */
+    public String getRecord()
+    {
+        return record;
+    }
+
+    /**
+     * Returnt waar de waarde van het huidige veld begint
+     *
+     * @return De index van het eerste teken
+     */
+    public int getValueStart()
+    {
+        return valueStart;
+    }
+
+    /**
+     * Returnt waar de waarde van het huidige veld ophoudt
+     *
+     * @return De index na het laatste teken
+     */
+    public int getValueEnd()
+    {
+        return valueEnd;
+    }
+
+    /**
+     * Zoekt een teken in een stuk van een string
+     *
+     * @param string    De string
+     * @param character Het teken
+     * @param from      Waar het zoeken begint
+     * @param to        Waar het zoeken ophoudt
+     * @return De index van het teken, of to als het teken er niet in staat
+     */
+    public static int indexOf(String string, char character, int from, int to)
+    {
+        int index = string.indexOf(character, from);
+
+        return (index == -1 || index > to ? to : index);
+    }
+
+    /**
+     * Leest een int uit een stuk van een string
+     *
+     * @param string De string
+     * @param start  Index van het eerste teken
+     * @param end    Index na het laatste teken
+     * @return De int
+     * @throws NumberFormatException Als het stuk geen int is
+     */
+    public static int parseInt(String string, int start, int end) throws NumberFormatException
+    {
+        long value = parseLong(string, start, end, 10);
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+        {
+            throw new NumberFormatException("Getal te groot voor een int: " + string.substring(start, end));
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Leest een long uit een stuk van een string
+     *
+     * @param string De string
+     * @param start  Index van het eerste teken
+     * @param end    Index na het laatste teken
+     * @param radix  Het talstelsel, bijvoorbeeld 10 of 36
+     * @return De long
+     * @throws NumberFormatException Als het stuk geen long is
+     */
+    public static long parseLong(String string, int start, int end, int radix) throws NumberFormatException
+    {
+        boolean negative = (start < end && string.charAt(start) == '-');
+        int index = (negative || (start < end && string.charAt(start) == '+') ? start + 1 : start);
+
+        if (index == end || end - index > 12)
+        {
+            // Leeg of zo lang dat het misschien niet in een long past, dat laten we aan Long over
+            return Long.parseLong(string.substring(start, end), radix);
+        }
+
+        long value = 0;
+
+        for (; index < end; index++)
+        {
+            int digit = Character.digit(string.charAt(index), radix);
+
+            if (digit < 0)
+            {
+                throw new NumberFormatException("Geen getal: " + string.substring(start, end));
+            }
+
+            value = value * radix + digit;
+        }
+
+        return (negative ? -value : value);
+    }
+
+    /**
+     * Leest een double uit een stuk van een string
+     * Gewone decimale getallen die precies in een double passen worden hier zelf uitgerekend, dat geeft precies
+     * dezelfde double als Double.parseDouble, de rest (lange getallen, E-notatie, NaN) gaat naar Double.parseDouble
+     *
+     * @param string De string
+     * @param start  Index van het eerste teken
+     * @param end    Index na het laatste teken
+     * @return De double
+     * @throws NumberFormatException Als het stuk geen double is
+     */
+    public static double parseDouble(String string, int start, int end) throws NumberFormatException
+    {
+        boolean negative = (start < end && string.charAt(start) == '-');
+        int index = (negative || (start < end && string.charAt(start) == '+') ? start + 1 : start);
+        long mantissa = 0;
+        int exponent = 0;
+        boolean dot = false;
+        boolean digits = false;
+
+        for (; index < end; index++)
+        {
+            char character = string.charAt(index);
+
+            if (character >= '0' && character <= '9')
+            {
+                digits = true;
+
+                if (mantissa >= (MAX_EXACT_MANTISSA - 9) / 10)
+                {
+                    return Double.parseDouble(string.substring(start, end));
+                }
+
+                mantissa = mantissa * 10 + (character - '0');
+
+                if (dot)
+                {
+                    exponent++;
+                }
+            } else if (character == '.' && !dot)
+            {
+                dot = true;
+            } else
+            {
+                return Double.parseDouble(string.substring(start, end));
+            }
+        }
+
+        if (!digits || exponent >= POWERS_OF_TEN.length)
+        {
+            return Double.parseDouble(string.substring(start, end));
+        }
+
+        // Een int tot 2^53 en een macht van 10 tot 10^22 zijn allebei precies, dus de deling wordt goed afgerond
+        double value = mantissa / POWERS_OF_TEN[exponent];
+
+        return (negative ? -value : value);
+    }
+}
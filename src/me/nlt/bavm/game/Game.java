@@ -1,46 +1,65 @@
 package me.nlt.bavm.game;
 
-import me.nlt.bavm.BAVM;
 import me.nlt.bavm.teams.player.Player;
 import me.nlt.bavm.teams.player.PlayerStats;
 import me.nlt.bavm.teams.team.Team;
 import me.nlt.bavm.teams.team.TeamInfo;
-import me.nlt.bavm.teams.team.TeamInfo.StatCoefficient;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 
 //TODO add condition effect
 
 public class Game
 {
+    private int homeID;
+    private int visitorID;
     private int[] gameResult;
-    private ArrayList<String> gameLog = new ArrayList<>();
+    private double homeLuck;
+    private double visitorLuck;
+    private MatchEvents gameEvents;
+    private MatchSummary gameSummary;
 
     /**
-     * Deze methode is de constructor voor het Game object, dat op basis van de team id's van het thuis- en uitteam de wedstrijd simuleert,
-     * de twee variabelen zijn de gameResult (uitslag) en gameLog (log vanwedstrijdverloop
+     * Deze methode is de constructor voor het Game object, dat op basis van snapshots van het thuis- en uitteam de wedstrijd simuleert,
+     * de twee variabelen zijn de gameResult (uitslag) en gameEvents (wedstrijdverloop)
+     * Er wordt hier niks aangepast aan de teams zelf, dat gebeurt pas in applyResult
+     *
+     * @param home    Snapshot van het team dat thuis speelt
+     * @param visitor Snapshot van het team dat uit speelt
+     * @param seed    Seed voor de willekeurige getallen, met dezelfde seed komt dezelfde wedstrijd eruit
      */
-    public Game(int homeID, int visitorID)
+    public Game(TeamSnapshot home, TeamSnapshot visitor, long seed)
+    {
+        this(home, visitor, seed, SimulationMode.FULL);
+    }
+
+    /**
+     * Deze constructor simuleert de wedstrijd in de gegeven modus, in de RESULTS modus wordt het verloop niet bijgehouden
+     * maar alleen de uitslag en een samenvatting, dat is een stuk sneller
+     *
+     * @param home    Snapshot van het team dat thuis speelt
+     * @param visitor Snapshot van het team dat uit speelt
+     * @param seed    Seed voor de willekeurige getallen, met dezelfde seed komt dezelfde uitslag eruit, ongeacht de modus
+     * @param mode    De modus van de simulatie
+     */
+    public Game(TeamSnapshot home, TeamSnapshot visitor, long seed, SimulationMode mode)
     {
         /*
-         * simulateGame simuleert een voetbalwedstrijd met enkel de id van de twee teams, een home team en een visitor.
+         * simulateGame simuleert een voetbalwedstrijd met enkel de snapshots van de twee teams, een home team en een visitor.
          * Verder zijn er nog twee andere methodes die helpen bij het simuleren.
          */
 
         //een instance van random wordt gemaakt voor willekeurige getallen en een array met als eerste waarde de goals van home en als tweede van visit
-        Random rnd = new Random();
+        SplittableRandom rnd = new SplittableRandom(seed);
         int[] goalResult = new int[2];
+        int[] possession = new int[2];
+        int[] attempts = new int[2];
+        int[] goals = new int[8];
 
-        //er worden twee team objecten geimporteerd op basis van de id's
-        Team home = BAVM.getTeamManager().getTeam(homeID);
-        Team visitor = BAVM.getTeamManager().getTeam(visitorID);
-
-        //de coefficienten worden geimporteerd, dus alle gemiddelde stats
-        HashMap<StatCoefficient, Double> homeCoefficients = home.getTeamInfo().getStatCoefficients();
-        HashMap<StatCoefficient, Double> visitorCoefficients = visitor.getTeamInfo().getStatCoefficients();
+        this.homeID = home.getTeamID();
+        this.visitorID = visitor.getTeamID();
 
         /*
          * Geluk van de wedstrijd wordt hier aangemaakt. Er is altijd een team met minder geluk en een willekeruig getal voorspelt welke.
@@ -53,9 +72,6 @@ public class Game
         double luck2 = luck1 - mdTst;
         int chooser = rnd.nextInt(2);
 
-        double homeLuck;
-        double visitorLuck;
-
         // Hier worden de gelukwaardes aan de teams gegeven
         if (chooser == 1)
         {
@@ -67,28 +83,22 @@ public class Game
             visitorLuck = luck1;
         }
 
-        gameLog.add(" ");
-
-        gameLog.add(home.getTeamName() + " is the home team and " + visitor.getTeamName() + " is the visiting team.");
-
-        gameLog.add(" ");
-
-        gameLog.add("Home luck: " + homeLuck);
-        gameLog.add("Visitor luck: " + visitorLuck);
+        // Het verloop wordt als getallen opgeslagen, de tekst wordt pas gemaakt als de wedstrijd bekeken wordt
+        gameEvents = (mode == SimulationMode.FULL ? new MatchEvents(homeLuck, visitorLuck) : null);
+        logEvent(MatchEvents.EventType.START, 0, 0, 0, 0);
 
 
         /*
-         * Deze for loop geeft de waarde van de coefficienten aan een simpele array met enkel een index en geen key, zoals de hashmap waar de
-         * coefficienten in worden opgeslagen. De coefficienten worden ook *10 gedaan voor meer verschil in de formules en de geluksfactor wordt
-         * ingebracht, met de verhouding 0.6 deel stats en 0.4 deel geluk.
+         * Deze for loop geeft de waarde van de coefficienten uit de snapshot aan een simpele array. De coefficienten worden ook *10 gedaan
+         * voor meer verschil in de formules en de geluksfactor wordt ingebracht, met de verhouding 0.6 deel stats en 0.4 deel geluk.
          */
-        double homeValues[] = new double[homeCoefficients.size()];
-        double visitValues[] = new double[visitorCoefficients.size()];
+        double homeValues[] = new double[home.getCoefficientCount()];
+        double visitValues[] = new double[visitor.getCoefficientCount()];
 
-        for (int i = 0; i < homeCoefficients.size(); i++)
+        for (int i = 0; i < homeValues.length; i++)
         {
-            homeValues[i] = 10 * ((1.2 * home.getTeamInfo().getCoefficientValue(i) / 100) + (0.8 * homeLuck + 0.5));
-            visitValues[i] = 10 * ((1.2 * visitor.getTeamInfo().getCoefficientValue(i) / 100) + (0.8 * visitorLuck + 0.5));
+            homeValues[i] = 10 * ((1.2 * home.getCoefficient(i) / 100) + (0.8 * homeLuck + 0.5));
+            visitValues[i] = 10 * ((1.2 * visitor.getCoefficient(i) / 100) + (0.8 * visitorLuck + 0.5));
         }
 
         // Variabelen initializen
@@ -97,6 +107,7 @@ public class Game
         int ballPossession = 0;
         int conflictResult = 0;
         int attemptResult;
+        int rebounds = 0;
         boolean modifyCoefficients = false;
         boolean conditionModify = false;
 
@@ -106,8 +117,8 @@ public class Game
          */
         while (time < 90)
         {
-            gameLog.add(" ");
-            gameLog.add("Time: " + time);
+            possession[ballPossession]++;
+            logEvent(MatchEvents.EventType.TIME, time, ballPossession, 0, 0);
 
             /*
              * De waardes worden aangepast op basis van de conditieskills
@@ -143,11 +154,8 @@ public class Game
 
             if (conflictResult != -1)
             {
-                conflictResult = getConflictResult(homeValues, visitValues, ballPossession);
-                String conflictString = (ballPossession == 0) ?
-                        "Conflict result of " + home.getTeamName() + " against " + visitor.getTeamName() + " on quarter " + ballQuarter + " equals " + conflictResult :
-                        "Conflict result of " + visitor.getTeamName() + " against " + home.getTeamName() + " on quarter " + ballQuarter + " equals " + conflictResult;
-                gameLog.add(conflictString);
+                conflictResult = getConflictResult(homeValues, visitValues, ballPossession, rnd);
+                logEvent(MatchEvents.EventType.CONFLICT, time, ballPossession, ballQuarter, conflictResult);
             }
 
             /*
@@ -158,35 +166,35 @@ public class Game
             {
                 case -1:
                     // Voor als er iets mis is of als er een nieuwe goal attempt gedaan moet worden
-                    gameLog.add("conflictResult = -1, skipping getConflictResult...");
+                    logEvent(MatchEvents.EventType.CONFLICT_SKIPPED, time, ballPossession, 0, 0);
                     break;
                 case 0:
                     // Balbezit wordt veranderd
                     if (ballPossession == 0)
                     {
                         ballPossession = 1;
-                        gameLog.add(visitor.getTeamName() + " is now in possession of the ball!");
                     } else
                     {
                         ballPossession = 0;
-                        gameLog.add(home.getTeamName() + " is now in possession of the ball!");
                     }
+
+                    logEvent(MatchEvents.EventType.POSSESSION, time, ballPossession, 0, 0);
                     break;
                 case 1:
                     // De ballquarter is absoluut, dus voor visit moeten ze op kwart 0 komen en voor home op kwart 3
                     if (ballPossession == 0)
                     {
                         ballQuarter++;
-                        gameLog.add(home.getTeamName() + " has advanced to quarter " + ballQuarter + "!");
                     } else
                     {
                         ballQuarter--;
-                        gameLog.add(visitor.getTeamName() + " has advanced to quarter " + ballQuarter + "!");
                     }
+
+                    logEvent(MatchEvents.EventType.ADVANCE, time, ballPossession, ballQuarter, 0);
                     break;
                 case 2:
                     // Tijd gaat verder en hij continued naar het einde van de loop, hij slaat goalberekening dus over
-                    gameLog.add("No progress has been made!");
+                    logEvent(MatchEvents.EventType.NO_PROGRESS, time, ballPossession, 0, 0);
                     time++;
                     conditionModify = true;
                     continue;
@@ -200,17 +208,30 @@ public class Game
              */
             if (ballQuarter == 4 && ballPossession == 0)
             {
-                attemptResult = getAttemptResult(homeValues, visitValues, ballPossession);
-                gameLog.add("Atemmpt result of " + visitor.getTeamName() + " against " + home.getTeamName() + " equals " + attemptResult);
+                attemptResult = getAttemptResult(homeValues, visitValues, ballPossession, rnd);
+                attempts[ballPossession]++;
+                logEvent(MatchEvents.EventType.ATTEMPT, time, ballPossession, attemptResult, 0);
             } else if (ballQuarter == -1 && ballPossession == 1)
             {
-                attemptResult = getAttemptResult(homeValues, visitValues, ballPossession);
-                gameLog.add("Attempt result of " + home.getTeamName() + " against " + visitor.getTeamName() + " equals " + attemptResult);
+                attemptResult = getAttemptResult(homeValues, visitValues, ballPossession, rnd);
+                attempts[ballPossession]++;
+                logEvent(MatchEvents.EventType.ATTEMPT, time, ballPossession, attemptResult, 0);
             } else
             {
                 attemptResult = -1;
             }
 
+            // Na te veel rebounds op rij krijgt de verdediging de bal, met hele lage waardes gaat het anders oneindig door
+            if (attemptResult == 2 && ++rebounds > 5)
+            {
+                attemptResult = 0;
+            }
+
+            if (attemptResult != 2)
+            {
+                rebounds = 0;
+            }
+
             switch (attemptResult)
             {
                 case -1:
@@ -220,20 +241,29 @@ public class Game
                     break;
                 case 0:
                     // Goalkans gefaald, ander krijgt de bal op hun eigen kwart
+                    logEvent(MatchEvents.EventType.ATTEMPT_FAILED, time, ballPossession, 0, 0);
+
                     if (ballPossession == 0)
                     {
                         ballPossession = 1;
                         ballQuarter = 3;
-                        gameLog.add("Goal attempt by " + visitor.getTeamName() + " has failed, " + home.getTeamName() + " is now in possession of the ball!");
                     } else
                     {
                         ballPossession = 0;
                         ballQuarter = 0;
-                        gameLog.add("Goal attempt by " + visitor.getTeamName() + " has failed, " + home.getTeamName() + " is now in possession of the ball!");
                     }
                     break;
                 case 1:
                     // Goal gelukt, modifyCoefficients zodat het volgende goal moeilijk wordt (om groot aantal goals tegen te werken)
+                    logEvent(MatchEvents.EventType.GOAL, time, ballPossession, goalResult[0] + (ballPossession == 0 ? 1 : 0), goalResult[1] + ballPossession);
+
+                    if (goalResult[0] + goalResult[1] == goals.length)
+                    {
+                        goals = Arrays.copyOf(goals, goals.length * 2);
+                    }
+
+                    goals[goalResult[0] + goalResult[1]] = time * 2 + ballPossession;
+
                     if (ballPossession == 0)
                     {
                         goalResult[0]++;
@@ -242,9 +272,6 @@ public class Game
                         time++;
                         conditionModify = true;
                         modifyCoefficients = true;
-                        gameLog.add(home.getTeamName() + " has scored!");
-                        home.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSFOR, 1);
-                        visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSAGAINST, 1);
                     } else
                     {
                         goalResult[1]++;
@@ -253,35 +280,71 @@ public class Game
                         time++;
                         conditionModify = true;
                         modifyCoefficients = true;
-                        gameLog.add(visitor.getTeamName() + " has scored!");
-                        visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSFOR, 1);
-                        home.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSAGAINST, 1);
                     }
 
-                    gameLog.add("Current stance is " + goalResult[0] + "-" + goalResult[1] + ".");
                     break;
                 case 2:
                     // Opnieuw, nu skipt hij de conflict berekenaar en probeert ie opnieuw een goal totdat er een uitkomst is.
-                    gameLog.add("Goal attempt failed, but they are looking for a rebound!");
+                    logEvent(MatchEvents.EventType.REBOUND, time, ballPossession, 0, 0);
                     conflictResult = -1;
                     break;
             }
 
         }
 
-        gameLog.add("Final stance is " + goalResult[0] + "-" + goalResult[1] + ".");
+        logEvent(MatchEvents.EventType.FINAL, time, 0, goalResult[0], goalResult[1]);
+
+        gameResult = goalResult;
+        gameSummary = new MatchSummary(possession, attempts, Arrays.copyOf(goals, goalResult[0] + goalResult[1]));
+    }
+
+    /**
+     * Voegt een event toe aan het verloop, als het verloop bijgehouden wordt
+     *
+     * @param type   Het type event
+     * @param minute De minuut
+     * @param side   De kant die aan de bal was
+     * @param a      De eerste waarde
+     * @param b      De tweede waarde
+     */
+    private void logEvent(MatchEvents.EventType type, int minute, int side, int a, int b)
+    {
+        if (gameEvents != null)
+        {
+            gameEvents.add(type, minute, side, a, b);
+        }
+    }
+
+    /**
+     * Past het resultaat van de wedstrijd toe op de teams, dus de scores en de ervaring van de spelers
+     * Dit is de enige plek waar een Game iets aan de teams verandert
+     *
+     * @param home    Team dat thuis speelde
+     * @param visitor Team dat uit speelde
+     */
+    public void applyResult(Team home, Team visitor)
+    {
+        if (home.getID() != homeID || visitor.getID() != visitorID)
+        {
+            throw new IllegalArgumentException("Teams " + home.getID() + " en " + visitor.getID() + " hebben deze wedstrijd niet gespeeld");
+        }
+
+        home.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSFOR, gameResult[0]);
+        home.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSAGAINST, gameResult[1]);
+        visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSFOR, gameResult[1]);
+        visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.GOALSAGAINST, gameResult[0]);
 
         /*
          * Verhoogt de score van de winnende teams.
          */
-        if (goalResult[0] == goalResult[1])
+        if (gameResult[0] == gameResult[1])
         {
             home.getTeamInfo().increaseTeamScores(TeamInfo.Score.DRAWS, 1);
             visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.DRAWS, 1);
 
             home.getTeamInfo().increaseTeamScores(TeamInfo.Score.POINTS, 1);
             visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.POINTS, 1);
-        } else if (goalResult[0] > goalResult[1])
+        } else if (gameResult[0] > gameResult[1])
         {
             home.getTeamInfo().increaseTeamScores(TeamInfo.Score.WINS, 1);
             visitor.getTeamInfo().increaseTeamScores(TeamInfo.Score.LOSSES, 1);
@@ -296,8 +359,26 @@ public class Game
         }
 
         playerExperience(home, visitor, homeLuck, visitorLuck);
+    }
 
-        gameResult = goalResult;
+    /**
+     * Returnt het ID van het team dat thuis speelde
+     *
+     * @return ID van het thuisteam
+     */
+    public int getHomeID()
+    {
+        return homeID;
+    }
+
+    /**
+     * Returnt het ID van het team dat uit speelde
+     *
+     * @return ID van het uitteam
+     */
+    public int getVisitorID()
+    {
+        return visitorID;
     }
 
     /**
@@ -311,13 +392,23 @@ public class Game
     }
 
     /**
-     * Returnt de gamelog
+     * Returnt het verloop van de game, dit is null als de game in de RESULTS modus gesimuleerd is
+     *
+     * @return De events van de game
+     */
+    public MatchEvents getGameEvents()
+    {
+        return gameEvents;
+    }
+
+    /**
+     * Returnt de samenvatting van de game, balbezit, doelpogingen en de minuten van de goals
      *
-     * @return De Gamelog
+     * @return De samenvatting
      */
-    public ArrayList<String> getGameLog()
+    public MatchSummary getGameSummary()
     {
-        return gameLog;
+        return gameSummary;
     }
 
     /**
@@ -326,14 +417,14 @@ public class Game
      * @param homeValues     De waardes voor het team dat thuis speelt
      * @param visitValues    De waardes voor het team dat uit speelt
      * @param ballPossession Het balbezit
+     * @param rnd            De random van de wedstrijd
      * @return Het conflict result
      */
-    public static int getConflictResult(double[] homeValues, double[] visitValues, int ballPossession)
+    public static int getConflictResult(double[] homeValues, double[] visitValues, int ballPossession, SplittableRandom rnd)
     {
         double attValues[];
         double defValues[];
-        Random rnd = new Random();
-        
+
         /*
          * Hier kijkt de methode wie de bal heeft, en past daarop aan wie de aanvaller is en wie de verdediger.
          */
@@ -360,7 +451,7 @@ public class Game
         if (attackResult < 0)
         {
             // Als de balbezit hoog genoeg is hebben ze een kans om alsnog de bal te houden.
-            attackResult = Math.round(attackResult + (0.25 * (defValues[2] * (1 + Math.random()))));
+            attackResult = Math.round(attackResult + (0.25 * (defValues[2] * (1 + rnd.nextDouble()))));
         }
 
         /*
@@ -387,9 +478,10 @@ public class Game
      * @param homeValues     De waardes voor het team dat thuis speelt
      * @param visitValues    De waardes voor het team dat uit speelt
      * @param ballPossession Het balbezit
+     * @param rnd            De random van de wedstrijd
      * @return Het pogingresultaat
      */
-    public static int getAttemptResult(double[] homeValues, double[] visitValues, int ballPossession)
+    public static int getAttemptResult(double[] homeValues, double[] visitValues, int ballPossession, SplittableRandom rnd)
     {
         // Doet hetzelfde als conflictresult maar dan met andere stats (afmaken en keeper)
 
@@ -410,12 +502,12 @@ public class Game
         }
 
         // Attempt formula, 0=afm, 1=att, 2=pos, 3=def, 4=kep, 5=cnd
-        double attemptResult = Math.round((attValues[0] * (1 + Math.random())) - (defValues[4] * (1 + Math.random())));
+        double attemptResult = Math.round((attValues[0] * (1 + rnd.nextDouble())) - (defValues[4] * (1 + rnd.nextDouble())));
 
         if (attemptResult < 0)
         {
             // Als de balbezit hoog genoeg is hebben ze een kans om alsnog de bal te houden.
-            attemptResult = Math.round(attemptResult + (0.3 * (attValues[2] * (1 + Math.random()))));
+            attemptResult = Math.round(attemptResult + (0.3 * (attValues[2] * (1 + rnd.nextDouble()))));
         }
 
         if (attemptResult < 0)
@@ -519,4 +611,9 @@ public class Game
             }
         }
     }
+
+    public enum SimulationMode
+    {
+        FULL, RESULTS
+    }
 }
@@ -12,6 +12,8 @@ public class Match implements Manageable
     private int[] matchGoals;
     private int[] teamIDs = new int[2];
     private ArrayList<String> matchLog = new ArrayList<>();
+    private MatchEvents matchEvents;
+    private MatchSummary matchSummary;
 
     public boolean unsavedChanges;
 
@@ -36,6 +38,24 @@ public class Match implements Manageable
         this.unsavedChanges = false;
     }
 
+    /**
+     * Match constructor voor een match waarvan het verloop als events of als samenvatting is opgeslagen
+     *
+     * @param matchName    Naam van de match
+     * @param matchID      ID van de match
+     * @param homeID       ID van het team dat thuis speelt
+     * @param visitorID    ID van het team dat uit speelt
+     * @param matchResult  Resultaat van de match
+     * @param matchEvents  Events van de match, null als alleen de samenvatting bewaard is
+     * @param matchSummary Samenvatting van de match
+     */
+    public Match(String matchName, int matchID, int homeID, int visitorID, int[] matchResult, MatchEvents matchEvents, MatchSummary matchSummary)
+    {
+        this(matchName, matchID, homeID, visitorID, matchResult, new ArrayList<>());
+        this.matchEvents = matchEvents;
+        this.matchSummary = matchSummary;
+    }
+
     /**
      * Returnt de naam van de match
      *
@@ -67,29 +87,61 @@ public class Match implements Manageable
     }
 
     /**
-     * Return de matchlogs
+     * Returnt de ID's van de teams
      *
-     * @return De matchlogs
+     * @return {thuis, uit}
      */
-    public ArrayList<String> getMatchLog()
+    public int[] getTeamIDs()
     {
-        return matchLog;
+        return teamIDs;
     }
 
     /**
-     * Verwijderd de logs uit het geheugen
+     * Returnt de events van de match
+     *
+     * @return De events, of null als de match geen events heeft of de logs niet geladen zijn
      */
-    public void clearMatchLog()
+    public MatchEvents getMatchEvents()
     {
-        this.matchLog.clear();
+        return matchEvents;
     }
 
     /**
-     * Laadt de logs uit het databestand
+     * Returnt de samenvatting van de match
+     *
+     * @return De samenvatting, of null als de match geen samenvatting heeft of de logs niet geladen zijn
      */
-    public void loadLogs()
+    public MatchSummary getMatchSummary()
     {
-        this.matchLog.addAll(BAVM.getFileManager().getMatchLog(matchID));
+        return matchSummary;
+    }
+
+    /**
+     * Return de matchlogs, als de match events of een samenvatting heeft wordt de tekst nu pas gemaakt
+     *
+     * @return De matchlogs
+     */
+    public ArrayList<String> getMatchLog()
+    {
+        if (matchLog.isEmpty() && (matchEvents != null || matchSummary != null))
+        {
+            String homeName = BAVM.getTeamManager().getTeam(teamIDs[0]).getTeamName();
+            String visitorName = BAVM.getTeamManager().getTeam(teamIDs[1]).getTeamName();
+
+            matchLog = (matchEvents != null ? matchEvents.render(homeName, visitorName) : matchSummary.render(homeName, visitorName));
+        }
+
+        return matchLog;
+    }
+
+    /**
+     * Verwijderd de logs uit het geheugen
+     */
+    public void clearMatchLog()
+    {
+        this.matchLog = new ArrayList<>();
+        this.matchEvents = null;
+        this.matchSummary = null;
     }
 
 
@@ -122,6 +174,27 @@ public class Match implements Manageable
      */
     public String toString()
     {
+        if (matchEvents != null)
+        {
+            return "Match{" +
+                    "id=" + getID() +
+                    ",teams=" + teamIDs[0] + ":" + teamIDs[1] +
+                    ",score=" + matchGoals[0] + ":" + matchGoals[1] +
+                    ",events=" + matchEvents.toString() +
+                    "}";
+        }
+
+        if (matchSummary != null)
+        {
+            return "Match{" +
+                    "id=" + getID() +
+                    ",teams=" + teamIDs[0] + ":" + teamIDs[1] +
+                    ",score=" + matchGoals[0] + ":" + matchGoals[1] +
+                    ",summary=" + matchSummary.toString() +
+                    "}";
+        }
+
+        // Oude matches hebben alleen nog tekst
         StringBuilder stringBuilder = new StringBuilder();
 
         for (String logMessage : matchLog)
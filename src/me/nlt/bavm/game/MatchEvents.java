@@ -0,0 +1,302 @@
+package me.nlt.bavm.game;
+
+import me.nlt.bavm.files.RecordTokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MatchEvents
+{
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private long[] events;
+    private int size;
+    private double homeLuck;
+    private double visitorLuck;
+
+    /*
+     * MatchEvents slaat het verloop van een wedstrijd op als getallen in plaats van strings,
+     * de tekst wordt pas gemaakt als iemand de wedstrijd echt wil bekijken
+     *
+     * Ieder event is 1 long: type (8 bits), minuut (8 bits), kant (8 bits), waarde a (16 bits) en waarde b (16 bits)
+     */
+
+    /**
+     * MatchEvents constructor
+     *
+     * @param homeLuck    Geluk van het team dat thuis speelt
+     * @param visitorLuck Geluk van het team dat uit speelt
+     */
+    public MatchEvents(double homeLuck, double visitorLuck)
+    {
+        this(homeLuck, visitorLuck, new long[512], 0);
+    }
+
+    /**
+     * MatchEvents constructor
+     *
+     * @param homeLuck    Geluk van het team dat thuis speelt
+     * @param visitorLuck Geluk van het team dat uit speelt
+     * @param events      De events
+     * @param size        Hoeveelheid events in de array
+     */
+    private MatchEvents(double homeLuck, double visitorLuck, long[] events, int size)
+    {
+        this.homeLuck = homeLuck;
+        this.visitorLuck = visitorLuck;
+        this.events = events;
+        this.size = size;
+    }
+
+    /**
+     * Voegt een event toe
+     *
+     * @param type   Het type event
+     * @param minute De minuut waarin het event gebeurde
+     * @param side   De kant die aan de bal was, 0 is thuis en 1 is uit
+     * @param a      De eerste waarde, wat deze betekent hangt af van het type
+     * @param b      De tweede waarde, wat deze betekent hangt af van het type
+     */
+    public void add(EventType type, int minute, int side, int a, int b)
+    {
+        if (size == events.length)
+        {
+            events = Arrays.copyOf(events, Math.max(16, size * 2));
+        }
+
+        events[size++] = (type.ordinal() & 0xFFL)
+                | ((minute & 0xFFL) << 8)
+                | ((side & 0xFFL) << 16)
+                | ((a & 0xFFFFL) << 24)
+                | ((b & 0xFFFFL) << 40);
+    }
+
+    /**
+     * Returnt de hoeveelheid events
+     *
+     * @return Hoeveelheid events
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returnt het geluk van het team dat thuis speelt
+     *
+     * @return Geluk van het team dat thuis speelt
+     */
+    public double getHomeLuck()
+    {
+        return homeLuck;
+    }
+
+    /**
+     * Returnt het geluk van het team dat uit speelt
+     *
+     * @return Geluk van het team dat uit speelt
+     */
+    public double getVisitorLuck()
+    {
+        return visitorLuck;
+    }
+
+    /**
+     * Returnt het type van een event
+     *
+     * @param index Index van het event
+     * @return Het type
+     */
+    public EventType getType(int index)
+    {
+        return EVENT_TYPES[(int) (events[index] & 0xFF)];
+    }
+
+    /**
+     * Returnt de minuut van een event
+     *
+     * @param index Index van het event
+     * @return De minuut
+     */
+    public int getMinute(int index)
+    {
+        return (int) ((events[index] >>> 8) & 0xFF);
+    }
+
+    /**
+     * Returnt de kant van een event, 0 is thuis en 1 is uit
+     *
+     * @param index Index van het event
+     * @return De kant
+     */
+    public int getSide(int index)
+    {
+        return (int) ((events[index] >>> 16) & 0xFF);
+    }
+
+    /**
+     * Returnt de eerste waarde van een event
+     *
+     * @param index Index van het event
+     * @return De eerste waarde
+     */
+    public int getA(int index)
+    {
+        return (short) (events[index] >>> 24);
+    }
+
+    /**
+     * Returnt de tweede waarde van een event
+     *
+     * @param index Index van het event
+     * @return De tweede waarde
+     */
+    public int getB(int index)
+    {
+        return (short) (events[index] >>> 40);
+    }
+
+    /**
+     * Maakt de tekst van de wedstrijd, dit is dezelfde tekst die vroeger direct in de gamelog kwam
+     *
+     * @param homeName    Naam van het team dat thuis speelt
+     * @param visitorName Naam van het team dat uit speelt
+     * @return De log van de wedstrijd
+     */
+    public ArrayList<String> render(String homeName, String visitorName)
+    {
+        ArrayList<String> log = new ArrayList<>(size + 100);
+
+        for (int i = 0; i < size; i++)
+        {
+            String attacker = (getSide(i) == 0 ? homeName : visitorName);
+            String defender = (getSide(i) == 0 ? visitorName : homeName);
+
+            switch (getType(i))
+            {
+                case START:
+                    log.add(" ");
+                    log.add(homeName + " is the home team and " + visitorName + " is the visiting team.");
+                    log.add(" ");
+                    log.add("Home luck: " + homeLuck);
+                    log.add("Visitor luck: " + visitorLuck);
+                    break;
+                case TIME:
+                    log.add(" ");
+                    log.add("Time: " + getMinute(i));
+                    break;
+                case CONFLICT:
+                    log.add("Conflict result of " + attacker + " against " + defender + " on quarter " + getA(i) + " equals " + getB(i));
+                    break;
+                case CONFLICT_SKIPPED:
+                    log.add("conflictResult = -1, skipping getConflictResult...");
+                    break;
+                case POSSESSION:
+                    log.add(attacker + " is now in possession of the ball!");
+                    break;
+                case ADVANCE:
+                    log.add(attacker + " has advanced to quarter " + getA(i) + "!");
+                    break;
+                case NO_PROGRESS:
+                    log.add("No progress has been made!");
+                    break;
+                case ATTEMPT:
+                    log.add((getSide(i) == 0 ? "Atemmpt" : "Attempt") + " result of " + defender + " against " + attacker + " equals " + getA(i));
+                    break;
+                case ATTEMPT_FAILED:
+                    log.add("Goal attempt by " + visitorName + " has failed, " + homeName + " is now in possession of the ball!");
+                    break;
+                case GOAL:
+                    log.add(attacker + " has scored!");
+                    log.add("Current stance is " + getA(i) + "-" + getB(i) + ".");
+                    break;
+                case REBOUND:
+                    log.add("Goal attempt failed, but they are looking for a rebound!");
+                    break;
+                case FINAL:
+                    log.add("Final stance is " + getA(i) + "-" + getB(i) + ".");
+                    break;
+            }
+        }
+
+        return log;
+    }
+
+    @Override
+    /**
+     * Maakt een korte string van de events, zonder tekens die het databestand niet aankan
+     *
+     * @return De string met alle events
+     */
+    public String toString()
+    {
+        StringBuilder stringBuilder = new StringBuilder(size * 8 + 48);
+
+        stringBuilder.append(homeLuck).append('@').append(visitorLuck);
+
+        for (int i = 0; i < size; i++)
+        {
+            stringBuilder.append('@').append(Long.toString(events[i], 36));
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Maakt events uit een string die gemaakt is door toString
+     *
+     * @param eventString De string met events
+     * @return De events
+     * @throws NumberFormatException Als de string geen geldige events bevat
+     */
+    public static MatchEvents parse(String eventString) throws NumberFormatException
+    {
+        return parse(eventString, 0, eventString.length());
+    }
+
+    /**
+     * Maakt events uit een stuk van een string dat gemaakt is door toString, zonder het stuk eerst los te maken
+     *
+     * @param string De string, bijvoorbeeld een heel match record
+     * @param start  Index van het eerste teken van de events
+     * @param end    Index na het laatste teken van de events
+     * @return De events
+     * @throws NumberFormatException Als het stuk geen geldige events bevat
+     */
+    public static MatchEvents parse(String string, int start, int end) throws NumberFormatException
+    {
+        int parts = 1;
+
+        for (int i = start; i < end; i++)
+        {
+            if (string.charAt(i) == '@')
+            {
+                parts++;
+            }
+        }
+
+        if (parts < 2)
+        {
+            throw new NumberFormatException("Geen geluk gevonden in events");
+        }
+
+        int homeLuckEnd = RecordTokenizer.indexOf(string, '@', start, end);
+        int visitorLuckEnd = RecordTokenizer.indexOf(string, '@', homeLuckEnd + 1, end);
+        long[] events = new long[parts - 2];
+
+        for (int i = 0, eventStart = visitorLuckEnd + 1; i < events.length; i++)
+        {
+            int eventEnd = RecordTokenizer.indexOf(string, '@', eventStart, end);
+
+            events[i] = RecordTokenizer.parseLong(string, eventStart, eventEnd, 36);
+            eventStart = eventEnd + 1;
+        }
+
+        return new MatchEvents(RecordTokenizer.parseDouble(string, start, homeLuckEnd), RecordTokenizer.parseDouble(string, homeLuckEnd + 1, visitorLuckEnd), events, events.length);
+    }
+
+    public enum EventType
+    {
+        START, TIME, CONFLICT, CONFLICT_SKIPPED, POSSESSION, ADVANCE, NO_PROGRESS, ATTEMPT, ATTEMPT_FAILED, GOAL, REBOUND, FINAL
+    }
+}
@@ -0,0 +1,207 @@
+package me.nlt.bavm.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+public class MatchLogCache
+{
+    private static final int LIST_OVERHEAD = 40;
+    private static final int STRING_OVERHEAD = 48;
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long budget;
+    private long usedBytes;
+
+    private final LinkedHashMap<Integer, CachedLog> logs = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int hits;
+    private int misses;
+
+    /*
+     * MatchLogCache houdt de tekst van de laatst bekeken wedstrijden vast, zodat een wedstrijd die nog een keer
+     * bekeken wordt niet opnieuw uit het archief gelezen en gemaakt hoeft te worden
+     *
+     * De cache houdt de volgorde van gebruik bij, als de geschatte grootte van alle logs boven het budget komt
+     * worden de logs die het langst niet gebruikt zijn weggegooid
+     * De grootte is een schatting: per regel een String met zijn array (2 bytes per teken) en per log de lijst zelf
+     */
+
+    /**
+     * MatchLogCache constructor
+     *
+     * @param budget Hoeveel bytes alle logs samen ongeveer mogen gebruiken
+     */
+    public MatchLogCache(long budget)
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * Returnt de log van een match uit de cache
+     *
+     * @param matchID ID van de match
+     * @return De log, die niet aangepast kan worden, of null als de log niet in de cache staat
+     */
+    public synchronized List<String> get(int matchID)
+    {
+        CachedLog cachedLog = logs.get(matchID);
+
+        if (cachedLog == null)
+        {
+            misses++;
+
+            return null;
+        }
+
+        hits++;
+
+        return cachedLog.log;
+    }
+
+    /**
+     * Zet de log van een match in de cache, een log die groter is dan het hele budget wordt niet bewaard
+     *
+     * @param matchID ID van de match
+     * @param log     De log
+     * @return De log, die niet aangepast kan worden
+     */
+    public synchronized List<String> put(int matchID, ArrayList<String> log)
+    {
+        List<String> unmodifiableLog = Collections.unmodifiableList(log);
+        long size = estimateSize(log);
+
+        this.remove(matchID);
+
+        if (size > budget)
+        {
+            return unmodifiableLog;
+        }
+
+        logs.put(matchID, new CachedLog(unmodifiableLog, size));
+        usedBytes += size;
+
+        // De eerste entries zijn het langst niet gebruikt
+        Iterator<CachedLog> iterator = logs.values().iterator();
+
+        while (usedBytes > budget && iterator.hasNext())
+        {
+            usedBytes -= iterator.next().size;
+            iterator.remove();
+        }
+
+        return unmodifiableLog;
+    }
+
+    /**
+     * Haalt de log van een match uit de cache, bijvoorbeeld als het ID opnieuw gebruikt wordt
+     *
+     * @param matchID ID van de match
+     */
+    public synchronized void remove(int matchID)
+    {
+        CachedLog cachedLog = logs.remove(matchID);
+
+        if (cachedLog != null)
+        {
+            usedBytes -= cachedLog.size;
+        }
+    }
+
+    /**
+     * Haalt alle logs uit de cache
+     */
+    public synchronized void clear()
+    {
+        logs.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Returnt hoeveel logs er in de cache staan
+     *
+     * @return Hoeveelheid logs
+     */
+    public synchronized int getSize()
+    {
+        return logs.size();
+    }
+
+    /**
+     * Returnt de geschatte grootte van alle logs in de cache
+     *
+     * @return Hoeveelheid bytes
+     */
+    public synchronized long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+    /**
+     * Returnt het budget van de cache
+     *
+     * @return Hoeveelheid bytes
+     */
+    public long getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Returnt hoe vaak een log in de cache stond
+     *
+     * @return Hoeveelheid hits
+     */
+    public synchronized int getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returnt hoe vaak een log niet in de cache stond
+     *
+     * @return Hoeveelheid misses
+     */
+    public synchronized int getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Schat hoeveel geheugen een log gebruikt
+     *
+     * @param log De log
+     * @return Hoeveelheid bytes
+     */
+    private static long estimateSize(List<String> log)
+    {
+        long size = ENTRY_OVERHEAD + LIST_OVERHEAD + 4L * log.size();
+
+        for (String line : log)
+        {
+            size += STRING_OVERHEAD + 2L * line.length();
+        }
+
+        return size;
+    }
+
+    private static class CachedLog
+    {
+        private final List<String> log;
+        private final long size;
+
+        /**
+         * CachedLog constructor
+         *
+         * @param log  De log
+         * @param size Geschatte grootte van de log
+         */
+        private CachedLog(List<String> log, long size)
+        {
+            this.log = log;
+            this.size = size;
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package me.nlt.bavm.game;
 
 import me.nlt.bavm.BAVM;
-import me.nlt.bavm.Factory;
+import me.nlt.bavm.files.RecordCodec;
+import me.nlt.bavm.generator.LeagueRandom;
+import me.nlt.bavm.season.PlannedMatch;
+import me.nlt.bavm.season.Week;
 import me.nlt.bavm.teams.Manageable;
 import me.nlt.bavm.teams.Manager;
-import me.nlt.bavm.teams.exceptions.FactoryException;
+import me.nlt.bavm.teams.team.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class MatchManager<T extends Manageable> extends Manager<T>
 {
+    private static ExecutorService executor = ForkJoinPool.commonPool();
+
     public boolean dataLoaded = false;
 
+    // Met -Dbavm.matchLogCache=... kan het budget in bytes voor de logs van bekeken wedstrijden veranderd worden
+    private final MatchLogCache matchLogCache = new MatchLogCache(Long.getLong("bavm.matchLogCache", 4L << 20));
+
     /**
      * MatchManager contructor
      */
@@ -26,31 +42,31 @@ public class MatchManager<T extends Manageable> extends Manager<T>
      */
     public void loadManageables()
     {
-        int amount = BAVM.getFileManager().readAmount("matches");
+        byte[][] records = BAVM.getFileManager().readAllRecords("matches");
 
-        for (int i = 0; i < amount; i++)
-        {
-            try
-            {
-                Match match = Factory.createMatch(BAVM.getFileManager().readData("match", i));
+        // De teams zijn hier al geladen, die worden bij het maken van een match alleen gelezen
+        for (T match : parseRecords(records, record -> {
+            Match match = RecordCodec.decodeMatch(record);
 
-                if (match == null)
+            if (match != null)
+            {
+                if (RecordCodec.isLegacy(record) || RecordCodec.hasMatchLog(record))
                 {
-                    continue;
+                    // Oude saves hebben de logs nog in het databestand, die gaan nu naar het archief
+                    BAVM.getFileManager().archiveMatch(RecordCodec.isBinary(record) ? record : RecordCodec.encodeMatch(match), match.getID());
+                    match.unsavedChanges = true;
                 }
 
-                manageables.add((T) match);
                 match.clearMatchLog();
-
-                if (i % 30 == 0)
-                {
-                    BAVM.getDisplay().clearText();
-                    BAVM.getDisplay().appendText("Thread locked, aan het wachten op een unlock", "Thread ge-unlocked", "Spelers, teams, coaches en wedstrijden worden geladen", "  Alle spelers geladen", "  Alle coaches geladen", "  Alle teams geladen", "  " + i + " wedstrijden geladen ...");
-                }
-            } catch (FactoryException e)
-            {
-                BAVM.getDisplay().printException(e);
             }
+
+            return (T) match;
+        }, loaded -> {
+            BAVM.getDisplay().clearText();
+            BAVM.getDisplay().appendText("Thread locked, aan het wachten op een unlock", "Thread ge-unlocked", "Spelers, teams, coaches en wedstrijden worden geladen", "  Alle spelers geladen", "  Alle coaches geladen", "  Alle teams geladen", "  " + loaded + " wedstrijden geladen ...");
+        }))
+        {
+            addManageable(match);
         }
 
         System.out.println("Alle wedstrijden geladen");
@@ -59,7 +75,7 @@ public class MatchManager<T extends Manageable> extends Manager<T>
 
     @Override
     /**
-     * Schrijft alle matches uit het geheugen naar het databestand
+     * Schrijft de uitslag van alle matches uit het geheugen naar het databestand, de logs staan al in het archief
      */
     public void saveManageables(boolean firstSave)
     {
@@ -76,8 +92,7 @@ public class MatchManager<T extends Manageable> extends Manager<T>
 
             if ((firstSave || match.unsavedChanges()))
             {
-                match.loadLogs();
-                BAVM.getFileManager().writeData("match", match.toString(), match.getID());
+                BAVM.getFileManager().writeRecord("match", RecordCodec.encodeMatchHeader(match), match.getID());
 
                 match.unsavedChanges = false;
                 counter++;
@@ -101,20 +116,141 @@ public class MatchManager<T extends Manageable> extends Manager<T>
      */
     public int simulateMatch(int homeID, int visitorID)
     {
-        Game game = new Game(homeID, visitorID);
-        String matchName = BAVM.getTeamManager().getTeam(homeID).getTeamName() + " - " + BAVM.getTeamManager().getTeam(visitorID).getTeamName();
+        return simulateMatch(homeID, visitorID, Game.SimulationMode.FULL);
+    }
+
+    /**
+     * Simuleert een match in de gegeven modus, in de RESULTS modus wordt alleen de uitslag en een samenvatting bewaard
+     *
+     * @param homeID    ID van team dat thuis speelt
+     * @param visitorID ID van team dat uit speelt
+     * @param mode      De modus van de simulatie
+     * @return ID van de match
+     */
+    public int simulateMatch(int homeID, int visitorID, Game.SimulationMode mode)
+    {
+        Team home = BAVM.getTeamManager().getTeam(homeID);
+        Team visitor = BAVM.getTeamManager().getTeam(visitorID);
+
+        // Eerst simuleren op snapshots en daarna pas de scores en ervaring toepassen
+        Game game = new Game(TeamSnapshot.of(home), TeamSnapshot.of(visitor), LeagueRandom.getMatchSeed(Week.seasonNumber, getNextAvailableID()), mode);
+
+        return registerMatch(game, home, visitor);
+    }
+
+    /**
+     * Simuleert alle geplande wedstrijden tegelijk op de executor
+     * Dit kan omdat een team maar 1 keer per week speelt, de resultaten worden daarna in de gegeven volgorde toegepast
+     *
+     * @param plannedMatches De geplande wedstrijden
+     * @return De ID's van de matches, in dezelfde volgorde als de geplande wedstrijden, of een lege array als de thread onderbroken is of een game mislukt
+     */
+    public int[] simulateMatches(ArrayList<PlannedMatch> plannedMatches)
+    {
+        return simulateMatches(plannedMatches, Game.SimulationMode.FULL);
+    }
+
+    /**
+     * Simuleert alle geplande wedstrijden tegelijk in de gegeven modus
+     *
+     * @param plannedMatches De geplande wedstrijden
+     * @param mode           De modus van de simulatie
+     * @return De ID's van de matches, in dezelfde volgorde als de geplande wedstrijden, of een lege array als de thread onderbroken is of een game mislukt
+     */
+    public int[] simulateMatches(ArrayList<PlannedMatch> plannedMatches, Game.SimulationMode mode)
+    {
+        int[] matchIDs = new int[plannedMatches.size()];
+        TeamSnapshot[][] snapshots = new TeamSnapshot[plannedMatches.size()][2];
+        long[] seeds = new long[plannedMatches.size()];
+        ArrayList<Future<Game>> futures = new ArrayList<>();
+
+        // Snapshots en seeds worden op deze thread gemaakt zodat de uitkomst niet afhangt van de volgorde van de threads
+        for (int i = 0; i < plannedMatches.size(); i++)
+        {
+            int[] teamIDs = plannedMatches.get(i).getTeamIDs();
+
+            snapshots[i][0] = TeamSnapshot.of(BAVM.getTeamManager().getTeam(teamIDs[0]));
+            snapshots[i][1] = TeamSnapshot.of(BAVM.getTeamManager().getTeam(teamIDs[1]));
+            seeds[i] = LeagueRandom.getMatchSeed(Week.seasonNumber, plannedMatches.get(i).getMatchID());
+        }
+
+        for (int i = 0; i < plannedMatches.size(); i++)
+        {
+            final TeamSnapshot home = snapshots[i][0];
+            final TeamSnapshot visitor = snapshots[i][1];
+            final long seed = seeds[i];
+
+            futures.add(executor.submit(() -> new Game(home, visitor, seed, mode)));
+        }
+
+        Game[] games = new Game[plannedMatches.size()];
+
+        // Eerst op alle games wachten, zo wordt er bij een interrupt niks van de week toegepast
+        for (int i = 0; i < plannedMatches.size(); i++)
+        {
+            try
+            {
+                games[i] = futures.get(i).get();
+            } catch (InterruptedException e)
+            {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                return new int[0];
+            } catch (ExecutionException e)
+            {
+                // Met dezelfde seed gaat het opnieuw op dezelfde manier mis, dus wordt er ook dan niks van de week toegepast
+                futures.forEach(future -> future.cancel(true));
+                BAVM.getDisplay().printException(e);
+                return new int[0];
+            }
+        }
+
+        // Resultaten in de geplande volgorde toepassen
+        for (int i = 0; i < games.length; i++)
+        {
+            matchIDs[i] = registerMatch(games[i], BAVM.getTeamManager().getTeam(games[i].getHomeID()), BAVM.getTeamManager().getTeam(games[i].getVisitorID()));
+        }
+
+        return matchIDs;
+    }
+
+    /**
+     * Past het resultaat van een gesimuleerde game toe en maakt er een Match object van
+     *
+     * @param game    De gesimuleerde game
+     * @param home    Team dat thuis speelde
+     * @param visitor Team dat uit speelde
+     * @return ID van de match
+     */
+    private int registerMatch(Game game, Team home, Team visitor)
+    {
+        game.applyResult(home, visitor);
+
+        String matchName = home.getTeamName() + " - " + visitor.getTeamName();
         int matchID = getNextAvailableID();
-        Match match = new Match(matchName, matchID, homeID, visitorID, game.getGameResult(), game.getGameLog());
+        Match match = new Match(matchName, matchID, home.getID(), visitor.getID(), game.getGameResult(), game.getGameEvents(), game.getGameSummary());
 
-        manageables.add((T) match);
-        match.unsavedChanges = true;
+        addManageable((T) match);
+        matchLogCache.remove(matchID);
 
-        BAVM.getFileManager().writeData("match", match.toString(), matchID);
+        // De hele match gaat 1 keer naar het archief, in het databestand staat alleen de uitslag
+        BAVM.getFileManager().archiveMatch(RecordCodec.encodeMatch(match), matchID);
+        BAVM.getFileManager().writeRecord("match", RecordCodec.encodeMatchHeader(match), matchID);
         match.clearMatchLog();
 
         return matchID;
     }
 
+    /**
+     * Methode om de executor te veranderen waarop wedstrijden tegelijk worden gesimuleerd
+     *
+     * @param executor De nieuwe executor
+     */
+    public static void setExecutor(ExecutorService executor)
+    {
+        MatchManager.executor = executor;
+    }
+
     /**
      * Returnt de match met het gegeven ID
      *
@@ -128,6 +264,50 @@ public class MatchManager<T extends Manageable> extends Manager<T>
         return match == null ? null : (Match) match;
     }
 
+    /**
+     * Returnt de log van een match, uit de cache of anders uit het archief
+     * De match in het geheugen wordt hiervoor niet aangepast, dus de log hoeft daarna niet gewist te worden
+     *
+     * @param matchID ID van de match
+     * @return De log, die niet aangepast kan worden, of een lege lijst als de match niet bestaat
+     */
+    public List<String> getMatchLog(int matchID)
+    {
+        List<String> matchLog = matchLogCache.get(matchID);
+
+        if (matchLog != null)
+        {
+            return matchLog;
+        }
+
+        if (getMatch(matchID) == null)
+        {
+            return Collections.emptyList();
+        }
+
+        return matchLogCache.put(matchID, BAVM.getFileManager().getMatchLog(matchID));
+    }
+
+    /**
+     * Returnt de cache met de logs van bekeken wedstrijden
+     *
+     * @return De cache
+     */
+    public MatchLogCache getMatchLogCache()
+    {
+        return matchLogCache;
+    }
+
+    @Override
+    /**
+     * Verwijdert alle matches, de ID's worden in het volgende seizoen opnieuw gebruikt dus de cache gaat ook leeg
+     */
+    public void clearManageables()
+    {
+        super.clearManageables();
+        matchLogCache.clear();
+    }
+
     /**
      * Returnt het ID dat als volgende beschikbaar is
      *
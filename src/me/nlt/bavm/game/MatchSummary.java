@@ -0,0 +1,201 @@
+package me.nlt.bavm.game;
+
+import me.nlt.bavm.files.RecordTokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MatchSummary
+{
+    private final int[] possession;
+    private final int[] attempts;
+    private final int[] goals;
+
+    /*
+     * MatchSummary bevat alleen de samenvatting van een wedstrijd, zonder het hele verloop
+     * Dit wordt bijgehouden voor wedstrijden die in de snelle modus gesimuleerd zijn
+     */
+
+    /**
+     * MatchSummary constructor
+     *
+     * @param possession Hoeveel acties ieder team de bal had, {thuis, uit}
+     * @param attempts   Hoeveel doelpogingen ieder team had, {thuis, uit}
+     * @param goals      De goals in volgorde, iedere goal is minuut * 2 + kant
+     */
+    public MatchSummary(int[] possession, int[] attempts, int[] goals)
+    {
+        this.possession = possession.clone();
+        this.attempts = attempts.clone();
+        this.goals = goals.clone();
+    }
+
+    /**
+     * Returnt hoeveel procent van de tijd een team de bal had
+     *
+     * @param side De kant, 0 is thuis en 1 is uit
+     * @return Het percentage balbezit
+     */
+    public double getPossessionShare(int side)
+    {
+        int total = possession[0] + possession[1];
+
+        return (total == 0 ? 50 : 100.0 * possession[side] / total);
+    }
+
+    /**
+     * Returnt hoeveel acties een team de bal had
+     *
+     * @param side De kant, 0 is thuis en 1 is uit
+     * @return Hoeveelheid acties
+     */
+    public int getPossession(int side)
+    {
+        return possession[side];
+    }
+
+    /**
+     * Returnt hoeveel doelpogingen een team had
+     *
+     * @param side De kant, 0 is thuis en 1 is uit
+     * @return Hoeveelheid pogingen
+     */
+    public int getAttempts(int side)
+    {
+        return attempts[side];
+    }
+
+    /**
+     * Returnt de hoeveelheid goals in de wedstrijd
+     *
+     * @return Hoeveelheid goals
+     */
+    public int getGoalCount()
+    {
+        return goals.length;
+    }
+
+    /**
+     * Returnt de minuut waarin een goal gemaakt is
+     *
+     * @param index Index van de goal
+     * @return De minuut
+     */
+    public int getGoalMinute(int index)
+    {
+        return goals[index] >> 1;
+    }
+
+    /**
+     * Returnt de kant die een goal gemaakt heeft
+     *
+     * @param index Index van de goal
+     * @return De kant, 0 is thuis en 1 is uit
+     */
+    public int getGoalSide(int index)
+    {
+        return goals[index] & 1;
+    }
+
+    /**
+     * Maakt de tekst van de samenvatting
+     *
+     * @param homeName    Naam van het team dat thuis speelt
+     * @param visitorName Naam van het team dat uit speelt
+     * @return De log van de wedstrijd
+     */
+    public ArrayList<String> render(String homeName, String visitorName)
+    {
+        ArrayList<String> log = new ArrayList<>();
+        int[] stance = new int[2];
+
+        log.add(" ");
+        log.add(homeName + " is the home team and " + visitorName + " is the visiting team.");
+        log.add("Only the summary of this match has been kept.");
+        log.add(" ");
+        log.add("Possession: " + Math.round(getPossessionShare(0)) + "% - " + Math.round(getPossessionShare(1)) + "%");
+        log.add("Attempts: " + attempts[0] + " - " + attempts[1]);
+
+        for (int i = 0; i < goals.length; i++)
+        {
+            stance[getGoalSide(i)]++;
+            log.add((getGoalSide(i) == 0 ? homeName : visitorName) + " has scored in minute " + getGoalMinute(i) + ", " + stance[0] + "-" + stance[1] + ".");
+        }
+
+        log.add("Final stance is " + stance[0] + "-" + stance[1] + ".");
+
+        return log;
+    }
+
+    @Override
+    /**
+     * Maakt een korte string van de samenvatting, zonder tekens die het databestand niet aankan
+     *
+     * @return De string met de samenvatting
+     */
+    public String toString()
+    {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        stringBuilder.append(possession[0]).append('@').append(possession[1])
+                .append('@').append(attempts[0]).append('@').append(attempts[1]);
+
+        for (int goal : goals)
+        {
+            stringBuilder.append('@').append(goal);
+        }
+
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Maakt een samenvatting uit een string die gemaakt is door toString
+     *
+     * @param summaryString De string met de samenvatting
+     * @return De samenvatting
+     * @throws NumberFormatException Als de string geen geldige samenvatting bevat
+     */
+    public static MatchSummary parse(String summaryString) throws NumberFormatException
+    {
+        return parse(summaryString, 0, summaryString.length());
+    }
+
+    /**
+     * Maakt een samenvatting uit een stuk van een string dat gemaakt is door toString, zonder het stuk eerst los te maken
+     *
+     * @param string De string, bijvoorbeeld een heel match record
+     * @param start  Index van het eerste teken van de samenvatting
+     * @param end    Index na het laatste teken van de samenvatting
+     * @return De samenvatting
+     * @throws NumberFormatException Als het stuk geen geldige samenvatting bevat
+     */
+    public static MatchSummary parse(String string, int start, int end) throws NumberFormatException
+    {
+        int parts = 1;
+
+        for (int i = start; i < end; i++)
+        {
+            if (string.charAt(i) == '@')
+            {
+                parts++;
+            }
+        }
+
+        if (parts < 4)
+        {
+            throw new NumberFormatException("Samenvatting is niet compleet");
+        }
+
+        int[] values = new int[parts];
+
+        for (int i = 0, valueStart = start; i < parts; i++)
+        {
+            int valueEnd = RecordTokenizer.indexOf(string, '@', valueStart, end);
+
+            values[i] = RecordTokenizer.parseInt(string, valueStart, valueEnd);
+            valueStart = valueEnd + 1;
+        }
+
+        return new MatchSummary(new int[]{values[0], values[1]}, new int[]{values[2], values[3]}, Arrays.copyOfRange(values, 4, values.length));
+    }
+}
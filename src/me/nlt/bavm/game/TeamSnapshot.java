@@ -0,0 +1,94 @@
+package me.nlt.bavm.game;
+
+import me.nlt.bavm.teams.team.Team;
+import me.nlt.bavm.teams.team.TeamInfo;
+import me.nlt.bavm.teams.team.TeamInfo.StatCoefficient;
+
+public class TeamSnapshot
+{
+    private final int teamID;
+    private final String teamName;
+    private final double[] coefficients;
+
+    /*
+     * Een TeamSnapshot is een onveranderlijke kopie van alles wat een Game nodig heeft van een team,
+     * zodat er gesimuleerd kan worden zonder de managers van BAVM aan te raken
+     */
+
+    /**
+     * TeamSnapshot constructor
+     *
+     * @param teamID       ID van het team
+     * @param teamName     Naam van het team
+     * @param coefficients De statcoefficienten, op de index van StatCoefficient
+     */
+    public TeamSnapshot(int teamID, String teamName, double[] coefficients)
+    {
+        this.teamID = teamID;
+        this.teamName = teamName;
+        this.coefficients = coefficients.clone();
+    }
+
+    /**
+     * Maakt een snapshot van de huidige staat van een team
+     *
+     * @param team Het team
+     * @return De snapshot van het team
+     */
+    public static TeamSnapshot of(Team team)
+    {
+        TeamInfo teamInfo = team.getTeamInfo();
+        double[] coefficients = new double[StatCoefficient.values().length];
+
+        // Eerst de coefficienten laten berekenen en dan in een simpele array zetten
+        teamInfo.getStatCoefficients();
+
+        for (StatCoefficient statCoefficient : StatCoefficient.values())
+        {
+            coefficients[statCoefficient.getIndex()] = teamInfo.getCoefficientValue(statCoefficient.getIndex());
+        }
+
+        return new TeamSnapshot(team.getID(), team.getTeamName(), coefficients);
+    }
+
+    /**
+     * Returnt het ID van het team
+     *
+     * @return ID van het team
+     */
+    public int getTeamID()
+    {
+        return this.teamID;
+    }
+
+    /**
+     * Returnt de naam van het team
+     *
+     * @return Naam van het team
+     */
+    public String getTeamName()
+    {
+        return this.teamName;
+    }
+
+    /**
+     * Returnt de coefficient op een index
+     *
+     * @param index De index
+     * @return De waarde van de coefficient
+     */
+    public double getCoefficient(int index)
+    {
+        return this.coefficients[index];
+    }
+
+    /**
+     * Returnt de hoeveelheid coefficienten
+     *
+     * @return De hoeveelheid coefficienten
+     */
+    public int getCoefficientCount()
+    {
+        return this.coefficients.length;
+    }
+}
@@ -0,0 +1,59 @@
+package me.nlt.bavm.generator;
+
+import java.util.SplittableRandom;
+
+public class LeagueRandom
+{
+    private static long leagueSeed = new SplittableRandom().nextLong();
+    private static SplittableRandom root = new SplittableRandom(leagueSeed);
+
+    /*
+     * Alle willekeurige getallen in het spel komen uit de seed van de competitie,
+     * zodat een competitie met dezelfde seed zich precies hetzelfde gedraagt
+     */
+
+    /**
+     * Methode om de seed van de competitie te zetten, alle generators beginnen dan opnieuw
+     *
+     * @param seed De nieuwe seed
+     */
+    public static synchronized void setSeed(long seed)
+    {
+        leagueSeed = seed;
+        root = new SplittableRandom(seed);
+    }
+
+    /**
+     * Returnt de seed van de competitie
+     *
+     * @return De seed
+     */
+    public static synchronized long getSeed()
+    {
+        return leagueSeed;
+    }
+
+    /**
+     * Returnt een nieuwe generator die losstaat van alle andere
+     * Met dezelfde seed en dezelfde volgorde van aanroepen komen er dezelfde generators uit
+     *
+     * @return De nieuwe generator
+     */
+    public static synchronized SplittableRandom split()
+    {
+        return root.split();
+    }
+
+    /**
+     * Returnt de seed voor een wedstrijd, deze hangt alleen af van de seed van de competitie, het seizoen en de wedstrijd
+     * en dus niet van de volgorde waarin wedstrijden gesimuleerd worden
+     *
+     * @param season  Nummer van het seizoen
+     * @param matchID ID van de wedstrijd
+     * @return De seed voor de wedstrijd
+     */
+    public static long getMatchSeed(int season, int matchID)
+    {
+        return new SplittableRandom(getSeed() ^ (((long) season << 32) | (matchID & 0xFFFFFFFFL))).nextLong();
+    }
+}
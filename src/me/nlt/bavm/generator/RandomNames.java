@@ -1,23 +1,27 @@
 package me.nlt.bavm.generator;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomNames
 {
+    private static final String VOWELS_LOWER_CASE = "aeiouy";
+    private static final String VOWELS_UPPER_CASE = "AEIOUY";
+    private static final String CONSONANTS_LOWER_CASE = "bcdfghjklmnpqrstvwxyz";
+    private static final String CONSONANTS_UPPER_CASE = "BCDFGHJKLMNPQRSTVWXYZ";
+
     /**
      * Deze methode maakt een teamnaam aan op basis van een willekeurig woord + SV, FC, of niks
      *
+     * @param randomNumber De generator waar de getallen uit komen
      * @return Willekeurige naam
      */
-    public static String getTeamName()
+    public static String getTeamName(SplittableRandom randomNumber)
     {
-        Random randomNumber = new Random();
-
         String teamName;
         String prefixes[] = {"", "FC ", "FC ", "FC ", "SV ", "SV "};
 
         // Er wordt steeds een willekeurig woord samengevoegd met een prefix zoals 'FC'
-        teamName = prefixes[randomNumber.nextInt(6)] + getRandomWord();
+        teamName = prefixes[randomNumber.nextInt(6)] + getRandomWord(randomNumber);
 
         return teamName;
     }
@@ -25,47 +29,41 @@ public class RandomNames
     /**
      * Deze methode maakt een persoonsnaam door twee woorden als voor- en achternaam bij elkaar te doen
      *
+     * @param randomNumber De generator waar de getallen uit komen
      * @return Willekeurige naam
      */
-    public static String getPeopleName()
+    public static String getPeopleName(SplittableRandom randomNumber)
     {
-        return getRandomWord() + " " + getRandomWord();
+        return getRandomWord(randomNumber) + " " + getRandomWord(randomNumber);
     }
 
 
     /**
      * Deze methode genereert een willekeurig (maar wel leesbaar, meestal) woord
      *
+     * @param randomNumber De generator waar de getallen uit komen
      * @return Willekeurig woord
      */
-    public static String getRandomWord()
+    public static String getRandomWord(SplittableRandom randomNumber)
     {
-        // Eerst de waardes van de klinkers en medeklinkers geven
-        String vowelsLowerCase = "aeiouy";
-        String vowelsUpperCase = "AEIOUY";
-        String consonantsLowerCase = "bcdfghjklmnpqrstvwxyz";
-        String consonantsUpperCase = "BCDFGHJKLMNPQRSTVWXYZ";
-
-        Random randomNumber = new Random();
-
         // De woordlengte wordt aangemaakt, +3 zodat elk woord minimaal 3 letters lang is
         int wordLength = randomNumber.nextInt(5) + 3;
-        String word = "";
+        StringBuilder word = new StringBuilder(wordLength + 1);
 
         // Willekeurig 1 of 0 om te kijken of het woord met een medeklinker ja of nee begint
         int consonantStart = randomNumber.nextInt(2);
         boolean isConsonant = (consonantStart != 0);
 
         // De 'charAt' method van String geeft een char op de gespecificeerde index van de gegeven String, in dit geval is de index random zodat ook de letter ranodm is
-        word = (isConsonant) ? word + consonantsUpperCase.charAt(randomNumber.nextInt(21)) : word + vowelsUpperCase.charAt(randomNumber.nextInt(6));
+        word.append((isConsonant) ? CONSONANTS_UPPER_CASE.charAt(randomNumber.nextInt(21)) : VOWELS_UPPER_CASE.charAt(randomNumber.nextInt(6)));
 
         // Eerst wordt gekeken of het wordt met een medeklinker begint om te kijken wat de volgende letter moet zijn, en vervolgens wordt steeds door 2 gedeeld om afwisselend medeklinkers of klinkers toe te voegen
         for (int i = (isConsonant) ? 1 : 2; i <= wordLength; i++)
         {
-            word = (i % 2 == 0) ? word + consonantsLowerCase.charAt(randomNumber.nextInt(21)) : word + vowelsLowerCase.charAt(randomNumber.nextInt(6));
+            word.append((i % 2 == 0) ? CONSONANTS_LOWER_CASE.charAt(randomNumber.nextInt(21)) : VOWELS_LOWER_CASE.charAt(randomNumber.nextInt(6)));
         }
 
-        return word;
+        return word.toString();
     }
 }
 
@@ -4,22 +4,31 @@ import me.nlt.bavm.teams.player.Position;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class RandomStats
 {
+    private static final MathContext STAT_PRECISION = new MathContext(4);
+
+    // Basis van iedere stat per positie-ID
+    private static final int[][] POSITION_BASES = {
+            {20, 20, 30, 40, 50, 50},
+            {25, 20, 50, 50, 15, 50},
+            {20, 45, 50, 45, 10, 40},
+            {50, 50, 25, 25, 10, 50}
+    };
 
     /**
      * Deze methode genereert willekeurige stats voor de spelers, gebaseerd op hun positie (0=keeper, 1=defender, 2=midfielder, 3=attacker)
      *
      * @param position Spelerspositie
+     * @param rnd      De generator waar de getallen uit komen
      */
-    public static double[] randomStats(Position position)
+    public static double[] randomStats(Position position, SplittableRandom rnd)
     {
         double randomStats[] = new double[6];
 
-        Random rnd = new Random();
-        double playerTalent = Math.random();
+        double playerTalent = rnd.nextDouble();
 
         while (true)
         {
@@ -30,50 +39,57 @@ public class RandomStats
 
             if (playerTalent < 0.475)
             {
-                playerTalent += Math.random();
+                playerTalent += rnd.nextDouble();
             } else
             {
-                playerTalent -= Math.random();
+                playerTalent -= rnd.nextDouble();
             }
         }
 
-        int keeperBases[] = {20, 20, 30, 40, 50, 50};
-        int defenderBases[] = {25, 20, 50, 50, 15, 50};
-        int midfielderBases[] = {20, 45, 50, 45, 10, 40};
-        int attackerBases[] = {50, 50, 25, 25, 10, 50};
+        int[] bases = POSITION_BASES[position.getID()];
 
         for (int i = 0; i < 6; i++)
         {
             // Berekent de halfstat (helft van de stat)
-            switch (position.getID())
+            randomStats[i] = roundStat((bases[i] + rnd.nextInt((int) (bases[i] * playerTalent) + 1)) * playerTalent);
+        }
+
+        return randomStats;
+    }
+
+    /**
+     * Rondt een stat af op 4 significante cijfers, precies zoals new BigDecimal(String.valueOf(value), new MathContext(4)).doubleValue()
+     * Alleen als de waarde bijna halverwege twee afrondingen ligt kan de vermenigvuldiging verschil maken, dan doet BigDecimal het
+     *
+     * @param value De stat
+     * @return De afgeronde stat
+     */
+    static double roundStat(double value)
+    {
+        if (value >= 1 && value < 1000)
+        {
+            double scale = (value < 10 ? 1000 : (value < 100 ? 100 : 10));
+            double scaled = value * scale;
+            double fraction = scaled - Math.floor(scaled);
+
+            if (Math.abs(fraction - 0.5) > 1e-6)
             {
-                case 0:
-                    randomStats[i] = new BigDecimal(String.valueOf((keeperBases[i] + rnd.nextInt((int) (keeperBases[i] * playerTalent) + 1)) * playerTalent), new MathContext(4)).doubleValue();
-                    break;
-                case 1:
-                    randomStats[i] = new BigDecimal(String.valueOf((defenderBases[i] + rnd.nextInt((int) (defenderBases[i] * playerTalent) + 1)) * playerTalent), new MathContext(4)).doubleValue();
-                    break;
-                case 2:
-                    randomStats[i] = new BigDecimal(String.valueOf((midfielderBases[i] + rnd.nextInt((int) (midfielderBases[i] * playerTalent) + 1)) * playerTalent), new MathContext(4)).doubleValue();
-                    break;
-                case 3:
-                    randomStats[i] = new BigDecimal(String.valueOf((attackerBases[i] + rnd.nextInt((int) (attackerBases[i] * playerTalent) + 1)) * playerTalent), new MathContext(4)).doubleValue();
-                    break;
+                return Math.round(scaled) / scale;
             }
         }
 
-        return randomStats;
+        return new BigDecimal(String.valueOf(value), STAT_PRECISION).doubleValue();
     }
 
     /**
      * Deze methode genereert willekeurige stats voor de coach
      *
      * @param teamTalent Teamtalent, oftewel hoe goed het team is
+     * @param rnd        De generator waar de getallen uit komen
      */
-    public static double[] randomCStats(double teamTalent)
+    public static double[] randomCStats(double teamTalent, SplittableRandom rnd)
     {
         double randomCStats[] = new double[3];
-        Random rnd = new Random();
 
         for (int i = 0; i < 3; i++)
         {
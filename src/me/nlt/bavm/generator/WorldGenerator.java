@@ -0,0 +1,470 @@
+package me.nlt.bavm.generator;
+
+import me.nlt.bavm.teams.coach.Coach;
+import me.nlt.bavm.teams.player.Player;
+import me.nlt.bavm.teams.player.Position;
+import me.nlt.bavm.teams.team.Team;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class WorldGenerator
+{
+    public static final int STANDARD_PLAYERS = 750;
+    public static final int STANDARD_COACHES = 74;
+    public static final int STANDARD_TEAMS = 20;
+
+    private static final int TEAM_SIZE = 21;
+    private static final int[] POSITION_PERCENTAGES = {15, 25, 30, 30};
+    private static final Position[] TEAM_POSITIONS = {Position.KEEPER, Position.ATTACKER, Position.DEFENDER, Position.MIDFIELDER};
+    private static final double PLAYER_TEAM_TALENT = 0.4750;
+    private static final double PLAYER_TEAM_SELECTION = 0.457;
+
+    private final int playerAmount;
+    private final int coachAmount;
+    private final int teamAmount;
+
+    private String[] playerNames;
+    private Position[] playerPositions;
+    private double[][] playerStats;
+    private double[] checkSums;
+
+    private String[] coachNames;
+    private double[][] coachStats;
+
+    private String[] teamNames;
+    private String[] directorNames;
+    private double[] teamTalents;
+    private int[][] teamPlayers;
+    private int[][][] teamPlacements;
+
+    /*
+     * WorldGenerator maakt een nieuwe wereld in 1 keer: eerst alle spelers, dan alle coaches en dan alle teams
+     * Alles staat in arrays met het ID als index, de managers maken er pas daarna objecten van
+     *
+     * De generators worden in dezelfde volgorde gesplitst en gebruikt als toen iedere manager zelf genereerde,
+     * dus met dezelfde seed komt er precies dezelfde wereld uit
+     * Het laatste team is het team van de speler, alle spelers die over blijven gaan naar het marktteam
+     *
+     * Een team kiest per positie spelers uit de vrije spelers gesorteerd op controlegetal,
+     * die lijst wordt 1 keer per positie gesorteerd en daarna worden alleen de gekozen spelers eruit gehaald
+     */
+
+    /**
+     * WorldGenerator constructor
+     *
+     * @param playerAmount Hoeveel spelers er gemaakt worden
+     * @param coachAmount  Hoeveel coaches er gemaakt worden, minstens 1 per team
+     * @param teamAmount   Hoeveel teams er gemaakt worden, het laatste team is het team van de speler
+     */
+    public WorldGenerator(int playerAmount, int coachAmount, int teamAmount)
+    {
+        if (teamAmount < 1 || coachAmount < teamAmount || playerAmount < teamAmount * TEAM_SIZE)
+        {
+            throw new IllegalArgumentException("Geen geldige wereld: " + playerAmount + " spelers, " + coachAmount + " coaches en " + teamAmount + " teams");
+        }
+
+        this.playerAmount = playerAmount;
+        this.coachAmount = coachAmount;
+        this.teamAmount = teamAmount;
+    }
+
+    /**
+     * Genereert de hele wereld met generators uit LeagueRandom
+     *
+     * @return Deze generator
+     */
+    public WorldGenerator generate()
+    {
+        SplittableRandom playerRandom = LeagueRandom.split();
+        SplittableRandom coachRandom = LeagueRandom.split();
+        SplittableRandom teamRandom = LeagueRandom.split();
+
+        this.generatePlayers(playerRandom);
+        this.generateCoaches(coachRandom);
+        this.generateTeams(teamRandom);
+
+        return this;
+    }
+
+    /**
+     * Genereert de namen, posities en stats van alle spelers
+     *
+     * @param rnd De generator waar de getallen uit komen
+     */
+    private void generatePlayers(SplittableRandom rnd)
+    {
+        playerNames = new String[playerAmount];
+        playerPositions = new Position[playerAmount];
+        playerStats = new double[playerAmount][];
+        checkSums = new double[playerAmount];
+
+        // Eerst alle posities, daarna pas namen en stats
+        for (int playerID = 0; playerID < playerAmount; playerID++)
+        {
+            playerPositions[playerID] = randomPosition(rnd);
+        }
+
+        for (int playerID = 0; playerID < playerAmount; playerID++)
+        {
+            playerNames[playerID] = RandomNames.getPeopleName(rnd);
+            playerStats[playerID] = RandomStats.randomStats(playerPositions[playerID], rnd);
+
+            // Zelfde som als in PlayerStats
+            for (int i = 0; i < playerStats[playerID].length; i++)
+            {
+                checkSums[playerID] += (playerStats[playerID][i] * (i * 2) + playerStats[playerID][i]);
+            }
+        }
+    }
+
+    /**
+     * Kiest een positie gebaseerd op POSITION_PERCENTAGES
+     *
+     * @param rnd De generator waar de getallen uit komen
+     * @return De positie
+     */
+    private static Position randomPosition(SplittableRandom rnd)
+    {
+        int chanceNumber = 0;
+
+        while (chanceNumber == 0)
+        {
+            chanceNumber = (int) (rnd.nextDouble() * 100);
+        }
+
+        int previousValues = 0;
+
+        for (int chance = 0; chance < POSITION_PERCENTAGES.length; chance++)
+        {
+            previousValues += POSITION_PERCENTAGES[chance];
+
+            if (chanceNumber <= previousValues)
+            {
+                for (Position position : Position.values())
+                {
+                    if (position.getID() == chance)
+                    {
+                        return position;
+                    }
+                }
+            }
+        }
+
+        throw new IllegalStateException("Kans " + chanceNumber + " hoort bij geen positie");
+    }
+
+    /**
+     * Genereert de namen en stats van alle coaches
+     *
+     * @param rnd De generator waar de getallen uit komen
+     */
+    private void generateCoaches(SplittableRandom rnd)
+    {
+        coachNames = new String[coachAmount];
+        coachStats = new double[coachAmount][];
+
+        for (int coachID = 0; coachID < coachAmount; coachID++)
+        {
+            double teamTalent = rnd.nextDouble();
+
+            coachNames[coachID] = RandomNames.getPeopleName(rnd);
+            coachStats[coachID] = RandomStats.randomCStats(teamTalent, rnd);
+        }
+    }
+
+    /**
+     * Genereert alle teams en kiest hun spelers, team i krijgt coach i
+     *
+     * @param rnd De generator waar de getallen uit komen
+     */
+    private void generateTeams(SplittableRandom rnd)
+    {
+        teamNames = new String[teamAmount];
+        directorNames = new String[teamAmount];
+        teamTalents = new double[teamAmount];
+        teamPlayers = new int[teamAmount][];
+        teamPlacements = new int[teamAmount][][];
+
+        // Per positie de vrije spelers, gesorteerd op controlegetal
+        int[][] freePlayers = new int[TEAM_POSITIONS.length][];
+        int[] freeAmounts = new int[TEAM_POSITIONS.length];
+
+        for (int i = 0; i < TEAM_POSITIONS.length; i++)
+        {
+            freePlayers[i] = this.sortByCheckSum(TEAM_POSITIONS[i]);
+            freeAmounts[i] = freePlayers[i].length;
+        }
+
+        for (int teamID = 0; teamID < teamAmount; teamID++)
+        {
+            boolean playerTeam = (teamID == teamAmount - 1);
+            double teamTalent = (playerTeam ? PLAYER_TEAM_SELECTION : rnd.nextDouble());
+
+            this.selectPlayers(teamID, teamTalent, freePlayers, freeAmounts, rnd);
+
+            teamNames[teamID] = RandomNames.getTeamName(rnd);
+            directorNames[teamID] = RandomNames.getPeopleName(rnd);
+            teamTalents[teamID] = (playerTeam ? PLAYER_TEAM_TALENT : teamTalent);
+        }
+    }
+
+    /**
+     * Returnt de ID's van alle spelers met een positie, gesorteerd op controlegetal
+     * Bij een gelijk controlegetal gaat het laagste ID voor, net als bij de oude insertion sort
+     *
+     * @param position De positie
+     * @return De ID's van de spelers
+     */
+    private int[] sortByCheckSum(Position position)
+    {
+        int amount = 0;
+
+        for (int playerID = 0; playerID < playerAmount; playerID++)
+        {
+            if (playerPositions[playerID] == position)
+            {
+                amount++;
+            }
+        }
+
+        double[] sortedCheckSums = new double[amount];
+        int counter = 0;
+
+        for (int playerID = 0; playerID < playerAmount; playerID++)
+        {
+            if (playerPositions[playerID] == position)
+            {
+                sortedCheckSums[counter++] = checkSums[playerID];
+            }
+        }
+
+        Arrays.sort(sortedCheckSums);
+
+        // Sorteren op {plek van het controlegetal, ID} in 1 long, dan blijven gelijke controlegetallen op volgorde van ID
+        long[] keys = new long[amount];
+        counter = 0;
+
+        for (int playerID = 0; playerID < playerAmount; playerID++)
+        {
+            if (playerPositions[playerID] == position)
+            {
+                keys[counter++] = ((long) firstIndexOf(sortedCheckSums, checkSums[playerID]) << 32) | playerID;
+            }
+        }
+
+        Arrays.sort(keys);
+
+        int[] playerIDs = new int[amount];
+
+        for (int i = 0; i < amount; i++)
+        {
+            playerIDs[i] = (int) keys[i];
+        }
+
+        return playerIDs;
+    }
+
+    /**
+     * Returnt de eerste plek van een waarde in een gesorteerde array
+     *
+     * @param sorted De gesorteerde array
+     * @param value  De waarde, die in de array moet staan
+     * @return De eerste plek van de waarde
+     */
+    private static int firstIndexOf(double[] sorted, double value)
+    {
+        int low = 0;
+        int high = sorted.length;
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+
+            if (sorted[middle] < value)
+            {
+                low = middle + 1;
+            } else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Kiest de spelers van een team uit de vrije spelers, gebaseerd op het teamtalent
+     * De gekozen spelers worden uit de vrije spelers gehaald
+     *
+     * @param teamID      ID van het team
+     * @param teamTalent  Het teamtalent
+     * @param freePlayers Per positie de vrije spelers, gesorteerd op controlegetal
+     * @param freeAmounts Per positie hoeveel vrije spelers er nog zijn
+     * @param rnd         De generator waar de getallen uit komen
+     */
+    private void selectPlayers(int teamID, double teamTalent, int[][] freePlayers, int[] freeAmounts, SplittableRandom rnd)
+    {
+        int percentage = (int) (teamTalent * 10000);
+        int[] team = new int[TEAM_SIZE];
+        int teamSize = 0;
+        int[][] placement = new int[4][];
+
+        for (int position = 0; position < TEAM_POSITIONS.length; position++)
+        {
+            int[] players = freePlayers[position];
+            int amount = freeAmounts[position];
+            int positionStart = teamSize;
+
+            if (amount == 0)
+            {
+                continue;
+            }
+
+            double stepSize = 10000 / amount;
+            int playersLeft = (TEAM_POSITIONS[position] == Position.MIDFIELDER ? TEAM_SIZE - teamSize : TEAM_POSITIONS[position].getStartPlayers(rnd));
+            int[] picked = new int[Math.max(playersLeft, 1)];
+            int pickedAmount = 0;
+
+            for (int i = 1; i <= amount; i++)
+            {
+                double currentDiff = Math.abs(percentage - stepSize * i);
+                double nextDiff = (i + playersLeft >= amount ? Double.MAX_VALUE : Math.abs(percentage - stepSize * (i + 1)));
+
+                if (currentDiff <= nextDiff)
+                {
+                    picked[pickedAmount++] = i - 1;
+                    team[teamSize++] = players[i - 1];
+                    playersLeft--;
+                }
+
+                if (playersLeft <= 0)
+                {
+                    break;
+                }
+            }
+
+            // Gekozen spelers uit de vrije spelers halen, de rest blijft gesorteerd
+            if (pickedAmount > 0)
+            {
+                int write = picked[0];
+                int next = 0;
+
+                for (int read = picked[0]; read < amount; read++)
+                {
+                    if (next < pickedAmount && read == picked[next])
+                    {
+                        next++;
+                        continue;
+                    }
+
+                    players[write++] = players[read];
+                }
+
+                freeAmounts[position] = write;
+            }
+
+            placement[position] = Arrays.copyOfRange(team, positionStart, teamSize);
+        }
+
+        teamPlayers[teamID] = Arrays.copyOf(team, teamSize);
+        teamPlacements[teamID] = new int[][]{
+                firstPlayers(placement[0], 1, teamID),
+                firstPlayers(placement[2], 3, teamID),
+                firstPlayers(placement[1], 3, teamID),
+                firstPlayers(placement[3], 4, teamID)
+        };
+    }
+
+    /**
+     * Returnt de eerste spelers van een positie voor de opstelling
+     *
+     * @param players De gekozen spelers van de positie
+     * @param amount  Hoeveel spelers er in de opstelling staan
+     * @param teamID  ID van het team
+     * @return De eerste spelers
+     */
+    private static int[] firstPlayers(int[] players, int amount, int teamID)
+    {
+        if (players == null || players.length < amount)
+        {
+            throw new IllegalStateException("Niet genoeg spelers voor de opstelling van team " + teamID);
+        }
+
+        return Arrays.copyOf(players, amount);
+    }
+
+    /**
+     * Maakt de speler met een ID
+     *
+     * @param playerID ID van de speler
+     * @return De speler
+     */
+    public Player createPlayer(int playerID)
+    {
+        return new Player(playerNames[playerID], playerID, playerPositions[playerID], playerStats[playerID]);
+    }
+
+    /**
+     * Maakt de coach met een ID
+     *
+     * @param coachID ID van de coach
+     * @return De coach
+     */
+    public Coach createCoach(int coachID)
+    {
+        return new Coach(coachNames[coachID], coachID, coachStats[coachID]);
+    }
+
+    /**
+     * Maakt het team met een ID, geld en inkomen worden pas in het team zelf gegenereerd
+     *
+     * @param teamID ID van het team
+     * @return Het team
+     */
+    public Team createTeam(int teamID)
+    {
+        return new Team(teamNames[teamID], directorNames[teamID], teamID, teamPlayers[teamID], teamID, teamTalents[teamID], -1, -1, teamPlacements[teamID], null);
+    }
+
+    /**
+     * Returnt de ID's van de spelers van een team
+     *
+     * @param teamID ID van het team
+     * @return De ID's van de spelers
+     */
+    public int[] getTeamPlayers(int teamID)
+    {
+        return teamPlayers[teamID];
+    }
+
+    /**
+     * Returnt hoeveel spelers er gemaakt worden
+     *
+     * @return Hoeveelheid spelers
+     */
+    public int getPlayerAmount()
+    {
+        return playerAmount;
+    }
+
+    /**
+     * Returnt hoeveel coaches er gemaakt worden
+     *
+     * @return Hoeveelheid coaches
+     */
+    public int getCoachAmount()
+    {
+        return coachAmount;
+    }
+
+    /**
+     * Returnt hoeveel teams er gemaakt worden
+     *
+     * @return Hoeveelheid teams
+     */
+    public int getTeamAmount()
+    {
+        return teamAmount;
+    }
+}
@@ -15,6 +15,38 @@ public class AllScores
      * @return ID van winnende team
      */
     public static int displayScores()
+    {
+        ArrayList<Integer> sortedTeams = getSortedTeams();
+
+        //Pts=punten, W=wins (gewonnen), D=draws (gelijkspellen), L=losses (verliezen), F=for (voordoelpunten), A=against (tegendoelpunten)
+        BAVM.getDisplay().appendText("\t\t- - - - - - - - - - - [ Competitiestand ] - - - - - - - - - - - ",
+                "\tPts\tW\tD\tL\tF\tA");
+
+        int counter = 1;
+        for (int i : sortedTeams)
+        {
+            String toDisplay = counter + ": " + BAVM.getTeamManager().getTeam(i).getTeamName() + " (ID: " + i + ")" + (i == 19 ? " (Dit ben jij)" : "") + ":\n\t";
+
+            for (TeamInfo.Score score : TeamInfo.Score.values())
+            {
+                toDisplay = toDisplay + BAVM.getTeamManager().getTeam(i).getTeamInfo().getTeamScores().get(score) + "\t";
+            }
+
+            BAVM.getDisplay().appendText(toDisplay);
+            counter++;
+        }
+
+        BAVM.getDisplay().appendText("\n");
+
+        return sortedTeams.get(0);
+    }
+
+    /**
+     * Sorteert de teams op punten, dan doelsaldo en dan voordoelpunten, zoals in de competitiestand
+     *
+     * @return De ID's van de teams, de nr. 1 eerst
+     */
+    public static ArrayList<Integer> getSortedTeams()
     {
         ArrayList<Integer> sortedTeams = new ArrayList<>();
         HashMap<Integer, Integer> points = new HashMap<>();
@@ -76,26 +108,6 @@ public class AllScores
             }
         }
 
-        //Pts=punten, W=wins (gewonnen), D=draws (gelijkspellen), L=losses (verliezen), F=for (voordoelpunten), A=against (tegendoelpunten)
-        BAVM.getDisplay().appendText("\t\t- - - - - - - - - - - [ Competitiestand ] - - - - - - - - - - - ",
-                "\tPts\tW\tD\tL\tF\tA");
-
-        int counter = 1;
-        for (int i : sortedTeams)
-        {
-            String toDisplay = counter + ": " + BAVM.getTeamManager().getTeam(i).getTeamName() + " (ID: " + i + ")" + (i == 19 ? " (Dit ben jij)" : "") + ":\n\t";
-
-            for (TeamInfo.Score score : TeamInfo.Score.values())
-            {
-                toDisplay = toDisplay + BAVM.getTeamManager().getTeam(i).getTeamInfo().getTeamScores().get(score) + "\t";
-            }
-
-            BAVM.getDisplay().appendText(toDisplay);
-            counter++;
-        }
-
-        BAVM.getDisplay().appendText("\n");
-
-        return sortedTeams.get(0);
+        return sortedTeams;
     }
 }
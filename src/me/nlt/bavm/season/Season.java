@@ -6,6 +6,8 @@ import java.util.ArrayList;
 
 public class Season
 {
+    private static final int RELEGATION_PLACES = 3;
+
     private ArrayList<MatchWeek> seasonWeeks = new ArrayList<>();
 
     /**
@@ -42,4 +44,14 @@ public class Season
         return seasonWeeks;
     }
 
+    /**
+     * Returnt hoeveel teams onderaan de eindstand degraderen
+     *
+     * @return Hoeveelheid plekken
+     */
+    public int getRelegationPlaces()
+    {
+        return RELEGATION_PLACES;
+    }
+
 }
@@ -0,0 +1,333 @@
+package me.nlt.bavm.season;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.game.Game;
+import me.nlt.bavm.game.TeamSnapshot;
+import me.nlt.bavm.teams.team.Team;
+import me.nlt.bavm.teams.team.TeamInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class SeasonForecast
+{
+    private final TeamSnapshot[] snapshots;
+    private final int[] points;
+    private final int[] goalsFor;
+    private final int[] goalsAgainst;
+    private final int[][] fixtures;
+
+    private long[][] positionCounts;
+    private int simulations;
+
+    /*
+     * SeasonForecast speelt de rest van het seizoen heel vaak na op kopieen van de teams en de stand,
+     * zo kunnen we zien hoe groot de kans is dat een team op een bepaalde plek eindigt
+     */
+
+    /**
+     * SeasonForecast constructor
+     *
+     * @param snapshots    Snapshots van alle teams, de index in deze array is ook de index in de fixtures
+     * @param points       Huidige punten per team
+     * @param goalsFor     Huidige voordoelpunten per team
+     * @param goalsAgainst Huidige tegendoelpunten per team
+     * @param fixtures     De wedstrijden die nog gespeeld moeten worden, in de vorm {thuisIndex, uitIndex}
+     */
+    public SeasonForecast(TeamSnapshot[] snapshots, int[] points, int[] goalsFor, int[] goalsAgainst, int[][] fixtures)
+    {
+        this.snapshots = snapshots.clone();
+        this.points = points.clone();
+        this.goalsFor = goalsFor.clone();
+        this.goalsAgainst = goalsAgainst.clone();
+        this.fixtures = fixtures.clone();
+    }
+
+    /**
+     * Maakt een voorspelling vanaf de huidige week met de huidige stand
+     *
+     * @return De voorspelling, nog niet berekend
+     */
+    public static SeasonForecast fromCurrentSeason()
+    {
+        int teams = BAVM.getTeamManager().getLoadedTeams().size();
+        TeamSnapshot[] snapshots = new TeamSnapshot[teams];
+        int[] points = new int[teams];
+        int[] goalsFor = new int[teams];
+        int[] goalsAgainst = new int[teams];
+        ArrayList<int[]> fixtures = new ArrayList<>();
+
+        // Alles wordt hier 1 keer gekopieerd, daarna wordt de TeamManager niet meer aangeraakt
+        // De ID's van de teams lopen van 0 omhoog, dus het ID is ook de index in de fixtures
+        for (int i = 0; i < teams; i++)
+        {
+            Team team = BAVM.getTeamManager().getTeam(i);
+            HashMap<TeamInfo.Score, Integer> teamScores = team.getTeamInfo().getTeamScores();
+
+            snapshots[i] = TeamSnapshot.of(team);
+            points[i] = teamScores.get(TeamInfo.Score.POINTS);
+            goalsFor[i] = teamScores.get(TeamInfo.Score.GOALSFOR);
+            goalsAgainst[i] = teamScores.get(TeamInfo.Score.GOALSAGAINST);
+        }
+
+        ArrayList<MatchWeek> seasonWeeks = BAVM.getSeason().getSeasonWeeks();
+
+        for (int week = Week.getWeekNumber(); week < seasonWeeks.size(); week++)
+        {
+            for (PlannedMatch plannedMatch : seasonWeeks.get(week).getMatchesInWeek())
+            {
+                fixtures.add(new int[]{plannedMatch.getTeamIDs()[0], plannedMatch.getTeamIDs()[1]});
+            }
+        }
+
+        return new SeasonForecast(snapshots, points, goalsFor, goalsAgainst, fixtures.toArray(new int[fixtures.size()][]));
+    }
+
+    /**
+     * Speelt de rest van het seizoen het gegeven aantal keer na, verdeeld over alle cores
+     *
+     * @param simulations Hoe vaak het seizoen nagespeeld wordt
+     * @param seed        Seed, met dezelfde seed komt dezelfde voorspelling eruit
+     */
+    public void simulate(int simulations, long seed)
+    {
+        int teams = snapshots.length;
+        int chunks = Math.max(1, Math.min(simulations, Runtime.getRuntime().availableProcessors() * 4));
+
+        // Ieder stuk telt in een eigen array, die worden pas aan het eind bij elkaar opgeteld
+        this.positionCounts = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> simulateChunk(simulations * chunk / chunks, simulations * (chunk + 1) / chunks, seed))
+                .reduce(new long[teams][teams], (counts, otherCounts) -> {
+                    long[][] sum = new long[teams][teams];
+
+                    for (int i = 0; i < teams; i++)
+                    {
+                        for (int j = 0; j < teams; j++)
+                        {
+                            sum[i][j] = counts[i][j] + otherCounts[i][j];
+                        }
+                    }
+
+                    return sum;
+                });
+        this.simulations = simulations;
+    }
+
+    /**
+     * Speelt de seizoenen met de gegeven nummers na
+     *
+     * @param from Eerste seizoen (inclusief)
+     * @param to   Laatste seizoen (exclusief)
+     * @param seed De seed van de hele voorspelling
+     * @return Hoe vaak ieder team op iedere plek is geeindigd
+     */
+    private long[][] simulateChunk(int from, int to, long seed)
+    {
+        int teams = snapshots.length;
+        long[][] counts = new long[teams][teams];
+        int[] seasonPoints = new int[teams];
+        int[] seasonFor = new int[teams];
+        int[] seasonAgainst = new int[teams];
+
+        for (int replay = from; replay < to; replay++)
+        {
+            SplittableRandom random = new SplittableRandom(seed + replay);
+
+            System.arraycopy(points, 0, seasonPoints, 0, teams);
+            System.arraycopy(goalsFor, 0, seasonFor, 0, teams);
+            System.arraycopy(goalsAgainst, 0, seasonAgainst, 0, teams);
+
+            for (int[] fixture : fixtures)
+            {
+                int[] result = new Game(snapshots[fixture[0]], snapshots[fixture[1]], random.nextLong(), Game.SimulationMode.RESULTS).getGameResult();
+
+                seasonFor[fixture[0]] += result[0];
+                seasonAgainst[fixture[0]] += result[1];
+                seasonFor[fixture[1]] += result[1];
+                seasonAgainst[fixture[1]] += result[0];
+
+                if (result[0] == result[1])
+                {
+                    seasonPoints[fixture[0]] += 1;
+                    seasonPoints[fixture[1]] += 1;
+                } else if (result[0] > result[1])
+                {
+                    seasonPoints[fixture[0]] += 3;
+                } else
+                {
+                    seasonPoints[fixture[1]] += 3;
+                }
+            }
+
+            int[] table = rankTeams(seasonPoints, seasonFor, seasonAgainst);
+
+            for (int position = 0; position < teams; position++)
+            {
+                counts[table[position]][position]++;
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Sorteert de teams op punten, dan doelsaldo en dan voordoelpunten
+     *
+     * @param points       Punten per team
+     * @param goalsFor     Voordoelpunten per team
+     * @param goalsAgainst Tegendoelpunten per team
+     * @return De indexen van de teams, van de eerste naar de laatste plek
+     */
+    private static int[] rankTeams(int[] points, int[] goalsFor, int[] goalsAgainst)
+    {
+        int[] table = new int[points.length];
+
+        for (int i = 0; i < table.length; i++)
+        {
+            table[i] = i;
+        }
+
+        // Insertion sort, met 20 teams is dat sneller dan een Comparator met boxing
+        for (int i = 1; i < table.length; i++)
+        {
+            int team = table[i];
+            int j = i - 1;
+
+            while (j >= 0 && isBetter(team, table[j], points, goalsFor, goalsAgainst))
+            {
+                table[j + 1] = table[j];
+                j--;
+            }
+
+            table[j + 1] = team;
+        }
+
+        return table;
+    }
+
+    /**
+     * Checkt of het ene team hoger in de stand staat dan het andere
+     *
+     * @param team         Het team
+     * @param otherTeam    Het andere team
+     * @param points       Punten per team
+     * @param goalsFor     Voordoelpunten per team
+     * @param goalsAgainst Tegendoelpunten per team
+     * @return Boolean die aangeeft of het team hoger staat
+     */
+    private static boolean isBetter(int team, int otherTeam, int[] points, int[] goalsFor, int[] goalsAgainst)
+    {
+        if (points[team] != points[otherTeam])
+        {
+            return points[team] > points[otherTeam];
+        }
+
+        int difference = goalsFor[team] - goalsAgainst[team];
+        int otherDifference = goalsFor[otherTeam] - goalsAgainst[otherTeam];
+
+        if (difference != otherDifference)
+        {
+            return difference > otherDifference;
+        }
+
+        return goalsFor[team] > goalsFor[otherTeam];
+    }
+
+    /**
+     * Returnt de kans dat een team op een plek eindigt
+     *
+     * @param teamIndex De index van het team
+     * @param position  De plek, 0 is de eerste plek
+     * @return De kans tussen 0 en 1
+     */
+    public double getPositionChance(int teamIndex, int position)
+    {
+        if (simulations == 0)
+        {
+            return 0;
+        }
+
+        return (double) positionCounts[teamIndex][position] / simulations;
+    }
+
+    /**
+     * Returnt de kans dat een team kampioen wordt
+     *
+     * @param teamIndex De index van het team
+     * @return De kans tussen 0 en 1
+     */
+    public double getTitleChance(int teamIndex)
+    {
+        return getPositionChance(teamIndex, 0);
+    }
+
+    /**
+     * Returnt de kans dat een team in de onderste plekken eindigt
+     *
+     * @param teamIndex De index van het team
+     * @param places    Het aantal plekken onderaan dat telt als degradatie
+     * @return De kans tussen 0 en 1
+     */
+    public double getRelegationChance(int teamIndex, int places)
+    {
+        double chance = 0;
+
+        for (int position = snapshots.length - places; position < snapshots.length; position++)
+        {
+            chance += getPositionChance(teamIndex, position);
+        }
+
+        return chance;
+    }
+
+    /**
+     * Returnt de gemiddelde eindpositie van een team
+     *
+     * @param teamIndex De index van het team
+     * @return De gemiddelde positie, 1 is de eerste plek
+     */
+    public double getExpectedPosition(int teamIndex)
+    {
+        double expected = 0;
+
+        for (int position = 0; position < snapshots.length; position++)
+        {
+            expected += getPositionChance(teamIndex, position) * (position + 1);
+        }
+
+        return expected;
+    }
+
+    /**
+     * Returnt de snapshot van een team
+     *
+     * @param teamIndex De index van het team
+     * @return De snapshot
+     */
+    public TeamSnapshot getSnapshot(int teamIndex)
+    {
+        return snapshots[teamIndex];
+    }
+
+    /**
+     * Returnt de hoeveelheid teams in de voorspelling
+     *
+     * @return De hoeveelheid teams
+     */
+    public int getTeamCount()
+    {
+        return snapshots.length;
+    }
+
+    /**
+     * Returnt de hoeveelheid wedstrijden die per seizoen nagespeeld worden
+     *
+     * @return De hoeveelheid wedstrijden
+     */
+    public int getRemainingMatches()
+    {
+        return fixtures.length;
+    }
+}
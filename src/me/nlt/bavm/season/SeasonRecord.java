@@ -0,0 +1,193 @@
+package me.nlt.bavm.season;
+
+import me.nlt.bavm.BAVM;
+import me.nlt.bavm.game.Match;
+import me.nlt.bavm.teams.team.Team;
+import me.nlt.bavm.teams.team.TeamInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class SeasonRecord
+{
+    private final int seasonNumber;
+    private final int[] teamIDs;
+    private final String[] teamNames;
+    private final int[][] teamScores;
+    private final int[][] matchResults;
+
+    /*
+     * SeasonRecord is de samenvatting van een afgelopen seizoen: de eindstand en de uitslagen van alle wedstrijden
+     * Dit wordt aan het eind van een seizoen in een eigen bestand gezet, zodat het databestand alleen het huidige seizoen bevat
+     */
+
+    /**
+     * SeasonRecord constructor
+     *
+     * @param seasonNumber Nummer van het seizoen
+     * @param teamIDs      ID's van de teams in de volgorde van de eindstand
+     * @param teamNames    Namen van de teams, in dezelfde volgorde
+     * @param teamScores   Scores van de teams in de volgorde van TeamInfo.Score, in dezelfde volgorde
+     * @param matchResults Iedere wedstrijd als {thuis, uit, goals thuis, goals uit}
+     */
+    public SeasonRecord(int seasonNumber, int[] teamIDs, String[] teamNames, int[][] teamScores, int[][] matchResults)
+    {
+        this.seasonNumber = seasonNumber;
+        this.teamIDs = teamIDs;
+        this.teamNames = teamNames;
+        this.teamScores = teamScores;
+        this.matchResults = matchResults;
+    }
+
+    /**
+     * Maakt een samenvatting van het huidige seizoen, aanroepen voordat de scores gereset worden
+     *
+     * @return De samenvatting
+     */
+    public static SeasonRecord fromCurrentSeason()
+    {
+        ArrayList<Integer> sortedTeams = AllScores.getSortedTeams();
+        int[] teamIDs = new int[sortedTeams.size()];
+        String[] teamNames = new String[sortedTeams.size()];
+        int[][] teamScores = new int[sortedTeams.size()][TeamInfo.Score.values().length];
+
+        for (int i = 0; i < sortedTeams.size(); i++)
+        {
+            Team team = BAVM.getTeamManager().getTeam(sortedTeams.get(i));
+
+            teamIDs[i] = team.getID();
+            teamNames[i] = team.getTeamName();
+
+            for (TeamInfo.Score score : TeamInfo.Score.values())
+            {
+                teamScores[i][score.ordinal()] = team.getTeamInfo().getTeamScores().get(score);
+            }
+        }
+
+        int[][] matchResults = new int[BAVM.getMatchManager().manageables.size()][];
+
+        for (int i = 0; i < matchResults.length; i++)
+        {
+            Match match = (Match) BAVM.getMatchManager().manageables.get(i);
+
+            matchResults[i] = new int[]{match.getTeamIDs()[0], match.getTeamIDs()[1], match.getMatchGoals()[0], match.getMatchGoals()[1]};
+        }
+
+        return new SeasonRecord(Week.seasonNumber, teamIDs, teamNames, teamScores, matchResults);
+    }
+
+    /**
+     * Returnt het nummer van het seizoen
+     *
+     * @return Nummer van het seizoen
+     */
+    public int getSeasonNumber()
+    {
+        return seasonNumber;
+    }
+
+    /**
+     * Returnt hoeveel teams er in de eindstand staan
+     *
+     * @return Hoeveelheid teams
+     */
+    public int getTeamCount()
+    {
+        return teamIDs.length;
+    }
+
+    /**
+     * Returnt het ID van het team op een plek in de eindstand
+     *
+     * @param position De plek, 0 is de kampioen
+     * @return ID van het team
+     */
+    public int getTeamID(int position)
+    {
+        return teamIDs[position];
+    }
+
+    /**
+     * Returnt de naam van het team op een plek in de eindstand
+     *
+     * @param position De plek, 0 is de kampioen
+     * @return Naam van het team
+     */
+    public String getTeamName(int position)
+    {
+        return teamNames[position];
+    }
+
+    /**
+     * Returnt een score van het team op een plek in de eindstand
+     *
+     * @param position De plek, 0 is de kampioen
+     * @param score    De score
+     * @return De waarde van de score
+     */
+    public int getScore(int position, TeamInfo.Score score)
+    {
+        return teamScores[position][score.ordinal()];
+    }
+
+    /**
+     * Returnt de plek van een team in de eindstand
+     *
+     * @param teamID ID van het team
+     * @return De plek, of -1 als het team niet in de eindstand staat
+     */
+    public int getPosition(int teamID)
+    {
+        for (int position = 0; position < teamIDs.length; position++)
+        {
+            if (teamIDs[position] == teamID)
+            {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returnt de hoeveelheid gespeelde wedstrijden
+     *
+     * @return Hoeveelheid wedstrijden
+     */
+    public int getMatchCount()
+    {
+        return matchResults.length;
+    }
+
+    /**
+     * Returnt de uitslag van een wedstrijd
+     *
+     * @param index Index van de wedstrijd, in de volgorde waarin ze gespeeld zijn
+     * @return {thuis, uit, goals thuis, goals uit}
+     */
+    public int[] getMatchResult(int index)
+    {
+        return matchResults[index];
+    }
+
+    /**
+     * Returnt de plekken in de eindstand gesorteerd op voordoelpunten, de topscorers van het seizoen
+     * Bij evenveel doelpunten gaat het team dat hoger eindigde voor
+     *
+     * @return De plekken, het team met de meeste doelpunten eerst
+     */
+    public int[] getTopScorers()
+    {
+        Integer[] positions = new Integer[teamIDs.length];
+
+        for (int i = 0; i < positions.length; i++)
+        {
+            positions[i] = i;
+        }
+
+        Arrays.sort(positions, Comparator.comparingInt((Integer position) -> -teamScores[position][TeamInfo.Score.GOALSFOR.ordinal()]));
+
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -2,7 +2,6 @@ package me.nlt.bavm.season;
 
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.game.MatchManager;
-import me.nlt.bavm.teams.Manageable;
 import me.nlt.bavm.teams.TeamAI;
 import me.nlt.bavm.teams.team.Geld;
 import me.nlt.bavm.teams.team.Team;
@@ -27,30 +26,30 @@ public class Week
         }
 
         TeamManager teamManager = BAVM.getTeamManager();
-        MatchManager matchManager = BAVM.getMatchManager();
+        MatchManager<?> matchManager = BAVM.getMatchManager();
         MatchWeek matchWeek = BAVM.getSeason().getSeasonWeeks().get(weekNumber);
 
         // Team AI
         TeamAI.doTeamAI();
 
         /*
-         * Wedstrijden worden berekend
+         * Wedstrijden worden tegelijk berekend, geen team speelt twee keer in een week
          */
-        for (PlannedMatch plannedMatch : matchWeek.getMatchesInWeek())
+        int[] matchIDs = matchManager.simulateMatches(matchWeek.getMatchesInWeek());
+
+        // Onderbroken of mislukt, dan is er niks gespeeld en blijft het dezelfde week
+        if (matchIDs.length != matchWeek.getMatchesInWeek().size())
         {
-            int matchID = matchManager.simulateMatch(plannedMatch.getTeamIDs()[0], plannedMatch.getTeamIDs()[1]);
-            plannedMatch.getMatchName();
+            return false;
+        }
+
+        for (int i = 0; i < matchIDs.length; i++)
+        {
+            PlannedMatch plannedMatch = matchWeek.getMatchesInWeek().get(i);
+            int matchID = matchIDs[i];
 
             BAVM.getDisplay().appendText("\nMatch (ID: " + matchID + "): " + teamManager.getTeam(plannedMatch.getTeamIDs()[0]).getTeamName() + " (ID: " + plannedMatch.getTeamIDs()[0] + ")-" + teamManager.getTeam(plannedMatch.getTeamIDs()[1]).getTeamName() + " (ID: " + plannedMatch.getTeamIDs()[1] + ")",
                     "Result: " + matchManager.getMatch(matchID).getMatchGoals()[0] + "-" + matchManager.getMatch(matchID).getMatchGoals()[1]);
-
-            try
-            {
-                Thread.sleep(1);
-            } catch (InterruptedException e)
-            {
-                BAVM.getDisplay().printException(e);
-            }
         }
 
         weekNumber++;
@@ -91,23 +90,24 @@ public class Week
     {
         BAVM.getDisplay().readLine(false, "Typ iets om verder te gaan naar het volgende seizoen");
 
+        // Eindstand en uitslagen bewaren in een eigen bestand, het databestand houdt alleen het nieuwe seizoen
+        BAVM.getFileManager().archiveSeason(SeasonRecord.fromCurrentSeason());
+
         for (int i = 0; i < 20; i++)
         {
             BAVM.getTeamManager().getTeam(i).getTeamInfo().resetTeamScores();
         }
 
-        for (Object object : BAVM.getMatchManager().manageables)
-        {
-            BAVM.getFileManager().writeData("match", "NULL <-> PH", ((Manageable) object).getID());
-        }
-
-        BAVM.getMatchManager().manageables.clear();
+        // De wedstrijden van het oude seizoen staan nu in de samenvatting, in het databestand is 1 clear genoeg
+        BAVM.getFileManager().clearRecords("matches");
+        BAVM.getMatchManager().clearManageables();
 
         weekNumber = 0;
         seasonNumber++;
 
         BAVM.getFileManager().addDate("week", true);
         BAVM.getFileManager().addDate("season", false);
+        BAVM.getFileManager().startSeasonArchive(seasonNumber);
 
         for (int i = 0; i < 20; i++)
         {
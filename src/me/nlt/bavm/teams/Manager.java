@@ -1,14 +1,34 @@
 package me.nlt.bavm.teams;
 
+import me.nlt.bavm.BAVM;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 
 public abstract class Manager<T extends Manageable>
 {
+    private static final int PARSE_CHUNK_SIZE = 64;
+    private static ExecutorService loadExecutor = ForkJoinPool.commonPool();
+
     public ArrayList<T> manageables;
 
+    private Manageable[] manageablesByID;
+
+    /*
+     * Naast de lijst staat ieder object ook in een array op de plek van zijn ID,
+     * ID's zijn klein en lopen van 0 omhoog dus opzoeken is gewoon een index in de array
+     * Objecten moeten daarom altijd via addManageable en clearManageables toegevoegd en verwijderd worden
+     */
+
     public Manager()
     {
         manageables = new ArrayList<>();
+        manageablesByID = new Manageable[64];
     }
 
     public abstract void loadManageables();
@@ -17,16 +37,162 @@ public abstract class Manager<T extends Manageable>
 
     public abstract void generateManageables();
 
+    /**
+     * Returnt het object met een ID
+     *
+     * @param ID Het ID
+     * @return Het object, of null als er geen object met dat ID is
+     */
+    @SuppressWarnings("unchecked")
     public T getManageable(int ID)
     {
-        for (T object : manageables)
+        if (ID < 0 || ID >= manageablesByID.length)
+        {
+            return null;
+        }
+
+        return (T) manageablesByID[ID];
+    }
+
+    /**
+     * Voegt een object toe aan de lijst en de index
+     *
+     * @param manageable Het object
+     */
+    public void addManageable(T manageable)
+    {
+        int ID = manageable.getID();
+
+        if (ID >= manageablesByID.length)
         {
-            if (object.getID() == ID)
+            manageablesByID = Arrays.copyOf(manageablesByID, Math.max(ID + 1, manageablesByID.length * 2));
+        }
+
+        if (ID >= 0)
+        {
+            manageablesByID[ID] = manageable;
+        }
+
+        manageables.add(manageable);
+    }
+
+    /**
+     * Verwijdert alle objecten uit de lijst en de index
+     */
+    public void clearManageables()
+    {
+        manageables.clear();
+        Arrays.fill(manageablesByID, null);
+    }
+
+    /**
+     * Maakt objecten uit records, in stukken verdeeld over de executor
+     * De parser mag alleen het record zelf en managers die al helemaal geladen zijn gebruiken
+     *
+     * @param records  De records, op iedere plek het record met dat ID of null
+     * @param parser   Methode die een object maakt uit een record, null betekent dat het record overgeslagen wordt
+     * @param progress Krijgt na ieder stuk hoeveel records er gedaan zijn, dit gebeurt op de thread die laadt
+     * @return De objecten in de volgorde van de records, zonder de records die niet gemaakt konden worden
+     * @throws IllegalStateException Als het laden onderbroken is, de interrupt blijft dan gezet
+     */
+    @SuppressWarnings("unchecked")
+    protected ArrayList<T> parseRecords(byte[][] records, RecordParser<T> parser, IntConsumer progress)
+    {
+        int chunks = (records.length + PARSE_CHUNK_SIZE - 1) / PARSE_CHUNK_SIZE;
+        ArrayList<Future<Object[]>> futures = new ArrayList<>(chunks);
+
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            int from = chunk * PARSE_CHUNK_SIZE;
+            int to = Math.min(records.length, from + PARSE_CHUNK_SIZE);
+
+            // Ieder stuk geeft per record het object of de exception terug, fouten worden pas op de thread die laadt geprint
+            futures.add(loadExecutor.submit(() -> {
+                Object[] results = new Object[to - from];
+
+                for (int i = from; i < to; i++)
+                {
+                    if (records[i] == null)
+                    {
+                        continue;
+                    }
+
+                    try
+                    {
+                        results[i - from] = parser.parse(records[i]);
+                    } catch (Exception e)
+                    {
+                        results[i - from] = e;
+                    }
+                }
+
+                return results;
+            }));
+        }
+
+        ArrayList<T> parsed = new ArrayList<>(records.length);
+
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            try
+            {
+                for (Object result : futures.get(chunk).get())
+                {
+                    if (result instanceof Exception)
+                    {
+                        BAVM.getDisplay().printException((Exception) result);
+                    } else if (result != null)
+                    {
+                        parsed.add((T) result);
+                    }
+                }
+            } catch (InterruptedException e)
             {
-                return object;
+                // Met een deel van de objecten zou een volgende save records in het bestand overschrijven, dus het laden stopt
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Laden onderbroken na " + parsed.size() + " van de " + records.length + " records", e);
+            } catch (ExecutionException e)
+            {
+                // Fouten in een record komen als resultaat terug, dit is een fout in het stuk zelf
+                futures.forEach(future -> future.cancel(true));
+
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error)
+                {
+                    throw (Error) e.getCause();
+                }
+
+                throw new IllegalStateException(e.getCause());
             }
+
+            progress.accept(Math.min(records.length, (chunk + 1) * PARSE_CHUNK_SIZE));
         }
 
-        return null;
+        return parsed;
+    }
+
+    /**
+     * Methode om de executor te veranderen waarop records tegelijk worden gelezen
+     *
+     * @param executor De nieuwe executor
+     */
+    public static void setLoadExecutor(ExecutorService executor)
+    {
+        Manager.loadExecutor = executor;
+    }
+
+    public interface RecordParser<R>
+    {
+        /**
+         * Maakt een object uit een record
+         *
+         * @param record Het record
+         * @return Het object, of null als het record overgeslagen moet worden
+         * @throws Exception Als het record niet klopt
+         */
+        R parse(byte[] record) throws Exception;
     }
 }
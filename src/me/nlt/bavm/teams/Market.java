@@ -3,14 +3,24 @@ package me.nlt.bavm.teams;
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.teams.player.Player;
 import me.nlt.bavm.teams.player.PlayerManager;
+import me.nlt.bavm.teams.team.Team;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 public class Market
 {
-    public static boolean statsChanged = true;
+    private static final int TOTAL_VALUE = 112341442;
+
+    public static boolean marketChanged = true;
+
+    private static double totalSkill;
+    private static MarketIndex marketIndex;
+
+    /*
+     * De marktwaarde van een speler is zijn deel van de totale skill van alle spelers, keer de totale waarde van de markt
+     * De totale skill wordt 1 keer opgeteld bij het laden en daarna bijgehouden als een speler beter of slechter wordt,
+     * de waarde van een speler wordt pas uitgerekend als iemand hem opvraagt
+     */
 
     public enum MarketFilter
     {
@@ -54,13 +64,12 @@ public class Market
     }
 
     /**
-     * Methode die voor alle spelers hun marktwaarde berekent
+     * Methode die de totale skill van alle spelers optelt, aanroepen nadat de spelers geladen of gegenereerd zijn
      *
      * @param playerManager De playermanager
      */
-    public static void calculatePlayerValues(PlayerManager playerManager)
+    public static void calculateTotalSkill(PlayerManager playerManager)
     {
-        int totalValue = 112341442;
         double totalSkill = 0;
 
         for (Object object : playerManager.getLoadedPlayers())
@@ -70,14 +79,49 @@ public class Market
             totalSkill += player.getPlayerStats().getTotalSkill();
         }
 
-        for (Object object : playerManager.getLoadedPlayers())
-        {
-            Player player = (Player) object;
-            double promille = player.getPlayerStats().getTotalSkill() / totalSkill * 1000;
-            double newValue = totalValue / 1000 * promille;
+        Market.totalSkill = totalSkill;
+        marketChanged = true;
+    }
+
+    /**
+     * Past de totale skill aan nadat de skill van een speler veranderd is
+     *
+     * @param difference Het verschil in totale skill van de speler
+     */
+    public static void skillChanged(double difference)
+    {
+        totalSkill += difference;
+    }
+
+    /**
+     * Berekent de marktwaarde bij een totale skill
+     *
+     * @param playerSkill De totale skill van de speler
+     * @return De marktwaarde
+     */
+    public static double getPlayerValue(double playerSkill)
+    {
+        double promille = playerSkill / totalSkill * 1000;
 
-            player.setMarketValue(newValue);
+        return TOTAL_VALUE / 1000 * promille;
+    }
+
+    /**
+     * Returnt de index van de markt, deze wordt opnieuw gemaakt als de spelers op de markt of hun skill veranderd zijn
+     *
+     * @return De index van de markt
+     */
+    public static MarketIndex getMarketIndex()
+    {
+        Team marketTeam = BAVM.getTeamManager().marketTeam;
+
+        if (marketChanged || marketIndex == null || !marketIndex.isIndexOf(marketTeam) || marketIndex.hasSkillChanges())
+        {
+            marketIndex = new MarketIndex(marketTeam, marketIndex);
+            marketChanged = false;
         }
+
+        return marketIndex;
     }
 
     /**
@@ -88,12 +132,6 @@ public class Market
      */
     public static String[] listPlayers(ArrayList<MarketFilter> marketFilters)
     {
-        if (statsChanged)
-        {
-            calculatePlayerValues(BAVM.getPlayerManager());
-            statsChanged = false;
-        }
-
         ArrayList<MarketFilter> positionFilter = new ArrayList<>();
         MarketFilter sortingFilter = null;
 
@@ -116,113 +154,6 @@ public class Market
             positionFilter.add(MarketFilter.ALL);
         }
 
-        ArrayList<Player> filteredPlayers = getFilteredPlayers(positionFilter.toArray(new MarketFilter[positionFilter.size()]));
-        ArrayList<Player> sortedPlayers = sortPlayers(filteredPlayers, sortingFilter);
-        ArrayList<String> marketStrings = new ArrayList<>();
-
-        for (int i = 0; i < sortedPlayers.size(); i++)
-        {
-            Player player = sortedPlayers.get(i);
-
-            marketStrings.add((i + 1) + ": " + player.getPlayerName()
-                    + " - Positie: " + player.getPosition().getDutchAlias().toLowerCase()
-                    + " - Skill: " + new DecimalFormat("###.##").format(player.getPlayerStats().getTotalSkill())
-                    + " - Prijs: $" + new DecimalFormat("######.##").format(player.getMarketValue())
-                    + " - ID: " + player.getPlayerID());
-        }
-
-        return marketStrings.toArray(new String[marketStrings.size()]);
-    }
-
-    /**
-     * Methode die spelers filtert op basis van locatiefilters
-     *
-     * @param marketFilters De locatie filters
-     * @return De gefilterde arraylist met spelers
-     */
-    private static ArrayList<Player> getFilteredPlayers(MarketFilter... marketFilters)
-    {
-        ArrayList<Player> playersInMarket = BAVM.getTeamManager().marketTeam.getTeamInfo().getPlayers();
-        ArrayList<Player> filteredPlayers = new ArrayList<>();
-
-        for (MarketFilter filter : marketFilters)
-        {
-            if (filter == MarketFilter.ALL)
-            {
-                return playersInMarket;
-            }
-
-            filteredPlayers.addAll(playersInMarket.stream().filter(player -> player.getPosition().getMarketFiler() == filter).collect(Collectors.toList()));
-        }
-
-        return filteredPlayers;
-    }
-
-    /**
-     * Methode die spelers sorteerd op basis van filters
-     *
-     * @param players      De spelers die gesorteerd moeten worden
-     * @param marketFilter De filters
-     * @return De gesorteerde arrayList
-     */
-    private static ArrayList<Player> sortPlayers(ArrayList<Player> players, MarketFilter marketFilter)
-    {
-        ArrayList<Player> playerList = new ArrayList<>();
-
-        if (marketFilter == null)
-        {
-            return players;
-        }
-
-        for (Player player : players)
-        {
-            double value = (marketFilter.name().contains("PRICE") ? player.getMarketValue() : player.getPlayerStats().getTotalSkill());
-
-            if (playerList.isEmpty())
-            {
-                playerList.add(player);
-                continue;
-            }
-
-            ArrayList<Player> playerCopy = new ArrayList<>();
-
-            for (int i = 0; i < playerList.size(); i++)
-            {
-                Player loopPlayer = playerList.get(i);
-                double loopValue = (marketFilter.name().contains("PRICE") ? loopPlayer.getMarketValue() : loopPlayer.getPlayerStats().getTotalSkill());
-
-                if ((marketFilter.name().contains("LOW_HIGH") ? loopValue > value : loopValue < value))
-                {
-                    int size = playerList.size();
-                    int cuts = 0;
-
-                    for (int j = i; j < size; j++)
-                    {
-                        playerCopy.add(playerList.get(j));
-                        cuts++;
-                    }
-
-                    for (int j = 0; j < cuts; j++)
-                    {
-                        int index = (playerList.size() == 1 ? 0 : playerList.size() - 1);
-                        playerList.remove(index);
-                    }
-
-                    playerList.add(player);
-                    playerList.addAll(playerCopy);
-                    break;
-                }
-
-                if (i + 1 == playerList.size())
-                {
-                    playerList.add(player);
-                    break;
-                }
-            }
-        }
-
-        players.clear();
-        players.addAll(playerList);
-        return players;
+        return getMarketIndex().listPlayers(positionFilter, sortingFilter);
     }
 }
@@ -0,0 +1,575 @@
+package me.nlt.bavm.teams;
+
+import me.nlt.bavm.teams.Market.MarketFilter;
+import me.nlt.bavm.teams.player.Player;
+import me.nlt.bavm.teams.player.PlayerStats;
+import me.nlt.bavm.teams.team.Team;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+public class MarketIndex
+{
+    private static final int SKILL = -1;
+    private static final int PRICE = -2;
+
+    private final Team marketTeam;
+    private final Entry[] entries;
+    private final EnumMap<MarketFilter, View> views = new EnumMap<>(MarketFilter.class);
+    private final IdentityHashMap<Player, Entry> entriesByPlayer = new IdentityHashMap<>();
+    private final Entry[][] statLists = new Entry[PlayerStats.Stat.values().length][];
+
+    /*
+     * MarketIndex houdt de spelers van het marktteam per positie al gesorteerd bij op skill, in beide richtingen
+     * Een lijst voor een combinatie van filters is dan alleen nog het samenvoegen van de lijsten die al klaar staan
+     *
+     * De marktwaarde is voor iedereen hetzelfde deel van de totale skill, sorteren op prijs is dus hetzelfde als sorteren op skill
+     * Zo blijft de index goed als andere spelers trainen, alleen de prijzen in de regels moeten dan opnieuw gemaakt worden
+     *
+     * Bij gelijke waardes blijft de volgorde van het marktteam staan en gaan eerder gekozen posities voor,
+     * precies zoals het stabiele sorteren dat Market hiervoor deed
+     * De index wordt door Market opnieuw gemaakt als er een speler bij of af gaat of als de skill van een speler op de markt veranderd is,
+     * regels van spelers waarvan de skill niet veranderd is worden dan uit de vorige index gehaald (DecimalFormat is traag)
+     *
+     * Voor zoekopdrachten van MarketQuery worden de spelers ook per stat gesorteerd, pas als er voor het eerst op die stat gezocht wordt
+     * Met binair zoeken in die lijsten wordt voor iedere grens bepaald hoeveel spelers erbinnen vallen,
+     * daarna worden alleen de spelers binnen de kleinste grens of binnen de grens van de sortering langsgelopen
+     */
+
+    /**
+     * MarketIndex constructor, sorteert de spelers van het marktteam
+     *
+     * @param marketTeam    Het marktteam
+     * @param previousIndex De vorige index, of null
+     */
+    public MarketIndex(Team marketTeam, MarketIndex previousIndex)
+    {
+        this.marketTeam = marketTeam;
+
+        DecimalFormat skillFormat = new DecimalFormat("###.##");
+        List<Player> players = marketTeam.getTeamInfo().getPlayers();
+
+        this.entries = new Entry[players.size()];
+
+        for (int i = 0; i < entries.length; i++)
+        {
+            Player player = players.get(i);
+            Entry previousEntry = (previousIndex != null ? previousIndex.entriesByPlayer.get(player) : null);
+            String row;
+
+            if (previousEntry != null && previousEntry.skill == player.getPlayerStats().getTotalSkill())
+            {
+                row = previousEntry.row;
+            } else
+            {
+                row = player.getPlayerName()
+                        + " - Positie: " + player.getPosition().getDutchAlias().toLowerCase()
+                        + " - Skill: " + skillFormat.format(player.getPlayerStats().getTotalSkill());
+            }
+
+            entries[i] = new Entry(player, i, row);
+            entriesByPlayer.put(player, entries[i]);
+        }
+
+        // Alleen de hele markt wordt gesorteerd, de lijsten per positie worden daaruit gefilterd en blijven zo gesorteerd
+        View allPlayers = new View(entries);
+
+        views.put(MarketFilter.ALL, allPlayers);
+
+        for (MarketFilter filter : MarketFilter.values())
+        {
+            if (filter.getFilterType() == 0 && filter != MarketFilter.ALL)
+            {
+                views.put(filter, new View(allPlayers, filter));
+            }
+        }
+    }
+
+    /**
+     * Returnt of deze index bij het gegeven marktteam hoort, na het laden is er een nieuw marktteam
+     *
+     * @param marketTeam Het marktteam
+     * @return Boolean die aangeeft of de index bij het marktteam hoort
+     */
+    public boolean isIndexOf(Team marketTeam)
+    {
+        return this.marketTeam == marketTeam;
+    }
+
+    /**
+     * Kijkt of de skill van een speler op de markt veranderd is sinds de index gemaakt is
+     *
+     * @return Boolean die aangeeft of de index opnieuw gemaakt moet worden
+     */
+    public boolean hasSkillChanges()
+    {
+        for (Entry entry : entries)
+        {
+            if (entry.skill != entry.player.getPlayerStats().getTotalSkill() || entry.checkSum != entry.player.getPlayerStats().getCheckSum())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Maakt de regels voor de markt uit de gesorteerde lijsten
+     *
+     * @param positionFilters De positiefilters in de gekozen volgorde, als ALL erbij zit worden de andere genegeerd
+     * @param sortingFilter   Het sorteerfilter, of null om de volgorde van het marktteam te houden
+     * @return De regels met spelers
+     */
+    public String[] listPlayers(List<MarketFilter> positionFilters, MarketFilter sortingFilter)
+    {
+        ArrayList<Entry[]> lists = new ArrayList<>();
+
+        for (MarketFilter filter : positionFilters)
+        {
+            if (filter == MarketFilter.ALL)
+            {
+                lists.clear();
+                lists.add(views.get(MarketFilter.ALL).getList(sortingFilter));
+                break;
+            }
+
+            lists.add(views.get(filter).getList(sortingFilter));
+        }
+
+        int size = 0;
+
+        for (Entry[] list : lists)
+        {
+            size += list.length;
+        }
+
+        DecimalFormat priceFormat = new DecimalFormat("######.##");
+        String[] marketStrings = new String[size];
+        int[] positions = new int[lists.size()];
+
+        for (int i = 0; i < size; i++)
+        {
+            int next = -1;
+
+            // Zonder sorteerfilter komen de lijsten gewoon achter elkaar, anders de kleinste (of grootste) waarde, bij gelijke waarde de eerste lijst
+            for (int list = 0; list < lists.size(); list++)
+            {
+                if (positions[list] == lists.get(list).length)
+                {
+                    continue;
+                }
+
+                if (next == -1)
+                {
+                    next = list;
+
+                    if (sortingFilter == null)
+                    {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                double value = lists.get(list)[positions[list]].skill;
+                double nextValue = lists.get(next)[positions[next]].skill;
+
+                if (isHighLow(sortingFilter) ? value > nextValue : value < nextValue)
+                {
+                    next = list;
+                }
+            }
+
+            marketStrings[i] = (i + 1) + ": " + lists.get(next)[positions[next]++].getRow(priceFormat);
+        }
+
+        return marketStrings;
+    }
+
+    /**
+     * Voert een zoekopdracht uit
+     *
+     * @param query        De zoekopdracht
+     * @param offset       Hoeveel spelers die voldoen eerst overgeslagen worden
+     * @param limit        Hoeveel spelers er maximaal teruggegeven worden
+     * @param countMatches Boolean die aangeeft of alle spelers die voldoen geteld moeten worden, anders wordt gestopt als de pagina vol is
+     * @return De pagina met spelers
+     */
+    public MarketQuery.Page find(MarketQuery query, int offset, int limit, boolean countMatches)
+    {
+        // De lijst in de volgorde van de sortering, met de grens van die stat of van de prijs
+        int sortingLocation = (query.getSortingStat() != null ? query.getSortingStat().getLocation() : SKILL);
+        Entry[] sortedList = (sortingLocation != SKILL ? getStatList(sortingLocation) : views.get(query.getPosition() != null ? query.getPosition().getMarketFiler() : MarketFilter.ALL).lowHigh);
+        int[] sortedRange = (sortingLocation != SKILL ? getRange(sortedList, sortingLocation, query.getMinStat(sortingLocation), query.getMaxStat(sortingLocation)) : getRange(sortedList, PRICE, query.getMinPrice(), query.getMaxPrice()));
+
+        // De kleinste andere grens zoeken
+        Entry[] smallestList = null;
+        int[] smallestRange = null;
+
+        for (int location = 0; location < statLists.length; location++)
+        {
+            if (location == sortingLocation || (query.getMinStat(location) == Double.NEGATIVE_INFINITY && query.getMaxStat(location) == Double.POSITIVE_INFINITY))
+            {
+                continue;
+            }
+
+            Entry[] list = getStatList(location);
+            int[] range = getRange(list, location, query.getMinStat(location), query.getMaxStat(location));
+
+            if (smallestRange == null || range[1] - range[0] < smallestRange[1] - smallestRange[0])
+            {
+                smallestList = list;
+                smallestRange = range;
+            }
+        }
+
+        if (sortingLocation != SKILL)
+        {
+            if (query.getMinPrice() != Double.NEGATIVE_INFINITY || query.getMaxPrice() != Double.POSITIVE_INFINITY)
+            {
+                Entry[] list = views.get(MarketFilter.ALL).lowHigh;
+                int[] range = getRange(list, PRICE, query.getMinPrice(), query.getMaxPrice());
+
+                if (smallestRange == null || range[1] - range[0] < smallestRange[1] - smallestRange[0])
+                {
+                    smallestList = list;
+                    smallestRange = range;
+                }
+            }
+
+            if (query.getPosition() != null)
+            {
+                Entry[] list = views.get(query.getPosition().getMarketFiler()).entries;
+
+                if (smallestRange == null || list.length < smallestRange[1] - smallestRange[0])
+                {
+                    smallestList = list;
+                    smallestRange = new int[]{0, list.length};
+                }
+            }
+        }
+
+        ArrayList<Player> players = new ArrayList<>();
+        int matchCount = 0;
+
+        if (smallestRange != null && (smallestRange[1] - smallestRange[0]) * 4 < sortedRange[1] - sortedRange[0])
+        {
+            // Weinig spelers binnen een andere grens: die verzamelen en daarna pas sorteren
+            ArrayList<Entry> candidates = new ArrayList<>();
+
+            for (int i = smallestRange[0]; i < smallestRange[1]; i++)
+            {
+                if (smallestList[i].matches(query))
+                {
+                    candidates.add(smallestList[i]);
+                }
+            }
+
+            Comparator<Entry> comparator = Comparator.comparingDouble(entry -> entry.getKey(sortingLocation));
+
+            candidates.sort((query.isHighLow() ? comparator.reversed() : comparator).thenComparingInt(entry -> entry.order));
+            matchCount = candidates.size();
+
+            for (int i = offset; i < Math.min(offset + limit, candidates.size()); i++)
+            {
+                players.add(candidates.get(i).player);
+            }
+        } else
+        {
+            // De lijst van de sortering langslopen, van hoog naar laag per groep gelijke waardes toch in de volgorde van het marktteam
+            int i = (query.isHighLow() ? sortedRange[1] - 1 : sortedRange[0]);
+
+            while (i >= sortedRange[0] && i < sortedRange[1] && (countMatches || players.size() < limit))
+            {
+                int groupStart = i;
+                int groupEnd = i;
+
+                if (query.isHighLow())
+                {
+                    while (groupStart > sortedRange[0] && sortedList[groupStart - 1].getKey(sortingLocation) == sortedList[i].getKey(sortingLocation))
+                    {
+                        groupStart--;
+                    }
+
+                    i = groupStart - 1;
+                } else
+                {
+                    i++;
+                }
+
+                for (int j = groupStart; j <= groupEnd; j++)
+                {
+                    if (!sortedList[j].matches(query))
+                    {
+                        continue;
+                    }
+
+                    if (matchCount >= offset && matchCount < offset + limit)
+                    {
+                        players.add(sortedList[j].player);
+                    }
+
+                    matchCount++;
+                }
+            }
+        }
+
+        return new MarketQuery.Page(players, (limit > 0 ? offset / limit : 0), limit, (countMatches ? matchCount : -1));
+    }
+
+    /**
+     * Returnt de spelers gesorteerd op een stat van laag naar hoog, de lijst wordt gemaakt als die nog niet bestaat
+     *
+     * @param location De locatie van de stat
+     * @return De gesorteerde spelers
+     */
+    private Entry[] getStatList(int location)
+    {
+        if (statLists[location] == null)
+        {
+            Entry[] list = entries.clone();
+
+            Arrays.sort(list, Comparator.comparingDouble(entry -> entry.stats[location]));
+            statLists[location] = list;
+        }
+
+        return statLists[location];
+    }
+
+    /**
+     * Zoekt binair welk stuk van een gesorteerde lijst tussen twee grenzen valt, de grenzen horen erbij
+     *
+     * @param list     De lijst, gesorteerd van laag naar hoog op de waarde van de locatie
+     * @param location De locatie van de stat, SKILL of PRICE
+     * @param min      De ondergrens
+     * @param max      De bovengrens
+     * @return {begin, eind}, het eind hoort er niet meer bij
+     */
+    private static int[] getRange(Entry[] list, int location, double min, double max)
+    {
+        return new int[]{search(list, location, min, false), search(list, location, max, true)};
+    }
+
+    /**
+     * Zoekt binair de eerste plek in een gesorteerde lijst met een waarde die minstens (of meer dan) een waarde is
+     *
+     * @param list     De lijst, gesorteerd van laag naar hoog op de waarde van de locatie
+     * @param location De locatie van de stat, SKILL of PRICE
+     * @param value    De waarde
+     * @param after    Boolean die aangeeft of de plek na alle gelijke waardes gezocht wordt
+     * @return De plek
+     */
+    private static int search(Entry[] list, int location, double value, boolean after)
+    {
+        int low = 0;
+        int high = list.length;
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            double key = list[middle].getKey(location);
+
+            if (after ? key <= value : key < value)
+            {
+                low = middle + 1;
+            } else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returnt of een sorteerfilter van hoog naar laag sorteert
+     *
+     * @param sortingFilter Het sorteerfilter
+     * @return Boolean die aangeeft of er van hoog naar laag gesorteerd wordt
+     */
+    private static boolean isHighLow(MarketFilter sortingFilter)
+    {
+        return sortingFilter == MarketFilter.PRICE_HIGH_LOW || sortingFilter == MarketFilter.STATS_HIGH_LOW;
+    }
+
+    private static class View
+    {
+        private final Entry[] entries;
+        private final Entry[] lowHigh;
+        private final Entry[] highLow;
+
+        /**
+         * View constructor, sorteert alle spelers
+         *
+         * @param entries De spelers in de volgorde van het marktteam
+         */
+        private View(Entry[] entries)
+        {
+            Comparator<Entry> comparator = Comparator.comparingDouble(entry -> entry.skill);
+
+            this.entries = entries;
+
+            // Arrays.sort is stabiel, gelijke waardes houden de volgorde van het marktteam
+            this.lowHigh = entries.clone();
+            Arrays.sort(lowHigh, comparator);
+            this.highLow = entries.clone();
+            Arrays.sort(highLow, comparator.reversed());
+        }
+
+        /**
+         * View constructor, haalt de spelers van 1 positie uit de gesorteerde lijsten van alle spelers
+         *
+         * @param allPlayers     De lijsten met alle spelers
+         * @param positionFilter Het positiefilter
+         */
+        private View(View allPlayers, MarketFilter positionFilter)
+        {
+            this.entries = filter(allPlayers.entries, positionFilter);
+            this.lowHigh = filter(allPlayers.lowHigh, positionFilter);
+            this.highLow = filter(allPlayers.highLow, positionFilter);
+        }
+
+        /**
+         * Haalt de spelers van 1 positie uit een lijst, de volgorde blijft hetzelfde
+         *
+         * @param entries        De lijst
+         * @param positionFilter Het positiefilter
+         * @return De spelers met die positie
+         */
+        private static Entry[] filter(Entry[] entries, MarketFilter positionFilter)
+        {
+            ArrayList<Entry> filtered = new ArrayList<>();
+
+            for (Entry entry : entries)
+            {
+                if (entry.player.getPosition().getMarketFiler() == positionFilter)
+                {
+                    filtered.add(entry);
+                }
+            }
+
+            return filtered.toArray(new Entry[filtered.size()]);
+        }
+
+        /**
+         * Returnt de spelers gesorteerd op het sorteerfilter
+         *
+         * @param sortingFilter Het sorteerfilter, of null voor de volgorde van het marktteam
+         * @return De spelers
+         */
+        private Entry[] getList(MarketFilter sortingFilter)
+        {
+            if (sortingFilter == null)
+            {
+                return entries;
+            }
+
+            return (isHighLow(sortingFilter) ? highLow : lowHigh);
+        }
+    }
+
+    private static class Entry
+    {
+        private final Player player;
+        private final int order;
+        private final double skill;
+        private final double checkSum;
+        private final double[] stats;
+        private final String row;
+
+        private double rowPrice = Double.NaN;
+        private String priceRow;
+
+        /**
+         * Entry constructor, de stats worden overgenomen zoals ze nu zijn
+         *
+         * @param player De speler
+         * @param order  De plek van de speler in het marktteam
+         * @param row    Het begin van de regel voor de markt, zonder nummer en prijs
+         */
+        private Entry(Player player, int order, String row)
+        {
+            this.player = player;
+            this.order = order;
+            this.skill = player.getPlayerStats().getTotalSkill();
+            this.checkSum = player.getPlayerStats().getCheckSum();
+            this.stats = new double[PlayerStats.Stat.values().length];
+            this.row = row;
+
+            for (int i = 0; i < stats.length; i++)
+            {
+                stats[i] = player.getPlayerStats().getValue(i);
+            }
+        }
+
+        /**
+         * Returnt de waarde waarop gesorteerd of gezocht wordt
+         *
+         * @param location De locatie van de stat, SKILL of PRICE
+         * @return De waarde
+         */
+        private double getKey(int location)
+        {
+            switch (location)
+            {
+                case SKILL:
+                    return skill;
+                case PRICE:
+                    return Market.getPlayerValue(skill);
+                default:
+                    return stats[location];
+            }
+        }
+
+        /**
+         * Checkt of de speler aan een zoekopdracht voldoet
+         *
+         * @param query De zoekopdracht
+         * @return Boolean die aangeeft of de speler voldoet
+         */
+        private boolean matches(MarketQuery query)
+        {
+            if (query.getPosition() != null && player.getPosition() != query.getPosition())
+            {
+                return false;
+            }
+
+            for (int i = 0; i < stats.length; i++)
+            {
+                if (stats[i] < query.getMinStat(i) || stats[i] > query.getMaxStat(i))
+                {
+                    return false;
+                }
+            }
+
+            double price = Market.getPlayerValue(skill);
+
+            return price >= query.getMinPrice() && price <= query.getMaxPrice();
+        }
+
+        /**
+         * Returnt de regel voor de markt, de prijs wordt alleen opnieuw gemaakt als die veranderd is
+         *
+         * @param priceFormat Het formaat voor de prijs
+         * @return De regel, zonder nummer
+         */
+        private String getRow(DecimalFormat priceFormat)
+        {
+            double price = player.getMarketValue();
+
+            if (price != rowPrice)
+            {
+                rowPrice = price;
+                priceRow = row + " - Prijs: $" + priceFormat.format(price) + " - ID: " + player.getPlayerID();
+            }
+
+            return priceRow;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package me.nlt.bavm.teams;
+
+import me.nlt.bavm.teams.player.Player;
+import me.nlt.bavm.teams.player.PlayerStats;
+import me.nlt.bavm.teams.player.Position;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MarketQuery
+{
+    private Position position;
+    private final double[] minStats = new double[PlayerStats.Stat.values().length];
+    private final double[] maxStats = new double[PlayerStats.Stat.values().length];
+    private double minPrice = Double.NEGATIVE_INFINITY;
+    private double maxPrice = Double.POSITIVE_INFINITY;
+
+    private PlayerStats.Stat sortingStat;
+    private boolean highLow = true;
+
+    /*
+     * MarketQuery is een zoekopdracht op de spelers van het marktteam: een positie, grenzen voor iedere stat en voor de prijs
+     * en een sortering op een stat of op de totale skill (wat dezelfde volgorde is als de prijs)
+     * De zoekopdracht wordt uitgevoerd door MarketIndex, die de spelers per stat gesorteerd heeft en zo alleen de spelers binnen een grens langsloopt
+     * Er worden alleen spelers teruggegeven, het maken van regels voor de display is aan de conversatie (en dus alleen voor 1 pagina)
+     */
+
+    /**
+     * MarketQuery constructor, zonder grenzen en gesorteerd op totale skill van hoog naar laag
+     */
+    public MarketQuery()
+    {
+        Arrays.fill(minStats, Double.NEGATIVE_INFINITY);
+        Arrays.fill(maxStats, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Zoekt alleen spelers met een positie
+     *
+     * @param position De positie, of null voor alle posities
+     * @return Deze zoekopdracht
+     */
+    public MarketQuery setPosition(Position position)
+    {
+        this.position = position;
+        return this;
+    }
+
+    /**
+     * Zoekt alleen spelers waarvan een stat tussen twee grenzen ligt, de grenzen horen er zelf bij
+     *
+     * @param stat De stat
+     * @param min  De ondergrens
+     * @param max  De bovengrens
+     * @return Deze zoekopdracht
+     */
+    public MarketQuery setStatRange(PlayerStats.Stat stat, double min, double max)
+    {
+        this.minStats[stat.getLocation()] = min;
+        this.maxStats[stat.getLocation()] = max;
+        return this;
+    }
+
+    /**
+     * Zoekt alleen spelers waarvan de prijs tussen twee grenzen ligt, de grenzen horen er zelf bij
+     *
+     * @param min De ondergrens
+     * @param max De bovengrens
+     * @return Deze zoekopdracht
+     */
+    public MarketQuery setPriceRange(double min, double max)
+    {
+        this.minPrice = min;
+        this.maxPrice = max;
+        return this;
+    }
+
+    /**
+     * Zet de sortering, bij gelijke waardes blijft de volgorde van het marktteam staan
+     *
+     * @param sortingStat De stat om op te sorteren, of null voor de totale skill en dus ook de prijs
+     * @param highLow     Boolean die aangeeft of er van hoog naar laag gesorteerd wordt
+     * @return Deze zoekopdracht
+     */
+    public MarketQuery setSorting(PlayerStats.Stat sortingStat, boolean highLow)
+    {
+        this.sortingStat = sortingStat;
+        this.highLow = highLow;
+        return this;
+    }
+
+    /**
+     * Returnt de eerste spelers die aan de zoekopdracht voldoen, zonder de rest te tellen
+     *
+     * @param amount Hoeveel spelers, mag niet negatief zijn
+     * @return De spelers
+     */
+    public List<Player> getTop(int amount)
+    {
+        if (amount < 0)
+        {
+            throw new IllegalArgumentException("Hoeveelheid " + amount + " is negatief");
+        }
+
+        return Market.getMarketIndex().find(this, 0, amount, false).getPlayers();
+    }
+
+    /**
+     * Returnt 1 pagina met spelers die aan de zoekopdracht voldoen
+     *
+     * @param pageNumber Nummer van de pagina, de eerste pagina is 0
+     * @param pageSize   Hoeveel spelers er op een pagina staan, minstens 1
+     * @return De pagina
+     */
+    public Page getPage(int pageNumber, int pageSize)
+    {
+        if (pageNumber < 0 || pageSize <= 0)
+        {
+            throw new IllegalArgumentException("Pagina " + pageNumber + " met " + pageSize + " spelers bestaat niet");
+        }
+
+        return Market.getMarketIndex().find(this, pageNumber * pageSize, pageSize, true);
+    }
+
+    /**
+     * Returnt de positie
+     *
+     * @return De positie, of null voor alle posities
+     */
+    Position getPosition()
+    {
+        return position;
+    }
+
+    /**
+     * Returnt de ondergrens van een stat
+     *
+     * @param location De locatie van de stat
+     * @return De ondergrens
+     */
+    double getMinStat(int location)
+    {
+        return minStats[location];
+    }
+
+    /**
+     * Returnt de bovengrens van een stat
+     *
+     * @param location De locatie van de stat
+     * @return De bovengrens
+     */
+    double getMaxStat(int location)
+    {
+        return maxStats[location];
+    }
+
+    /**
+     * Returnt de ondergrens van de prijs
+     *
+     * @return De ondergrens
+     */
+    double getMinPrice()
+    {
+        return minPrice;
+    }
+
+    /**
+     * Returnt de bovengrens van de prijs
+     *
+     * @return De bovengrens
+     */
+    double getMaxPrice()
+    {
+        return maxPrice;
+    }
+
+    /**
+     * Returnt de stat waarop gesorteerd wordt
+     *
+     * @return De stat, of null voor de totale skill
+     */
+    PlayerStats.Stat getSortingStat()
+    {
+        return sortingStat;
+    }
+
+    /**
+     * Returnt of er van hoog naar laag gesorteerd wordt
+     *
+     * @return Boolean die aangeeft of er van hoog naar laag gesorteerd wordt
+     */
+    boolean isHighLow()
+    {
+        return highLow;
+    }
+
+    public static class Page
+    {
+        private final List<Player> players;
+        private final int pageNumber;
+        private final int pageSize;
+        private final int matchCount;
+
+        /**
+         * Page constructor
+         *
+         * @param players    De spelers op de pagina
+         * @param pageNumber Nummer van de pagina
+         * @param pageSize   Hoeveel spelers er op een pagina staan
+         * @param matchCount Hoeveel spelers er in totaal aan de zoekopdracht voldoen, of -1 als die niet geteld zijn
+         */
+        Page(List<Player> players, int pageNumber, int pageSize, int matchCount)
+        {
+            this.players = players;
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+            this.matchCount = matchCount;
+        }
+
+        /**
+         * Returnt de spelers op de pagina
+         *
+         * @return De spelers
+         */
+        public List<Player> getPlayers()
+        {
+            return players;
+        }
+
+        /**
+         * Returnt het nummer van de pagina
+         *
+         * @return Nummer van de pagina, de eerste pagina is 0
+         */
+        public int getPageNumber()
+        {
+            return pageNumber;
+        }
+
+        /**
+         * Returnt hoeveel spelers er in totaal aan de zoekopdracht voldoen
+         *
+         * @return Hoeveelheid spelers
+         */
+        public int getMatchCount()
+        {
+            return matchCount;
+        }
+
+        /**
+         * Returnt hoeveel pagina's er zijn
+         *
+         * @return Hoeveelheid pagina's, minstens 1
+         */
+        public int getPageCount()
+        {
+            return Math.max(1, (matchCount + pageSize - 1) / pageSize);
+        }
+    }
+}
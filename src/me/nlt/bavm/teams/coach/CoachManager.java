@@ -1,12 +1,10 @@
 package me.nlt.bavm.teams.coach;
 
 import me.nlt.bavm.BAVM;
-import me.nlt.bavm.Factory;
-import me.nlt.bavm.generator.RandomNames;
-import me.nlt.bavm.generator.RandomStats;
+import me.nlt.bavm.files.RecordCodec;
+import me.nlt.bavm.generator.WorldGenerator;
 import me.nlt.bavm.teams.Manageable;
 import me.nlt.bavm.teams.Manager;
-import me.nlt.bavm.teams.exceptions.FactoryException;
 import me.nlt.bavm.teams.team.Team;
 import me.nlt.bavm.teams.team.TransferResult;
 
@@ -53,23 +51,14 @@ public class CoachManager<T extends Manageable> extends Manager<T>
      */
     public void loadManageables()
     {
-        int amount = BAVM.getFileManager().readAmount("coaches");
+        byte[][] records = BAVM.getFileManager().readAllRecords("coaches");
 
-        for (int i = 0; i < amount; i++)
+        for (T coach : parseRecords(records, record -> (T) RecordCodec.decodeCoach(record), loaded -> {
+            BAVM.getDisplay().clearText();
+            BAVM.getDisplay().appendText("Thread locked, aan het wachten op een unlock", "Thread ge-unlocked", "Spelers, teams, coaches en wedstrijden worden geladen", "  Alle spelers geladen", "  " + loaded + " coaches geladen ...");
+        }))
         {
-            try
-            {
-                manageables.add((T) Factory.createCoach(BAVM.getFileManager().readData("coach", i)));
-
-                if (i % 15 == 0)
-                {
-                    BAVM.getDisplay().clearText();
-                    BAVM.getDisplay().appendText("Thread locked, aan het wachten op een unlock", "Thread ge-unlocked", "Spelers, teams, coaches en wedstrijden worden geladen", "  Alle spelers geladen", "  " + i + " coaches geladen ...");
-                }
-            } catch (FactoryException e)
-            {
-                BAVM.getDisplay().printException(e);
-            }
+            addManageable(coach);
         }
 
         System.out.println("Alle coaches geladen");
@@ -95,7 +84,7 @@ public class CoachManager<T extends Manageable> extends Manager<T>
 
             if ((firstSave || coach.unsavedChanges()))
             {
-                BAVM.getFileManager().writeData("coach", coach.toString(), coach.getID());
+                BAVM.getFileManager().writeRecord("coach", RecordCodec.encodeCoach(coach), coach.getID());
                 coach.unsavedChanges = false;
                 counter++;
             }
@@ -110,14 +99,15 @@ public class CoachManager<T extends Manageable> extends Manager<T>
      */
     public void generateManageables()
     {
-        for (int i = 0; i < 74; i++)
-        {
-            double teamTalent = Math.random();
+        WorldGenerator worldGenerator = BAVM.getWorldGenerator();
 
-            manageables.add((T) new Coach(RandomNames.getPeopleName(), i, RandomStats.randomCStats(teamTalent)));
+        for (int i = 0; i < worldGenerator.getCoachAmount(); i++)
+        {
+            addManageable((T) worldGenerator.createCoach(i));
         }
 
         this.saveManageables(true);
+        dataLoaded = true;
     }
 
     /**
@@ -1,13 +1,16 @@
 package me.nlt.bavm.teams.coach;
 
 import me.nlt.bavm.BAVM;
-
-import java.util.HashMap;
+import me.nlt.bavm.teams.team.TeamInfo;
 
 public class CoachStats
 {
-    private HashMap<CStat, Double> coachSkills = new HashMap<>();
+    private static final CStat[] STATS = CStat.values();
+
+    private final double[] coachSkills = new double[STATS.length];
+    private double totalSkill;
     private int coachID;
+    private TeamInfo coefficientTeam;
 
     public enum CStat
     {
@@ -45,10 +48,24 @@ public class CoachStats
         this.coachID = coachID;
 
         // Skills in de array zetten
-        for (CStat stat : CStat.values())
+        for (CStat stat : STATS)
+        {
+            coachSkills[stat.getIndex()] = skillValues[stat.getIndex()];
+        }
+
+        this.updateTotalSkill();
+    }
+
+    /**
+     * Telt de skills opnieuw op tot de totale skill
+     */
+    private void updateTotalSkill()
+    {
+        this.totalSkill = 0;
+
+        for (double skill : coachSkills)
         {
-            // Skills in hashmap zetten
-            coachSkills.put(stat, skillValues[stat.getIndex()]);
+            totalSkill += skill;
         }
     }
 
@@ -60,22 +77,13 @@ public class CoachStats
      */
     public double getValue(int index)
     {
-        // Checken of de gegeven waarde bestaat in de hashmap
-        if (index < 0 || index > coachSkills.size())
+        // Checken of de gegeven waarde bestaat in de array
+        if (index < 0 || index > coachSkills.length)
         {
             return -1;
         }
 
-
-        for (CStat stat : CStat.values())
-        {
-            if (stat.getIndex() == index)
-            {
-                return coachSkills.get(stat);
-            }
-        }
-
-        return 0.0;
+        return (index < coachSkills.length ? coachSkills[index] : 0.0);
     }
 
     /**
@@ -86,15 +94,7 @@ public class CoachStats
      */
     public double getValue(CStat stat)
     {
-        for (CStat skill : CStat.values())
-        {
-            if (stat == skill)
-            {
-                return coachSkills.get(stat);
-            }
-        }
-
-        return 0.0;
+        return (stat != null ? coachSkills[stat.getIndex()] : 0.0);
     }
 
     /**
@@ -105,8 +105,24 @@ public class CoachStats
      */
     public void increaseSkill(CStat stat, double increment)
     {
-        coachSkills.put(stat, coachSkills.get(stat) + increment);
+        coachSkills[stat.getIndex()] += increment;
+        this.updateTotalSkill();
         BAVM.getCoachManager().getCoach(coachID).unsavedChanges = true;
+
+        if (coefficientTeam != null)
+        {
+            coefficientTeam.invalidateStatCoefficients();
+        }
+    }
+
+    /**
+     * Zet het team waarvan de statcoefficienten van deze stats afhangen, dat team moet opnieuw rekenen als een stat verandert
+     *
+     * @param coefficientTeam De teaminfo van het team
+     */
+    public void setCoefficientTeam(TeamInfo coefficientTeam)
+    {
+        this.coefficientTeam = coefficientTeam;
     }
 
     /**
@@ -118,7 +134,7 @@ public class CoachStats
     public static CStat getSkill(String skillName)
     {
         // Door alle stats loopen en kijken of er een naam overeenkomt
-        for (CStat stat : CStat.values())
+        for (CStat stat : STATS)
         {
             if (stat.name().equals(skillName))
             {
@@ -137,14 +153,7 @@ public class CoachStats
      */
     public double getTotalSkill()
     {
-        double skill = 0;
-
-        for (CStat cStat : CStat.values())
-        {
-            skill += getValue(cStat);
-        }
-
-        return skill;
+        return this.totalSkill;
     }
 
     /**
@@ -160,9 +169,9 @@ public class CoachStats
         String statString;
 
         // String maken met stats
-        for (CStat stat : CStat.values())
+        for (CStat stat : STATS)
         {
-            stringBuilder.append(stat.name().toLowerCase() + ":" + coachSkills.get(stat) + ">");
+            stringBuilder.append(stat.name().toLowerCase() + ":" + coachSkills[stat.getIndex()] + ">");
         }
 
         // Laatste komma weghalen
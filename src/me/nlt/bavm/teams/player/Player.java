@@ -1,16 +1,13 @@
 package me.nlt.bavm.teams.player;
 
 import me.nlt.bavm.teams.Manageable;
-
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import me.nlt.bavm.teams.Market;
 
 public class Player implements Manageable
 {
     private String playerName;
     private int playerID;
     private Position position;
-    private double marketValue;
 
     private PlayerStats playerStats;
 
@@ -29,8 +26,6 @@ public class Player implements Manageable
         this.playerID = playerID;
         this.position = position;
         this.playerStats = new PlayerStats(playerID, stats);
-
-        this.marketValue = new BigDecimal(Math.random() * 100).setScale(2, RoundingMode.HALF_UP).doubleValue();
         this.unsavedChanges = false;
     }
 
@@ -75,23 +70,13 @@ public class Player implements Manageable
     }
 
     /**
-     * Returnt de marktwaarde van de speler
+     * Returnt de marktwaarde van de speler, deze wordt uitgerekend uit zijn deel van de totale skill
      *
      * @return Marktwaarde
      */
     public double getMarketValue()
     {
-        return this.marketValue;
-    }
-
-    /**
-     * Methode om de martktwaarde van een speler aan te passen
-     *
-     * @param newValue De nieuwe marktwaarde
-     */
-    public void setMarketValue(double newValue)
-    {
-        this.marketValue = newValue;
+        return Market.getPlayerValue(this.playerStats.getTotalSkill());
     }
 
     /**
@@ -2,16 +2,18 @@ package me.nlt.bavm.teams.player;
 
 import me.nlt.bavm.BAVM;
 import me.nlt.bavm.teams.Market;
-
-import java.util.HashMap;
+import me.nlt.bavm.teams.team.TeamInfo;
 
 public class PlayerStats
 {
-    private HashMap<Stat, Double> playerSkills = new HashMap<>();
+    private static final Stat[] STATS = Stat.values();
+
+    private final double[] playerSkills = new double[STATS.length];
     private double checkSum;
     private double totalSkill;
 
     private int playerID;
+    private TeamInfo coefficientTeam;
 
     public enum Stat
     {
@@ -39,6 +41,10 @@ public class PlayerStats
         }
     }
 
+    /*
+     * De skills staan in een array op de plek van Stat.getLocation(), zo hoeft er bij het lezen niets gezocht of ge-unboxt te worden
+     */
+
     /**
      * PlayerStats constructor
      *
@@ -47,26 +53,32 @@ public class PlayerStats
     public PlayerStats(int playerID, double[] skillValues)
     {
         // Skills in de array zetten
-        for (Stat stat : Stat.values())
+        for (Stat stat : STATS)
         {
-            // Skills in hashmap zetten
-            playerSkills.put(stat, skillValues[stat.getLocation()]);
+            playerSkills[stat.getLocation()] = skillValues[stat.getLocation()];
         }
 
-        // Checksum maken
+        // Checksum 'vullen'
+        this.updateTotals();
+
+        this.playerID = playerID;
+    }
+
+    /**
+     * Berekent de checksum en de totale skill uit de skills
+     * Dit wordt steeds helemaal opgeteld in plaats van bijgehouden met alleen het verschil, zo blijft de checksum precies gelijk
+     * aan wat RecordCodec bij het laden opnieuw uitrekent
+     */
+    private void updateTotals()
+    {
         this.checkSum = 0;
         this.totalSkill = 0;
 
-        // Checksum 'vullen'
-        for (int i = 0; i < playerSkills.size(); i++)
+        for (int i = 0; i < playerSkills.length; i++)
         {
-            //DEBUG
-            //System.out.println(this.getValue(i));
-            checkSum += (this.getValue(i) * (i * 2) + this.getValue(i));
-            totalSkill += this.getValue(i);
+            checkSum += (playerSkills[i] * (i * 2) + playerSkills[i]);
+            totalSkill += playerSkills[i];
         }
-
-        this.playerID = playerID;
     }
 
     /**
@@ -77,21 +89,13 @@ public class PlayerStats
      */
     public double getValue(int location)
     {
-        // Checken of de gegeven waarde bestaat in de hashmap
-        if (location < 0 || location > playerSkills.size())
+        // Checken of de gegeven waarde bestaat in de array
+        if (location < 0 || location > playerSkills.length)
         {
             return -1;
         }
 
-        for (Stat stat : Stat.values())
-        {
-            if (stat.getLocation() == location)
-            {
-                return playerSkills.get(stat);
-            }
-        }
-
-        return 0.0;
+        return (location < playerSkills.length ? playerSkills[location] : 0.0);
     }
 
     /**
@@ -102,15 +106,7 @@ public class PlayerStats
      */
     public double getValue(Stat stat)
     {
-        for (Stat skill : Stat.values())
-        {
-            if (stat == skill)
-            {
-                return playerSkills.get(stat);
-            }
-        }
-
-        return 0.0;
+        return (stat != null ? playerSkills[stat.getLocation()] : 0.0);
     }
 
     /**
@@ -131,21 +127,30 @@ public class PlayerStats
      */
     public void increaseSkill(Stat stat, double increment)
     {
-        playerSkills.put(stat, playerSkills.get(stat) + increment);
+        double oldTotalSkill = this.totalSkill;
 
-        Market.statsChanged = true;
-        BAVM.getPlayerManager().getPlayer(playerID).unsavedChanges = true;
+        playerSkills[stat.getLocation()] += increment;
 
-        this.checkSum = 0;
-        this.totalSkill = 0;
+        BAVM.getPlayerManager().getPlayer(playerID).unsavedChanges = true;
 
-        for (int i = 0; i < playerSkills.size(); i++)
+        if (coefficientTeam != null)
         {
-            checkSum += (this.getValue(i) * (i * 2) + this.getValue(i));
-            totalSkill += this.getValue(i);
+            coefficientTeam.invalidateStatCoefficients();
         }
+
+        this.updateTotals();
+        Market.skillChanged(this.totalSkill - oldTotalSkill);
     }
 
+    /**
+     * Zet het team waarvan de statcoefficienten van deze stats afhangen, dat team moet opnieuw rekenen als een stat verandert
+     *
+     * @param coefficientTeam De teaminfo van het team
+     */
+    public void setCoefficientTeam(TeamInfo coefficientTeam)
+    {
+        this.coefficientTeam = coefficientTeam;
+    }
 
     /**
      * Zoekt de stat bij de string
@@ -156,7 +161,7 @@ public class PlayerStats
     public static Stat getSkill(String skillName)
     {
         // Door alle stats loopen en kijken of er een naam overeenkomt
-        for (Stat stat : Stat.values())
+        for (Stat stat : STATS)
         {
             if (stat.name().equals(skillName))
             {
@@ -176,7 +181,7 @@ public class PlayerStats
      */
     public static Stat getSkill(int index)
     {
-        for (Stat stat : Stat.values())
+        for (Stat stat : STATS)
         {
             if (stat.getLocation() == index)
             {
@@ -210,9 +215,9 @@ public class PlayerStats
         String statString;
 
         // String maken met stats
-        for (Stat stat : Stat.values())
+        for (Stat stat : STATS)
         {
-            stringBuilder.append(stat.name().toLowerCase() + ":" + playerSkills.get(stat) + ">");
+            stringBuilder.append(stat.name().toLowerCase() + ":" + playerSkills[stat.getLocation()] + ">");
         }
 
         // Laatste komma weghalen
@@ -2,6 +2,8 @@ package me.nlt.bavm.teams.player;
 
 import me.nlt.bavm.teams.Market.MarketFilter;
 
+import java.util.SplittableRandom;
+
 public enum Position
 {
     KEEPER(0, 2, 3, MarketFilter.KEEPER, "KEEPER"),
@@ -46,11 +48,12 @@ public enum Position
     /**
      * Returnt de hoeveelheid spelers die op deze positie speler in de opstelling
      *
+     * @param rnd De generator waar de getallen uit komen
      * @return De hoeveelheid spelers
      */
-    public int getStartPlayers()
+    public int getStartPlayers(SplittableRandom rnd)
     {
-        return Math.random() < .5 ? maxStart : minStart;
+        return rnd.nextDouble() < .5 ? maxStart : minStart;
     }
 
     /**
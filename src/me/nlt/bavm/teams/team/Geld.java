@@ -1,5 +1,9 @@
 package me.nlt.bavm.teams.team;
 
+import me.nlt.bavm.generator.LeagueRandom;
+
+import java.util.SplittableRandom;
+
 public class Geld
 {
     private int weeklyIncome;
@@ -15,11 +19,11 @@ public class Geld
      */
     public Geld(double teamTalent, int currentGeld, int weeklyIncome, int id)
     {
-        int teamIncomeFactor = (int) ((teamTalent + 1) * 30000);
-        int teamIncomeVariance = (int) ((Math.random() + 1) * 10000);
+        // Alleen een nieuw team heeft willekeurige getallen nodig, geladen teams hebben alles al
+        SplittableRandom rnd = (weeklyIncome == -1 || currentGeld == -1 ? LeagueRandom.split() : null);
 
-        this.weeklyIncome = (weeklyIncome == -1 ? teamIncomeFactor + teamIncomeVariance : weeklyIncome);
-        this.currentGeld = (currentGeld == -1 ? (id != 19 ? this.weeklyIncome * (int) ((Math.random() + 1) * 3) : this.weeklyIncome * (int) ((Math.random() + 1) * 15)) : currentGeld);
+        this.weeklyIncome = (weeklyIncome == -1 ? (int) ((teamTalent + 1) * 30000) + (int) ((rnd.nextDouble() + 1) * 10000) : weeklyIncome);
+        this.currentGeld = (currentGeld == -1 ? (id != 19 ? this.weeklyIncome * (int) ((rnd.nextDouble() + 1) * 3) : this.weeklyIncome * (int) ((rnd.nextDouble() + 1) * 15)) : currentGeld);
     }
 
     /**
@@ -12,6 +12,8 @@ public class PlayerPlacement
     private ArrayList<Player> attackers;
     private ArrayList<Player> midfielders;
 
+    private int changes;
+
     /**
      * PlayerPlacement constructor
      *
@@ -61,6 +63,7 @@ public class PlayerPlacement
     public void exchangePlayers(Player playerInPlacement, Player transferPlayer, Position position)
     {
         this.removePlayer(playerInPlacement);
+        changes++;
 
         switch (position)
         {
@@ -93,6 +96,8 @@ public class PlayerPlacement
             return;
         }
 
+        changes++;
+
         if (keeper == player)
         {
             keeper = null;
@@ -119,6 +124,16 @@ public class PlayerPlacement
         return player == keeper || attackers.contains(player) || midfielders.contains(player) || defenders.contains(player);
     }
 
+    /**
+     * Returnt hoe vaak de opstelling veranderd is, zo kan gecontroleerd worden of er iets veranderd is sinds de vorige keer
+     *
+     * @return De hoeveelheid veranderingen
+     */
+    public int getChanges()
+    {
+        return changes;
+    }
+
     /**
      * Returnt de hoeveelheid spelers in de opstelling
      *
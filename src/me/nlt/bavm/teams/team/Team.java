@@ -28,6 +28,25 @@ public class Team implements Manageable
      * @param scores       Scores
      */
     public Team(String teamName, String directorName, int teamID, int[] playerIDs, int coachID, double teamTalent, int currentGeld, int weeklyIncome, String placement, String scores)
+    {
+        this(teamName, directorName, teamID, playerIDs, coachID, teamTalent, currentGeld, weeklyIncome, TeamInfo.parsePlacement(placement), TeamInfo.parseScores(scores));
+    }
+
+    /**
+     * Team constructor met de opstelling en scores als getallen, voor binaire records
+     *
+     * @param teamName     Naam van het team
+     * @param directorName Naam van de directeur
+     * @param teamID       ID van het team
+     * @param playerIDs    ID's van de spelers in het team
+     * @param coachID      ID van de coach
+     * @param teamTalent   Teamtalent
+     * @param currentGeld  Huidige hoeveelheid geld
+     * @param weeklyIncome Wekelijkse inkomen
+     * @param placement    Opstelling als {{keeper}, verdedigers, aanvallers, middenvelders}, null als er geen opstelling is
+     * @param scores       Scores in de volgorde van TeamInfo.Score
+     */
+    public Team(String teamName, String directorName, int teamID, int[] playerIDs, int coachID, double teamTalent, int currentGeld, int weeklyIncome, int[][] placement, int[] scores)
     {
         this.teamName = teamName;
         this.directorName = directorName;
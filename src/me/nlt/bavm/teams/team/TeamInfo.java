@@ -18,9 +18,15 @@ public class TeamInfo
     private HashMap<Score, Integer> teamScores = new HashMap<>();
 
     private HashMap<StatCoefficient, Double> statCoefficients = new HashMap<>();
+    private boolean coefficientsChanged = true;
+    private int placementChanges;
 
     /*
      * TeamInfo heeft alle extra informatie van een team in zich
+     *
+     * De statcoefficienten worden bewaard en alleen opnieuw berekend als er iets veranderd is dat ze beinvloedt:
+     * de stats van een speler in de opstelling, de opstelling zelf of de coach (of zijn stats)
+     * Spelers en coach krijgen bij het berekenen deze teaminfo mee, zodat een verandering van hun stats het team laat weten dat het opnieuw moet
      */
 
     /**
@@ -32,10 +38,10 @@ public class TeamInfo
      * @param teamTalent   Talent van team
      * @param currentGeld  Huidige hoeveelheid geld
      * @param weeklyIncome Wekelijkse inkomen
-     * @param placement    Opstelling
-     * @param scores       Scores
+     * @param placement    Opstelling als {{keeper}, verdedigers, aanvallers, middenvelders}, null als er geen opstelling is
+     * @param scores       Scores in de volgorde van Score, null voor een nieuw team
      */
-    public TeamInfo(Team team, int[] playerIDs, int coachID, double teamTalent, int currentGeld, int weeklyIncome, String placement, String scores)
+    public TeamInfo(Team team, int[] playerIDs, int coachID, double teamTalent, int currentGeld, int weeklyIncome, int[][] placement, int[] scores)
     {
         this.team = team;
         for (int i : playerIDs)
@@ -54,87 +60,123 @@ public class TeamInfo
     /**
      * Deze methode laadt en maakt zo nodig de scores van het team
      *
-     * @param scores Scores
+     * @param scores Scores in de volgorde van Score, null voor allemaal 0
      */
-    private void createScores(String scores)
+    private void createScores(int[] scores)
+    {
+        for (Score score : Score.values())
+        {
+            teamScores.put(score, (scores != null && score.ordinal() < scores.length ? scores[score.ordinal()] : 0));
+        }
+    }
+
+    /**
+     * Zet de scores uit de tekst van toString om naar getallen
+     *
+     * @param scores Scores in de vorm NAAM>waarde met een % ertussen, of null
+     * @return De scores in de volgorde van Score, of null
+     */
+    static int[] parseScores(String scores)
     {
         if (scores == null)
         {
-            for (Score score : Score.values())
-            {
-                teamScores.put(score, 0);
-            }
-        } else
+            return null;
+        }
+
+        int[] values = new int[Score.values().length];
+
+        for (String data : scores.split("%"))
         {
-            for (String data : scores.split("%"))
+            for (Score score : Score.values())
             {
-                for (Score score : Score.values())
+                if (score.name().equals(data.split(">")[0]))
                 {
-                    if (score.name().equals(data.split(">")[0]))
-                    {
-                        teamScores.put(score, Integer.parseInt(data.split(">")[1]));
-                    }
+                    values[score.ordinal()] = Integer.parseInt(data.split(">")[1]);
                 }
             }
         }
+
+        return values;
     }
 
     /**
      * Deze methode laadt de opstelling van het team
      *
-     * @param placement De opstelling
+     * @param placement De opstelling als {{keeper}, verdedigers, aanvallers, middenvelders}, of null
      */
-    private void createPlacement(String placement)
+    private void createPlacement(int[][] placement)
     {
-        if (placement.equals("null") || placement.equals(""))
+        if (placement == null)
         {
             return;
         }
 
-        Player keeper = null;
-        ArrayList<Player> attackers = new ArrayList<>();
-        ArrayList<Player> defenders = new ArrayList<>();
-        ArrayList<Player> midfielders = new ArrayList<>();
+        Player keeper = (placement[0].length == 0 ? null : BAVM.getPlayerManager().getPlayer(placement[0][0]));
+        ArrayList<ArrayList<Player>> positions = new ArrayList<>();
+
+        for (int i = 1; i < 4; i++)
+        {
+            ArrayList<Player> players = new ArrayList<>();
+
+            for (int playerID : placement[i])
+            {
+                players.add(BAVM.getPlayerManager().getPlayer(playerID));
+            }
+
+            positions.add(players);
+        }
+
+        this.playerPlacement = new PlayerPlacement(keeper, positions.get(0), positions.get(1), positions.get(2));
+    }
+
+    /**
+     * Zet de opstelling uit de tekst van toString om naar getallen
+     *
+     * @param placement De opstelling in de vorm positie!ID#ID met een @ ertussen
+     * @return De opstelling als {{keeper}, verdedigers, aanvallers, middenvelders}, of null als er geen opstelling is
+     */
+    static int[][] parsePlacement(String placement)
+    {
+        if (placement.equals("null") || placement.equals(""))
+        {
+            return null;
+        }
 
-        String[] positions = placement.split("@");
+        int[][] positions = new int[][]{new int[0], new int[0], new int[0], new int[0]};
 
-        for (String position : positions)
+        for (String position : placement.split("@"))
         {
-            String[] ids;
+            int index;
 
             switch (position.split("!")[0])
             {
                 case "keeper":
-                    keeper = BAVM.getPlayerManager().getPlayer(Integer.parseInt(position.split("!")[1]));
-                    break;
-                case "attackers":
-                    ids = position.split("!")[1].split("#");
-
-                    for (String id : ids)
-                    {
-                        attackers.add(BAVM.getPlayerManager().getPlayer(Integer.parseInt(id)));
-                    }
+                    index = 0;
                     break;
                 case "defenders":
-                    ids = position.split("!")[1].split("#");
-
-                    for (String id : ids)
-                    {
-                        defenders.add(BAVM.getPlayerManager().getPlayer(Integer.parseInt(id)));
-                    }
+                    index = 1;
+                    break;
+                case "attackers":
+                    index = 2;
                     break;
                 case "midfielders":
-                    ids = position.split("!")[1].split("#");
-
-                    for (String id : ids)
-                    {
-                        midfielders.add(BAVM.getPlayerManager().getPlayer(Integer.parseInt(id)));
-                    }
+                    index = 3;
                     break;
+                default:
+                    continue;
+            }
+
+            String[] ids = position.split("!")[1].split("#");
+
+            positions[index] = new int[ids.length];
+
+            for (int i = 0; i < ids.length; i++)
+            {
+                positions[index][i] = Integer.parseInt(ids[i]);
             }
         }
 
-        this.playerPlacement = new PlayerPlacement(keeper, defenders, attackers, midfielders);
+        return positions;
     }
 
     public enum Score
@@ -151,6 +193,7 @@ public class TeamInfo
     public void increaseTeamScores(Score score, int increment)
     {
         teamScores.replace(score, teamScores.get(score) + increment);
+        team.unsavedChanges = true;
     }
 
     /**
@@ -164,6 +207,7 @@ public class TeamInfo
         }
 
         createScores(null);
+        team.unsavedChanges = true;
     }
 
     public enum StatCoefficient
@@ -193,11 +237,34 @@ public class TeamInfo
     }
 
     /**
-     * Returnt de statcoefficienten voor het team
+     * Laat het team weten dat de statcoefficienten opnieuw berekend moeten worden
+     */
+    public void invalidateStatCoefficients()
+    {
+        this.coefficientsChanged = true;
+    }
+
+    /**
+     * Returnt de statcoefficienten voor het team, deze worden alleen opnieuw berekend als er iets veranderd is
      *
      * @return De statcoefficienten voor het team
      */
     public HashMap<StatCoefficient, Double> getStatCoefficients()
+    {
+        if (!coefficientsChanged && playerPlacement != null && placementChanges == playerPlacement.getChanges())
+        {
+            return statCoefficients;
+        }
+
+        this.calculateStatCoefficients();
+
+        return statCoefficients;
+    }
+
+    /**
+     * Berekent de statcoefficienten opnieuw uit de spelers in de opstelling en de coach
+     */
+    private void calculateStatCoefficients()
     {
         int afm = 0;
         int att = 0;
@@ -225,6 +292,8 @@ public class TeamInfo
                 continue;
             }
 
+            player.getPlayerStats().setCoefficientTeam(this);
+
             switch (player.getPosition().getID())
             {
                 case 0:
@@ -275,7 +344,9 @@ public class TeamInfo
         statCoefficients.put(StatCoefficient.KEP, (0.75 * statCoefficients.get(StatCoefficient.KEP) / kep) + (teamCoach.getCoachStats().getValue(0) * 0.25));
         statCoefficients.put(StatCoefficient.CNDCOEF, (0.75 * statCoefficients.get(StatCoefficient.CNDCOEF) / cnd) + (teamCoach.getCoachStats().getValue(0) * 0.25));
 
-        return statCoefficients;
+        teamCoach.getCoachStats().setCoefficientTeam(this);
+        this.placementChanges = playerPlacement.getChanges();
+        this.coefficientsChanged = false;
     }
 
     /**
@@ -339,6 +410,8 @@ public class TeamInfo
     public void setTeamCoach(Coach coach)
     {
         this.teamCoach = coach;
+        this.coefficientsChanged = true;
+        team.unsavedChanges = true;
     }
 
     /**
@@ -1,14 +1,16 @@
 package me.nlt.bavm.teams.team;
 
 import me.nlt.bavm.BAVM;
-import me.nlt.bavm.Factory;
-import me.nlt.bavm.generator.RandomNames;
+import me.nlt.bavm.files.RecordCodec;
+import me.nlt.bavm.generator.WorldGenerator;
 import me.nlt.bavm.teams.Manageable;
 import me.nlt.bavm.teams.Manager;
+import me.nlt.bavm.teams.Market;
 import me.nlt.bavm.teams.exceptions.FactoryException;
 import me.nlt.bavm.teams.player.Player;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class TeamManager<T extends Manageable> extends Manager<T>
 {
@@ -16,6 +18,15 @@ public class TeamManager<T extends Manageable> extends Manager<T>
     public Team marketTeam;
     public Team playerTeam;
 
+    private static final int NO_TEAM = -1;
+    private int[] playerTeams = new int[0];
+
+    /*
+     * Naast de spelerslijst van ieder team staat voor iedere speler het ID van zijn team in playerTeams, op de plek van zijn ID
+     * Spelers in het marktteam (en spelers die nog geen team hebben tijdens het genereren) hebben NO_TEAM
+     * Teams krijgen hun spelers via addManageable, daarna verandert het alleen nog in transferPlayer
+     */
+
     /**
      * TeamManager constructor
      *
@@ -48,6 +59,65 @@ public class TeamManager<T extends Manageable> extends Manager<T>
         return team == null ? null : (Team) team;
     }
 
+    /**
+     * Checkt of een speler in een team zit, het marktteam telt niet mee
+     *
+     * @param playerID ID van de speler
+     * @return Boolean die aangeeft of de speler in een team zit
+     */
+    public boolean isPlayerInTeam(int playerID)
+    {
+        return playerID >= 0 && playerID < playerTeams.length && playerTeams[playerID] != NO_TEAM;
+    }
+
+    /**
+     * Zet het team van een speler in de index
+     *
+     * @param playerID ID van de speler
+     * @param teamID   ID van het team, of NO_TEAM
+     */
+    private void setPlayerTeam(int playerID, int teamID)
+    {
+        if (playerID >= playerTeams.length)
+        {
+            int oldLength = playerTeams.length;
+            int newLength = Math.max(playerID + 1, Math.max(64, oldLength * 2));
+
+            playerTeams = Arrays.copyOf(playerTeams, newLength);
+            Arrays.fill(playerTeams, oldLength, newLength, NO_TEAM);
+        }
+
+        playerTeams[playerID] = teamID;
+    }
+
+    @Override
+    /**
+     * Voegt een team toe en zet al zijn spelers in de index
+     *
+     * @param manageable Het team
+     */
+    public void addManageable(T manageable)
+    {
+        super.addManageable(manageable);
+
+        Team team = (Team) manageable;
+
+        for (Player player : team.getTeamInfo().getPlayers())
+        {
+            setPlayerTeam(player.getPlayerID(), team.getID());
+        }
+    }
+
+    @Override
+    /**
+     * Verwijdert alle teams, waardoor alle spelers weer zonder team zijn
+     */
+    public void clearManageables()
+    {
+        super.clearManageables();
+        Arrays.fill(playerTeams, NO_TEAM);
+    }
+
     /**
      * Returnt alle teams die geladen zijn
      *
@@ -64,13 +134,14 @@ public class TeamManager<T extends Manageable> extends Manager<T>
      */
     public void loadManageables()
     {
-        int amount = BAVM.getFileManager().readAmount("teams");
+        byte[][] records = BAVM.getFileManager().readAllRecords("teams");
+        int amount = records.length;
 
         for (int i = 0; i < amount - 1; i++)
         {
             try
             {
-                manageables.add((T) Factory.createTeam(BAVM.getFileManager().readData("team", i)));
+                addManageable((T) RecordCodec.decodeTeam(records[i]));
             } catch (FactoryException e)
             {
                 BAVM.getDisplay().printException(e);
@@ -80,7 +151,7 @@ public class TeamManager<T extends Manageable> extends Manager<T>
         playerTeam = (Team) super.getManageable(19);
         try
         {
-            marketTeam = Factory.createTeam(BAVM.getFileManager().readData("team", amount - 1));
+            marketTeam = RecordCodec.decodeTeam(records[amount - 1]);
         } catch (FactoryException e)
         {
             BAVM.getDisplay().printException(e);
@@ -104,7 +175,7 @@ public class TeamManager<T extends Manageable> extends Manager<T>
             BAVM.getDisplay().appendText("    -> Teams aan het opslaan ...");
         }
 
-        int counter = 1;
+        int counter = 0;
 
         for (T type : manageables)
         {
@@ -112,13 +183,18 @@ public class TeamManager<T extends Manageable> extends Manager<T>
 
             if ((firstSave || team.unsavedChanges()))
             {
-                BAVM.getFileManager().writeData("team", team.toString(), team.getID());
+                BAVM.getFileManager().writeRecord("team", RecordCodec.encodeTeam(team), team.getID());
                 team.unsavedChanges = false;
                 counter++;
             }
         }
 
-        BAVM.getFileManager().writeData("team", marketTeam.toString(), 20);
+        if (firstSave || marketTeam.unsavedChanges())
+        {
+            BAVM.getFileManager().writeRecord("team", RecordCodec.encodeTeam(marketTeam), 20);
+            marketTeam.unsavedChanges = false;
+            counter++;
+        }
 
         System.out.println((counter == 0 ? "Geen" : counter) + " veranderingen in teams opgeslagen!");
     }
@@ -129,23 +205,19 @@ public class TeamManager<T extends Manageable> extends Manager<T>
      */
     public void generateManageables()
     {
-        int teams = 19;
+        WorldGenerator worldGenerator = BAVM.getWorldGenerator();
+        int teams = worldGenerator.getTeamAmount();
 
         for (int i = 0; i < teams; i++)
         {
-            double teamTalent = Math.random();
-            int[] playerIDs = BAVM.getPlayerManager().getPlayerIDs(this, teamTalent);
-
-            manageables.add((T) new Team(RandomNames.getTeamName(), RandomNames.getPeopleName(), i, playerIDs, i, teamTalent, -1, -1, BAVM.getPlayerManager().getPlacementString(playerIDs), null));
+            addManageable((T) worldGenerator.createTeam(i));
         }
 
-        int[] playerIDs = BAVM.getPlayerManager().getPlayerIDs(this, 0.457);
-
-        manageables.add((T) new Team(RandomNames.getTeamName(), RandomNames.getPeopleName(), 19, playerIDs, teams, 0.4750, -1, -1, BAVM.getPlayerManager().getPlacementString(playerIDs), null));
         playerTeam = (Team) super.getManageable(19);
         marketTeam = new Team("marketTeam", "Satan", -666, BAVM.getPlayerManager().getFreePlayers(this), -1, 0.0, 234730247, 0, "", null);
 
         this.saveManageables(true);
+        dataLoaded = true;
 
         BAVM.getDisplay().appendText(teams + " teams gegenereerd!");
     }
@@ -185,6 +257,13 @@ public class TeamManager<T extends Manageable> extends Manager<T>
         receivingTeam.getTeamInfo().getTeamGeld().removeGeld(price);
         receivingTeam.unsavedChanges = true;
 
+        setPlayerTeam(player.getPlayerID(), receivingTeam == marketTeam ? NO_TEAM : receivingTeam.getID());
+
+        if (sendingTeam == marketTeam || receivingTeam == marketTeam)
+        {
+            Market.marketChanged = true;
+        }
+
         return TransferResult.SUCCESS;
     }
 }